@@ -0,0 +1,75 @@
+package um.example.TP5.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import um.example.TP5.Tp5Application;
+import um.example.TP5.service.EstadisticaSalarioService;
+import um.example.TP5.service.IndiceSalariosService;
+import um.example.TP5.support.GeneradorDatos;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Levanta la capa JPA (sin servidor web) sobre una base H2 en memoria propia y la puebla con {@link GeneradorDatos}
+ * (tamaño configurable con {@code -p empleados=...}). Se comparte entre todos los threads de un benchmark.
+ */
+@State(Scope.Benchmark)
+public class ContextoBenchmark {
+    private static final long SEMILLA = 42;
+
+    @Param("10000")
+    int empleados;
+
+    @Param("100")
+    int departamentos;
+
+    @Param("200")
+    int proyectos;
+
+    ConfigurableApplicationContext contexto;
+    long[] idsEmpleados;
+    long[] idsDepartamentos;
+    // Emails únicos para los empleados que crea el benchmark de guardar
+    final AtomicLong altas = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        // Argumentos de línea de comandos: tienen prioridad sobre application.yml
+        contexto = new SpringApplicationBuilder(Tp5Application.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--tp5.diagnostico-consultas.habilitado=false");
+        poblar();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    private void poblar() {
+        GeneradorDatos.Resultado resultado = new GeneradorDatos(bean(DataSource.class))
+            .generar(GeneradorDatos.Configuracion.de(SEMILLA, empleados, departamentos, proyectos));
+        idsEmpleados = LongStream.range(0, empleados).map(i -> resultado.idEmpleado((int) i)).toArray();
+        idsDepartamentos = LongStream.range(0, departamentos).map(i -> resultado.idDepartamento((int) i)).toArray();
+        // El generador escribe por JDBC: las estadísticas y el índice de salarios se reconstruyen al final
+        bean(EstadisticaSalarioService.class).reconstruir();
+        bean(IndiceSalariosService.class).reconstruir();
+    }
+}
@@ -0,0 +1,29 @@
+package um.example.TP5.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ejecuta los benchmarks con las opciones de línea de comandos de JMH (filtro por nombre, {@code -p}, {@code -f},
+ * {@code -t}, ...) y agrega siempre el profiler de GC, que informa la tasa de asignación por operación
+ * ({@code gc.alloc.rate.norm}). Los resultados quedan en target/jmh-resultados.json.
+ */
+public final class EjecutarBenchmarks {
+
+    private EjecutarBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opciones = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result("target/jmh-resultados.json")
+            .build();
+        new Runner(opciones).run();
+    }
+}
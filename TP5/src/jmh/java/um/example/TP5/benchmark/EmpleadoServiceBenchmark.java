@@ -0,0 +1,78 @@
+package um.example.TP5.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import um.example.TP5.entity.Empleado;
+import um.example.TP5.service.EmpleadoService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operaciones frecuentes de EmpleadoServiceImpl contra el dataset de {@link ContextoBenchmark}.
+ * <p>
+ * {@code guardar} agrega empleados en cada invocación, así que la tabla crece durante la medición.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class EmpleadoServiceBenchmark {
+    // Ancho del rango de salarios consultado: alrededor del 1 % de los empleados
+    private static final long ANCHO_RANGO_CENTAVOS = 1_200_00L;
+
+    private EmpleadoService empleadoService;
+    private long[] idsEmpleados;
+    private long[] idsDepartamentos;
+    private SplittableRandom random;
+
+    @Setup
+    public void iniciar(ContextoBenchmark contexto) {
+        empleadoService = contexto.bean(EmpleadoService.class);
+        idsEmpleados = contexto.idsEmpleados;
+        idsDepartamentos = contexto.idsDepartamentos;
+        random = new SplittableRandom(Thread.currentThread().threadId());
+    }
+
+    @Benchmark
+    public Empleado guardar(ContextoBenchmark contexto) {
+        Empleado empleado = new Empleado();
+        empleado.setNombre("Alta");
+        empleado.setApellido("Benchmark");
+        empleado.setEmail("alta" + contexto.altas.incrementAndGet() + "@empresa.com");
+        empleado.setFechaContratacion(LocalDate.now());
+        empleado.setSalario(BigDecimal.valueOf(30_000_00L + random.nextLong(120_000_00L), 2));
+        return empleadoService.guardar(empleado);
+    }
+
+    @Benchmark
+    public Empleado buscarPorId() {
+        return empleadoService.buscarPorId(idsEmpleados[random.nextInt(idsEmpleados.length)]);
+    }
+
+    @Benchmark
+    public List<Empleado> buscarPorRangoSalario() {
+        long minimo = 30_000_00L + random.nextLong(120_000_00L - ANCHO_RANGO_CENTAVOS);
+        return empleadoService.buscarPorRangoSalario(
+            BigDecimal.valueOf(minimo, 2), BigDecimal.valueOf(minimo + ANCHO_RANGO_CENTAVOS, 2));
+    }
+
+    @Benchmark
+    public BigDecimal obtenerSalarioPromedioPorDepartamento() {
+        return empleadoService.obtenerSalarioPromedioPorDepartamento(
+            idsDepartamentos[random.nextInt(idsDepartamentos.length)]);
+    }
+}
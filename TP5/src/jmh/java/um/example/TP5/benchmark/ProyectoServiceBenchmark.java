@@ -0,0 +1,38 @@
+package um.example.TP5.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import um.example.TP5.entity.Proyecto;
+import um.example.TP5.service.ProyectoService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Consultas de ProyectoServiceImpl contra el dataset de {@link ContextoBenchmark}. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ProyectoServiceBenchmark {
+    private ProyectoService proyectoService;
+
+    @Setup
+    public void iniciar(ContextoBenchmark contexto) {
+        proyectoService = contexto.bean(ProyectoService.class);
+    }
+
+    @Benchmark
+    public List<Proyecto> buscarProyectosActivos() {
+        return proyectoService.buscarProyectosActivos();
+    }
+}
@@ -0,0 +1,34 @@
+package um.example.TP5.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Registra {@link FiltroAdmision} cuando {@code tp5.admision.habilitada} es true (perfil {@code hilos-virtuales}).
+ * <p>
+ * Los permisos coinciden por defecto con el tamaño del pool de Hikari: con open-in-view cada request retiene una
+ * conexión mientras dura, así que admitir más requests que conexiones solo mueve la cola del semáforo al pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tp5.admision.habilitada", havingValue = "true")
+public class AdmisionConfig {
+
+    @Bean
+    public FilterRegistrationBean<FiltroAdmision> filtroAdmision(
+        @Value("${tp5.admision.permisos:${spring.datasource.hikari.maximum-pool-size:10}}") int permisos,
+        @Value("${tp5.admision.espera-maxima:2s}") Duration esperaMaxima,
+        MeterRegistry meterRegistry) {
+        FilterRegistrationBean<FiltroAdmision> registro =
+            new FilterRegistrationBean<>(new FiltroAdmision(permisos, esperaMaxima, meterRegistry));
+        // Después del filtro de observación (http.server.requests), para que la latencia medida incluya la espera
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+}
@@ -0,0 +1,115 @@
+package um.example.TP5.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Con el perfil {@code ids-pooled}, deja cada secuencia de IDs por encima del mayor ID de su tabla.
+ * <p>
+ * Hibernate crea las secuencias ({@code ddl-auto}) empezando en 1, pero en una base con filas insertadas con
+ * IDENTITY esos IDs ya están ocupados. El optimizador pooled toma el valor de la secuencia como el último ID del
+ * bloque (entrega de {@code valor - 49} a {@code valor}), así que la secuencia tiene que devolver al menos
+ * {@code MAX(id) + 50} para que el primer bloque empiece en {@code MAX(id) + 1}. Solo se avanza: una secuencia que ya
+ * está por encima no se toca.
+ * <p>
+ * Se ejecuta al iniciar, con el esquema ya creado y antes de que el servidor acepte requests.
+ */
+@Component
+@Profile("ids-pooled")
+public class AlineacionSecuenciasIds implements SmartInitializingSingleton {
+
+    // allocation-size de META-INF/orm-ids-pooled.xml
+    private static final int TAMANIO_BLOQUE = 50;
+
+    private record Secuencia(String nombre, String tabla) {
+    }
+
+    private static final List<Secuencia> SECUENCIAS = List.of(
+        new Secuencia("empleados_seq", "empleados"),
+        new Secuencia("departamentos_seq", "departamentos"),
+        new Secuencia("proyectos_seq", "proyectos"));
+
+    private final DataSource dataSource;
+
+    public AlineacionSecuenciasIds(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            alinear();
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudieron alinear las secuencias de IDs con las tablas", e);
+        }
+    }
+
+    public void alinear() throws SQLException {
+        try (Connection conexion = dataSource.getConnection()) {
+            String motor = conexion.getMetaData().getDatabaseProductName();
+            for (Secuencia secuencia : SECUENCIAS) {
+                Long maximo = maximoId(conexion, secuencia.tabla());
+                if (maximo == null) {
+                    continue;
+                }
+                long minimo = maximo + TAMANIO_BLOQUE;
+                switch (motor) {
+                    // MySQL no tiene secuencias: Hibernate las emula con una tabla de una fila (next_val)
+                    case "MySQL" -> ejecutar(conexion,
+                        "UPDATE " + secuencia.nombre() + " SET next_val = ? WHERE next_val < ?", minimo);
+                    // setval(..., false): el próximo nextval devuelve exactamente ese valor
+                    case "PostgreSQL" -> ejecutar(conexion,
+                        "SELECT setval('" + secuencia.nombre() + "', ?, false) FROM " + secuencia.nombre()
+                            + " WHERE CASE WHEN is_called THEN last_value + " + TAMANIO_BLOQUE
+                            + " ELSE last_value END < ?", minimo);
+                    default -> {
+                        if (proximoValorH2(conexion, secuencia.nombre()) < minimo) {
+                            try (Statement statement = conexion.createStatement()) {
+                                statement.execute("ALTER SEQUENCE " + secuencia.nombre() + " RESTART WITH " + minimo);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Long maximoId(Connection conexion, String tabla) throws SQLException {
+        try (Statement statement = conexion.createStatement();
+             ResultSet filas = statement.executeQuery("SELECT MAX(id) FROM " + tabla)) {
+            filas.next();
+            long maximo = filas.getLong(1);
+            return filas.wasNull() ? null : maximo;
+        }
+    }
+
+    private static long proximoValorH2(Connection conexion, String secuencia) throws SQLException {
+        try (PreparedStatement consulta = conexion.prepareStatement(
+            "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = ?")) {
+            consulta.setString(1, secuencia.toUpperCase(Locale.ROOT));
+            try (ResultSet filas = consulta.executeQuery()) {
+                filas.next();
+                return filas.getLong(1);
+            }
+        }
+    }
+
+    // El mínimo es a la vez el valor a asignar y la condición para asignarlo
+    private static void ejecutar(Connection conexion, String sql, long minimo) throws SQLException {
+        try (PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+            sentencia.setLong(1, minimo);
+            sentencia.setLong(2, minimo);
+            sentencia.execute();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package um.example.TP5.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import um.example.TP5.service.DiagnosticoConsultasService;
+import um.example.TP5.service.MedicionConsultas;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Conecta Hibernate con el diagnóstico de consultas por request (reemplaza a {@code show-sql}).
+ * <p>
+ * Las estadísticas de Hibernate ({@code generate_statistics}) son globales de la SessionFactory y no se pueden
+ * separar por request; en su lugar se registran en cada sesión:
+ * <ul>
+ *   <li>un {@link StatementInspector}, que anota el SQL de cada sentencia preparada,</li>
+ *   <li>un {@link SessionEventListener}, que cuenta y cronometra cada ejecución (o batch) JDBC,</li>
+ *   <li>listeners de carga de entidades y de inicialización de colecciones lazy.</li>
+ * </ul>
+ * Todos alimentan la {@link MedicionConsultas} del hilo actual, que abre y cierra {@link FiltroDiagnosticoConsultas}.
+ */
+@Configuration
+public class DiagnosticoConsultasConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer diagnosticoConsultasHibernate() {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                medir(medicion -> medicion.prepararSentencia(sql));
+                return sql;
+            });
+            propiedades.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, EscuchaSesion.class.getName());
+            propiedades.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(new RegistroListeners()));
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<FiltroDiagnosticoConsultas> filtroDiagnosticoConsultas(
+        DiagnosticoConsultasService diagnosticoConsultasService) {
+        return new FilterRegistrationBean<>(new FiltroDiagnosticoConsultas(diagnosticoConsultasService));
+    }
+
+    private static void medir(Consumer<MedicionConsultas> accion) {
+        MedicionConsultas medicion = MedicionConsultas.actual();
+        if (medicion != null) {
+            accion.accept(medicion);
+        }
+    }
+
+    /** Hibernate crea una instancia por sesión (hibernate.session.events.auto), por eso es pública y sin estado. */
+    public static class EscuchaSesion implements SessionEventListener {
+        @Override
+        public void jdbcExecuteStatementStart() {
+            medir(MedicionConsultas::iniciarSentencia);
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            medir(MedicionConsultas::terminarSentencia);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            medir(MedicionConsultas::iniciarSentencia);
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            medir(MedicionConsultas::terminarSentencia);
+        }
+    }
+
+    private static final class RegistroListeners implements Integrator {
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            EventListenerRegistry registro = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+            registro.appendListeners(EventType.POST_LOAD,
+                (PostLoadEventListener) evento -> medir(MedicionConsultas::registrarEntidadCargada));
+            registro.appendListeners(EventType.INIT_COLLECTION,
+                (InitializeCollectionEventListener) evento -> medir(MedicionConsultas::registrarColeccionCargada));
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package um.example.TP5.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Elige la réplica cuando la transacción en curso es de solo lectura y la primaria en cualquier otro caso.
+ * <p>
+ * La decisión se toma al pedir la conexión, por eso debe usarse detrás de un LazyConnectionDataSourceProxy
+ * (al abrir la transacción el flag read-only todavía no está publicado).
+ */
+class EnrutadorLecturaDataSource extends AbstractRoutingDataSource {
+
+    enum Destino { PRIMARIA, REPLICA }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Destino.REPLICA : Destino.PRIMARIA;
+    }
+}
@@ -0,0 +1,19 @@
+package um.example.TP5.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import um.example.TP5.service.PoolConexiones;
+
+/**
+ * Elige el pool de la conexión según {@link PoolConexiones#actual()}: {@code reportes} dentro de un método
+ * {@code @PoolReportes} y {@code oltp} en cualquier otro caso.
+ * <p>
+ * A diferencia de EnrutadorLecturaDataSource no necesita un LazyConnectionDataSourceProxy: el aspecto cambia el pool
+ * antes de que se abra la transacción, que es cuando se pide la conexión.
+ */
+class EnrutadorPoolDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return PoolConexiones.actual();
+    }
+}
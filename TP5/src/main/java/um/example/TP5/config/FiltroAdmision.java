@@ -0,0 +1,98 @@
+package um.example.TP5.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limita los requests de /api que se atienden a la vez. Con virtual threads Tomcat ya no tiene un máximo de hilos,
+ * así que sin este límite miles de requests concurrentes quedarían bloqueados esperando una conexión de Hikari (hasta
+ * su connectionTimeout) y ocupando memoria. Con él, los que exceden los permisos esperan en un semáforo justo (FIFO)
+ * y, si no entran dentro de la espera máxima, reciben 503 con Retry-After para que el cliente reintente.
+ * <p>
+ * Métricas: {@code tp5.admision.en-curso}, {@code tp5.admision.en-espera}, {@code tp5.admision.espera} (tiempo hasta
+ * obtener el permiso) y {@code tp5.admision.rechazados}.
+ */
+class FiltroAdmision extends OncePerRequestFilter {
+    private static final String PREFIJO_API = "/api/";
+
+    private final int permisos;
+    private final Semaphore semaforo;
+    private final long esperaMaximaNanos;
+    private final AtomicInteger enEspera = new AtomicInteger();
+    private final Timer espera;
+    private final Counter rechazados;
+
+    FiltroAdmision(int permisos, Duration esperaMaxima, MeterRegistry meterRegistry) {
+        if (permisos < 1) {
+            throw new IllegalArgumentException("tp5.admision.permisos tiene que ser al menos 1");
+        }
+        this.permisos = permisos;
+        this.semaforo = new Semaphore(permisos, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        Gauge.builder("tp5.admision.en-curso", semaforo, s -> permisos - s.availablePermits())
+            .description("Requests de /api en curso")
+            .register(meterRegistry);
+        Gauge.builder("tp5.admision.en-espera", enEspera, AtomicInteger::get)
+            .description("Requests de /api esperando un permiso")
+            .register(meterRegistry);
+        this.espera = Timer.builder("tp5.admision.espera")
+            .description("Tiempo de espera hasta obtener un permiso")
+            .register(meterRegistry);
+        this.rechazados = Counter.builder("tp5.admision.rechazados")
+            .description("Requests rechazados con 503 por superar la espera máxima")
+            .register(meterRegistry);
+    }
+
+    int getPermisos() {
+        return permisos;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PREFIJO_API);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (!adquirir()) {
+            rechazados.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Servidor saturado, reintentar más tarde");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            semaforo.release();
+        }
+    }
+
+    private boolean adquirir() {
+        long inicio = System.nanoTime();
+        enEspera.incrementAndGet();
+        try {
+            return semaforo.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            enEspera.decrementAndGet();
+            espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+}
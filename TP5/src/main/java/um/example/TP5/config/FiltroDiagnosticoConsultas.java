@@ -0,0 +1,38 @@
+package um.example.TP5.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import um.example.TP5.service.DiagnosticoConsultasService;
+
+import java.io.IOException;
+
+/**
+ * Mide las sentencias SQL de cada request, incluida la serialización de la respuesta (open-in-view puede cargar
+ * relaciones lazy al escribir el JSON). Los requests se agrupan por el patrón de la ruta, no por la URI, para que
+ * "/api/empleados/1" y "/api/empleados/2" sumen en el mismo endpoint.
+ */
+class FiltroDiagnosticoConsultas extends OncePerRequestFilter {
+    private static final String SIN_RUTA = "(sin ruta)";
+
+    private final DiagnosticoConsultasService diagnosticoConsultasService;
+
+    FiltroDiagnosticoConsultas(DiagnosticoConsultasService diagnosticoConsultasService) {
+        this.diagnosticoConsultasService = diagnosticoConsultasService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        diagnosticoConsultasService.iniciarMedicion();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            diagnosticoConsultasService.terminarMedicion(request.getMethod() + " " + (patron != null ? patron : SIN_RUTA));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package um.example.TP5.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import um.example.TP5.service.PoolConexiones;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Separa las conexiones en dos pools (bulkheads) según el tipo de trabajo.
+ * <p>
+ * Se activa con el perfil {@code pools-separados}. Los métodos de servicio marcados con {@code @PoolReportes}
+ * (listados completos, búsquedas por departamento o rango sin límite, exportaciones, lotes y reconstrucciones) usan el
+ * pool {@code reportes} ({@code tp5.pools.reportes.*}); el resto, el pool {@code oltp}
+ * ({@code spring.datasource.hikari.*}). Los dos apuntan a la misma base: lo que se separa es cuántas conexiones puede
+ * ocupar cada tipo de trabajo, para que un listado de un departamento enorme no deje esperando a buscarPorId.
+ * <p>
+ * Las métricas de Hikari ({@code hikaricp.connections.*}) se publican por pool con la etiqueta {@code pool}.
+ * No se combina con el perfil {@code replica}: los dos definen el DataSource principal.
+ */
+@Configuration
+@Profile("pools-separados")
+public class PoolsSeparadosConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource oltpDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("oltp");
+        return dataSource;
+    }
+
+    // Misma base que el pool oltp; propiedades de Hikari propias: tp5.pools.reportes.maximum-pool-size, ...
+    @Bean
+    @ConfigurationProperties("tp5.pools.reportes")
+    public HikariDataSource reportesDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("reportes");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("oltpDataSource") DataSource oltp,
+                                 @Qualifier("reportesDataSource") DataSource reportes) {
+        EnrutadorPoolDataSource enrutador = new EnrutadorPoolDataSource();
+        enrutador.setTargetDataSources(Map.of(
+            PoolConexiones.Pool.OLTP, oltp,
+            PoolConexiones.Pool.REPORTES, reportes));
+        enrutador.setDefaultTargetDataSource(oltp);
+        enrutador.afterPropertiesSet();
+        return enrutador;
+    }
+
+    @Bean
+    SeleccionPoolAspect seleccionPoolAspect() {
+        return new SeleccionPoolAspect();
+    }
+}
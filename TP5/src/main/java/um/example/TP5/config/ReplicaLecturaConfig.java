@@ -0,0 +1,59 @@
+package um.example.TP5.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Enruta las transacciones de solo lectura ({@code @Transactional(readOnly = true)}) a una réplica.
+ * <p>
+ * Se activa con el perfil {@code replica}. El DataSource que usa la aplicación es un
+ * {@link LazyConnectionDataSourceProxy} sobre un {@link EnrutadorLecturaDataSource}: la conexión física se obtiene
+ * recién en la primera sentencia, cuando ya se sabe si la transacción es de solo lectura. En ese caso sale del pool
+ * de la réplica ({@code tp5.replica.*}) y en cualquier otro caso del pool primario ({@code spring.datasource.*}).
+ */
+@Configuration
+@Profile("replica")
+public class ReplicaLecturaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    // Propiedades de Hikari: tp5.replica.jdbc-url, tp5.replica.username, tp5.replica.password, ...
+    @Bean
+    @ConfigurationProperties("tp5.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primariaDataSource") DataSource primaria,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        EnrutadorLecturaDataSource enrutador = new EnrutadorLecturaDataSource();
+        enrutador.setTargetDataSources(Map.of(
+            EnrutadorLecturaDataSource.Destino.PRIMARIA, primaria,
+            EnrutadorLecturaDataSource.Destino.REPLICA, replica));
+        enrutador.setDefaultTargetDataSource(primaria);
+        enrutador.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(enrutador);
+    }
+}
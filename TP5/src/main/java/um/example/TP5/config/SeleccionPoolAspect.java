@@ -0,0 +1,30 @@
+package um.example.TP5.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import um.example.TP5.service.PoolConexiones;
+
+/**
+ * Ejecuta los métodos {@code @PoolReportes} con el pool {@code reportes} y al terminar restaura el anterior, así las
+ * llamadas anidadas heredan el pool de la más externa.
+ * <p>
+ * Tiene la mayor precedencia para envolver al interceptor de {@code @Transactional}: la conexión se pide al abrir la
+ * transacción y para entonces el pool ya tiene que estar elegido.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+class SeleccionPoolAspect {
+
+    @Around("@annotation(um.example.TP5.service.PoolReportes)")
+    public Object usarPoolReportes(ProceedingJoinPoint invocacion) throws Throwable {
+        PoolConexiones.Pool anterior = PoolConexiones.usar(PoolConexiones.Pool.REPORTES);
+        try {
+            return invocacion.proceed();
+        } finally {
+            PoolConexiones.restaurar(anterior);
+        }
+    }
+}
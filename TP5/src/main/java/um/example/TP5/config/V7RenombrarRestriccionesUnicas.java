@@ -0,0 +1,115 @@
+package um.example.TP5.config;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.Empleado;
+import um.example.TP5.entity.Proyecto;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Migración V7 (MySQL y PostgreSQL): da a las restricciones UNIQUE de email y nombres los nombres que usa
+ * GlobalExceptionHandler para responder 409 con el error específico.
+ * <p>
+ * En las bases creadas antes de Flyway (baseline en V1) esas restricciones las generó Hibernate a partir de
+ * {@code @Column(unique = true)}: con nombre de hash en MySQL ({@code UK6fdpo2x5...}) y con el nombre automático del
+ * motor en PostgreSQL ({@code empleados_email_key}). Como el nombre cambia en cada base, no alcanza con un script SQL:
+ * se busca la restricción por tabla y columna en {@code information_schema} y se renombra. Si ya tiene el nombre
+ * esperado (bases creadas por V1) no se toca.
+ * <p>
+ * Spring Boot registra en Flyway los beans {@link JavaMigration}; no hay que agregarla a las carpetas de migraciones.
+ */
+@Component
+public class V7RenombrarRestriccionesUnicas implements JavaMigration {
+
+    private record Restriccion(String tabla, String columna, String nombre) {
+    }
+
+    private static final List<Restriccion> RESTRICCIONES = List.of(
+        new Restriccion("empleados", "email", Empleado.RESTRICCION_EMAIL),
+        new Restriccion("departamentos", "nombre", Departamento.RESTRICCION_NOMBRE),
+        new Restriccion("proyectos", "nombre", Proyecto.RESTRICCION_NOMBRE));
+
+    // Restricciones UNIQUE de una sola columna; los nombres de tabla y columna se comparan sin distinguir mayúsculas
+    private static final String SQL_RESTRICCIONES = """
+        SELECT tc.constraint_name
+        FROM information_schema.table_constraints tc
+        JOIN information_schema.key_column_usage kcu
+          ON kcu.constraint_name = tc.constraint_name
+         AND kcu.table_schema = tc.table_schema
+         AND kcu.table_name = tc.table_name
+        WHERE tc.constraint_type = 'UNIQUE' AND tc.table_schema = ? AND LOWER(tc.table_name) = ?
+        GROUP BY tc.constraint_name
+        HAVING COUNT(*) = 1 AND MAX(LOWER(kcu.column_name)) = ?
+        """;
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("7");
+    }
+
+    @Override
+    public String getDescription() {
+        return "renombrar restricciones unicas";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection conexion = context.getConnection();
+        boolean mysql = "MySQL".equalsIgnoreCase(conexion.getMetaData().getDatabaseProductName());
+        // En MySQL el esquema es el catálogo (la base de datos)
+        String esquema = mysql ? conexion.getCatalog() : conexion.getSchema();
+        for (Restriccion restriccion : RESTRICCIONES) {
+            List<String> existentes = restriccionesUnicas(conexion, esquema, restriccion);
+            boolean yaRenombrada = existentes.stream()
+                .anyMatch(nombre -> nombre.equalsIgnoreCase(restriccion.nombre()));
+            if (yaRenombrada || existentes.size() != 1) {
+                continue;
+            }
+            String anterior = existentes.get(0);
+            // MySQL implementa la restricción como un índice único; PostgreSQL renombra también el índice asociado
+            String sql = mysql
+                ? "ALTER TABLE " + restriccion.tabla() + " RENAME INDEX `" + anterior + "` TO " + restriccion.nombre()
+                : "ALTER TABLE " + restriccion.tabla() + " RENAME CONSTRAINT \"" + anterior + "\" TO " + restriccion.nombre();
+            try (Statement statement = conexion.createStatement()) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private static List<String> restriccionesUnicas(Connection conexion, String esquema, Restriccion restriccion)
+        throws SQLException {
+        List<String> nombres = new ArrayList<>();
+        try (PreparedStatement consulta = conexion.prepareStatement(SQL_RESTRICCIONES)) {
+            consulta.setString(1, esquema);
+            consulta.setString(2, restriccion.tabla());
+            consulta.setString(3, restriccion.columna().toLowerCase(Locale.ROOT));
+            try (ResultSet filas = consulta.executeQuery()) {
+                while (filas.next()) {
+                    nombres.add(filas.getString(1));
+                }
+            }
+        }
+        return nombres;
+    }
+}
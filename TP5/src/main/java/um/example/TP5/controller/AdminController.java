@@ -0,0 +1,104 @@
+package um.example.TP5.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import um.example.TP5.dto.DiagnosticoConsultas;
+import um.example.TP5.dto.EstadisticasCache;
+import um.example.TP5.dto.EstadoPool;
+import um.example.TP5.service.DiagnosticoConsultasService;
+import um.example.TP5.service.EstadisticaSalarioService;
+import um.example.TP5.service.EstadisticasCacheService;
+import um.example.TP5.service.IndiceSalariosService;
+import um.example.TP5.service.PoolsConexionService;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final EstadisticasCacheService estadisticasCacheService;
+    private final EstadisticaSalarioService estadisticaSalarioService;
+    private final IndiceSalariosService indiceSalariosService;
+    private final DiagnosticoConsultasService diagnosticoConsultasService;
+    private final PoolsConexionService poolsConexionService;
+
+    public AdminController(EstadisticasCacheService estadisticasCacheService,
+                           EstadisticaSalarioService estadisticaSalarioService,
+                           IndiceSalariosService indiceSalariosService,
+                           DiagnosticoConsultasService diagnosticoConsultasService,
+                           PoolsConexionService poolsConexionService) {
+        this.estadisticasCacheService = estadisticasCacheService;
+        this.estadisticaSalarioService = estadisticaSalarioService;
+        this.indiceSalariosService = indiceSalariosService;
+        this.diagnosticoConsultasService = diagnosticoConsultasService;
+        this.poolsConexionService = poolsConexionService;
+    }
+
+    /**
+     * GET /api/admin/cache
+     * Obtiene aciertos, fallos y escrituras de cada región de la caché de segundo nivel.
+     * @return Estado de la caché y estadísticas por región
+     */
+    @GetMapping("/cache")
+    public EstadisticasCache obtenerEstadisticasCache() {
+        return estadisticasCacheService.obtenerEstadisticas();
+    }
+
+    /**
+     * POST /api/admin/estadisticas-salario/reconstruir
+     * Recalcula desde cero las estadísticas de salario de todos los departamentos (reparación de desvíos).
+     * @return Cantidad de departamentos recalculados
+     */
+    @PostMapping("/estadisticas-salario/reconstruir")
+    public Map<String, Integer> reconstruirEstadisticasSalario() {
+        return Map.of("departamentos", estadisticaSalarioService.reconstruir());
+    }
+
+    /**
+     * POST /api/admin/indice-salarios/reconstruir
+     * Vuelve a cargar desde la base de datos el índice de salarios en memoria.
+     * @return Cantidad de empleados indexados
+     */
+    @PostMapping("/indice-salarios/reconstruir")
+    public Map<String, Integer> reconstruirIndiceSalarios() {
+        return Map.of("empleados", indiceSalariosService.reconstruir());
+    }
+
+    /**
+     * GET /api/admin/consultas
+     * Obtiene las sentencias SQL por endpoint, los requests que superaron el presupuesto (posibles N+1) y las
+     * últimas sentencias lentas.
+     * @return Diagnóstico de consultas acumulado
+     */
+    @GetMapping("/consultas")
+    public DiagnosticoConsultas obtenerDiagnosticoConsultas() {
+        return diagnosticoConsultasService.obtenerDiagnostico();
+    }
+
+    /**
+     * DELETE /api/admin/consultas
+     * Descarta lo acumulado por el diagnóstico de consultas (por ejemplo, antes de medir un cambio).
+     */
+    @DeleteMapping("/consultas")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void reiniciarDiagnosticoConsultas() {
+        diagnosticoConsultasService.reiniciar();
+    }
+
+    /**
+     * GET /api/admin/pools
+     * Obtiene conexiones activas, inactivas y pendientes, tiempos de espera y de uso y timeouts de cada pool de
+     * conexiones.
+     * @return Estado de cada pool
+     */
+    @GetMapping("/pools")
+    public List<EstadoPool> obtenerEstadoPools() {
+        return poolsConexionService.obtenerEstado();
+    }
+}
@@ -1,10 +1,19 @@
 package um.example.TP5.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import um.example.TP5.dto.DepartamentoDTO;
+import um.example.TP5.dto.EliminacionDepartamento;
 import um.example.TP5.entity.Departamento;
 import um.example.TP5.service.DepartamentoService;
+import um.example.TP5.service.EliminacionDepartamentoService;
+import um.example.TP5.service.VersionColeccionService;
 
 import java.util.List;
 
@@ -13,31 +22,47 @@ import java.util.List;
 @Validated
 public class DepartamentoController {
     private final DepartamentoService departamentoService;
+    private final EliminacionDepartamentoService eliminacionDepartamentoService;
+    private final VersionColeccionService versionColeccionService;
 
     // Inyección del servicio de departamentoS en el controlador
-    public DepartamentoController(DepartamentoService departamentoService) {
+    public DepartamentoController(DepartamentoService departamentoService,
+                                  EliminacionDepartamentoService eliminacionDepartamentoService,
+                                  VersionColeccionService versionColeccionService) {
         this.departamentoService = departamentoService;
+        this.eliminacionDepartamentoService = eliminacionDepartamentoService;
+        this.versionColeccionService = versionColeccionService;
     }
 
     /**
      * GET /api/departamentos
      * Obtiene una lista con todos los departamentos existentes.
-     * @return Lista de objetos Departamento
+     * @return Lista de departamentos (sin sus empleados), con ETag y Last-Modified de la colección
+     *         (304 sin cuerpo si el cliente ya tiene la versión actual)
      */
     @GetMapping
-    public List<Departamento> obtenerTodos() {
-        return departamentoService.obtenerTodos();
+    public List<DepartamentoDTO> obtenerTodos(WebRequest request) {
+        // La versión se lee antes que las filas: si cambian en el medio, el ETag queda viejo y no se pierde el cambio
+        if (EtagVersion.noModificado(request, versionColeccionService.obtener(VersionColeccionService.DEPARTAMENTOS))) {
+            return null;
+        }
+        return departamentoService.listar();
     }
 
     /**
      * GET /api/departamentos/{id}
      * Busca un departamento por su ID.
      * @param id ID del departamento
-     * @return Objeto Departamento correspondiente
+     * @return Objeto Departamento correspondiente, con su versión en el encabezado ETag
+     *         (304 sin cuerpo si el If-None-Match coincide con la versión actual)
      */
     @GetMapping("/{id}")
-    public Departamento obtenerPorId(@PathVariable Long id) {
-        return departamentoService.buscarPorId(id);
+    public ResponseEntity<Departamento> obtenerPorId(@PathVariable Long id, WebRequest request) {
+        if (EtagVersion.noModificado(request, () -> departamentoService.obtenerVersion(id))) {
+            return null;
+        }
+        Departamento departamento = departamentoService.buscarPorId(id);
+        return EtagVersion.respuesta(departamento, departamento.getVersion());
     }
 
     /**
@@ -68,12 +93,32 @@ public class DepartamentoController {
      * PUT /api/departamentos/{id}
      * Actualiza un departamento existente por ID.
      * @param id ID del departamento a actualizar
+     * @param ifMatch ETag leído antes de modificar (opcional); si la versión ya cambió responde 412
      * @param departamento Datos actualizados en el cuerpo de la petición
-     * @return Departamento actualizado
+     * @return Departamento actualizado, con su nueva versión en el encabezado ETag
      */
     @PutMapping("/{id}")
-    public Departamento actualizar(@PathVariable Long id, @RequestBody Departamento departamento) {
-        return departamentoService.actualizar(id, departamento);
+    public ResponseEntity<Departamento> actualizar(@PathVariable Long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestBody Departamento departamento) {
+        Departamento actualizado = departamentoService.actualizar(id, departamento, EtagVersion.versionEsperada(ifMatch));
+        return EtagVersion.respuesta(actualizado, actualizado.getVersion());
+    }
+
+    /**
+     * PATCH /api/departamentos/{id}
+     * Modifica solo los campos enviados (JSON Merge Patch): un campo ausente no cambia y uno en null se borra.
+     * @param id ID del departamento a modificar
+     * @param ifMatch ETag leído antes de modificar (opcional); si la versión ya cambió responde 412
+     * @param parche Campos a modificar
+     * @return Departamento actualizado, con su nueva versión en el encabezado ETag
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Departamento> parchear(@PathVariable Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestBody JsonNode parche) {
+        Departamento actualizado = departamentoService.parchear(id, parche, EtagVersion.versionEsperada(ifMatch));
+        return EtagVersion.respuesta(actualizado, actualizado.getVersion());
     }
 
     /**
@@ -87,5 +132,28 @@ public class DepartamentoController {
     public void eliminar(@PathVariable Long id) {
         departamentoService.eliminar(id);
     }
-}
 
+    /**
+     * POST /api/departamentos/{id}/eliminacion
+     * Inicia la eliminación en segundo plano de un departamento y sus empleados, en lotes de transacciones cortas.
+     * @param id ID del departamento a eliminar
+     * @return Tarea creada (o la que ya estaba en curso para ese departamento), con su ID para consultar el progreso
+     * @status 202 ACCEPTED
+     */
+    @PostMapping("/{id}/eliminacion")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public EliminacionDepartamento iniciarEliminacion(@PathVariable Long id) {
+        return eliminacionDepartamentoService.iniciar(id);
+    }
+
+    /**
+     * GET /api/departamentos/eliminaciones/{tareaId}
+     * Consulta el progreso de una eliminación en segundo plano.
+     * @param tareaId ID devuelto al iniciar la eliminación
+     * @return Estado, empleados eliminados y lotes confirmados hasta el momento
+     */
+    @GetMapping("/eliminaciones/{tareaId}")
+    public EliminacionDepartamento consultarEliminacion(@PathVariable String tareaId) {
+        return eliminacionDepartamentoService.consultar(tareaId);
+    }
+}
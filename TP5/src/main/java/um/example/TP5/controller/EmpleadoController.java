@@ -1,10 +1,29 @@
 package um.example.TP5.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import um.example.TP5.dto.AjusteSalarial;
+import um.example.TP5.dto.EmpleadoDTO;
+import um.example.TP5.dto.EstadisticaSalario;
+import um.example.TP5.dto.Pagina;
+import um.example.TP5.dto.PosicionSalario;
+import um.example.TP5.dto.ResultadoAjusteSalarial;
+import um.example.TP5.dto.ResultadoLote;
+import um.example.TP5.dto.SalarioIndexado;
 import um.example.TP5.entity.Empleado;
 import um.example.TP5.service.EmpleadoService;
+import um.example.TP5.service.IndiceSalariosService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -13,32 +32,85 @@ import java.util.List;
 @Validated
 public class EmpleadoController {
     private final EmpleadoService empleadoService;
+    private final IndiceSalariosService indiceSalariosService;
+    private final ObjectMapper objectMapper;
 
     // Inyección del servicio de empleados en el controlador
-    public EmpleadoController(EmpleadoService empleadoService) {
+    public EmpleadoController(EmpleadoService empleadoService, IndiceSalariosService indiceSalariosService,
+                              ObjectMapper objectMapper) {
         this.empleadoService = empleadoService;
+        this.indiceSalariosService = indiceSalariosService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * GET /api/empleados
      * Obtener todos los empleados.
-     * @return Lista de todos los empleados registrados.
+     * @return Lista de todos los empleados registrados (vista resumida, con ID y nombre del departamento).
      */
     @GetMapping
-    public List<Empleado> obtenerTodos() {
-        return empleadoService.obtenerTodos();
+    public List<EmpleadoDTO> obtenerTodos() {
+        return empleadoService.listar();
+    }
+
+    /**
+     * GET /api/empleados/pagina?cursor={cursor}&tamanio={tamanio}
+     * Obtener empleados paginados por cursor (keyset), ordenados por ID.
+     * @param cursor Cursor opaco devuelto por la página anterior (vacío para la primera página).
+     * @param tamanio Cantidad de empleados por página (máximo 500).
+     * @return Página con los empleados y el cursor de la página siguiente.
+     */
+    @GetMapping("/pagina")
+    public Pagina<EmpleadoDTO> obtenerPagina(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int tamanio) {
+        return empleadoService.obtenerPagina(cursor, tamanio);
+    }
+
+    /**
+     * GET /api/empleados/exportar
+     * Exportar todos los empleados como JSON delimitado por saltos de línea (NDJSON).
+     * Cada empleado se escribe en la respuesta a medida que se lee de la base de datos,
+     * por lo que la memoria usada no depende del tamaño de la tabla.
+     * @param response Respuesta HTTP sobre la que se escriben las líneas.
+     */
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportar(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        OutputStream salida = response.getOutputStream();
+        try {
+            empleadoService.exportarTodos(empleado -> escribirLinea(salida, empleado));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        salida.flush();
+    }
+
+    private void escribirLinea(OutputStream salida, EmpleadoDTO empleado) {
+        try {
+            salida.write(objectMapper.writeValueAsBytes(empleado));
+            salida.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 
     /**
      * GET /api/empleados/{id}
      * Obtener un empleado por su ID.
      * @param id Identificador del empleado.
-     * @return Empleado con el ID proporcionado.
+     * @return Empleado con el ID proporcionado, con su versión en el encabezado ETag
+     *         (304 sin cuerpo si el If-None-Match coincide con la versión actual).
      * @throws RuntimeException si no se encuentra el empleado.
      */
     @GetMapping("/{id}")
-    public Empleado obtenerPorId(@PathVariable Long id) {
-        return empleadoService.buscarPorId(id);
+    public ResponseEntity<Empleado> obtenerPorId(@PathVariable Long id, WebRequest request) {
+        if (EtagVersion.noModificado(request, () -> empleadoService.obtenerVersion(id))) {
+            return null;
+        }
+        Empleado empleado = empleadoService.buscarPorId(id);
+        return EtagVersion.respuesta(empleado, empleado.getVersion());
     }
 
     /**
@@ -54,17 +126,50 @@ public class EmpleadoController {
         return empleadoService.guardar(empleado);
     }
 
+    /**
+     * POST /api/empleados/lote
+     * Crear muchos empleados en una sola transacción, insertados en batches JDBC.
+     * Los elementos inválidos (email repetido o ya registrado, campos faltantes, departamento inexistente)
+     * se rechazan sin afectar al resto.
+     * @param empleados Lista de empleados a crear (máximo 5000).
+     * @return Reporte con el resultado de cada elemento, en el mismo orden recibido.
+     */
+    @PostMapping("/lote")
+    public ResultadoLote crearLote(@RequestBody List<Empleado> empleados) {
+        return empleadoService.guardarLote(empleados);
+    }
+
     /**
      * PUT /api/empleados/{id}
      * Actualizar un empleado existente.
      * @param id Identificador del empleado a actualizar.
+     * @param ifMatch ETag leído antes de modificar (opcional); si la versión ya cambió responde 412.
      * @param empleado Datos nuevos del empleado.
-     * @return Empleado actualizado.
+     * @return Empleado actualizado, con su nueva versión en el encabezado ETag.
      * @throws RuntimeException si no se encuentra el empleado.
      */
     @PutMapping("/{id}")
-    public Empleado actualizar(@PathVariable Long id, @RequestBody Empleado empleado) {
-        return empleadoService.actualizar(id, empleado);
+    public ResponseEntity<Empleado> actualizar(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @RequestBody Empleado empleado) {
+        Empleado actualizado = empleadoService.actualizar(id, empleado, EtagVersion.versionEsperada(ifMatch));
+        return EtagVersion.respuesta(actualizado, actualizado.getVersion());
+    }
+
+    /**
+     * PATCH /api/empleados/{id}
+     * Modifica solo los campos enviados (JSON Merge Patch): un campo ausente no cambia y uno en null se borra.
+     * @param id ID del empleado a modificar
+     * @param ifMatch ETag leído antes de modificar (opcional); si la versión ya cambió responde 412
+     * @param parche Campos a modificar
+     * @return Empleado actualizado, con su nueva versión en el encabezado ETag
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Empleado> parchear(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestBody JsonNode parche) {
+        Empleado actualizado = empleadoService.parchear(id, parche, EtagVersion.versionEsperada(ifMatch));
+        return EtagVersion.respuesta(actualizado, actualizado.getVersion());
     }
 
     /**
@@ -86,8 +191,8 @@ public class EmpleadoController {
      * @return Lista de empleados que pertenecen al departamento.
      */
     @GetMapping("/departamento/{nombre}")
-    public List<Empleado> obtenerPorDepartamento(@PathVariable String nombre) {
-        return empleadoService.buscarPorDepartamento(nombre);
+    public List<EmpleadoDTO> obtenerPorDepartamento(@PathVariable String nombre) {
+        return empleadoService.listarPorDepartamento(nombre);
     }
 
     /**
@@ -98,10 +203,10 @@ public class EmpleadoController {
      * @return Lista de empleados cuyo salario esté dentro del rango indicado.
      */
     @GetMapping("/salario")
-    public List<Empleado> obtenerPorRangoSalario(
+    public List<EmpleadoDTO> obtenerPorRangoSalario(
         @RequestParam BigDecimal min,
         @RequestParam BigDecimal max) {
-        return empleadoService.buscarPorRangoSalario(min, max);
+        return empleadoService.listarPorRangoSalario(min, max);
     }
 
     /**
@@ -115,5 +220,68 @@ public class EmpleadoController {
         return empleadoService.obtenerSalarioPromedioPorDepartamento(departamentoId);
     }
 
-}
+    /**
+     * GET /api/empleados/salario/estadisticas/{departamentoId}
+     * Obtener cantidad de empleados, suma, mínimo, máximo y promedio de salarios de un departamento.
+     * @param departamentoId ID del departamento.
+     * @return Estadísticas de salario del departamento.
+     */
+    @GetMapping("/salario/estadisticas/{departamentoId}")
+    public EstadisticaSalario obtenerEstadisticaSalario(@PathVariable Long departamentoId) {
+        return empleadoService.obtenerEstadisticaSalario(departamentoId);
+    }
+
+    /**
+     * POST /api/empleados/salario/ajuste
+     * Ajustar en bloque los salarios de los empleados que cumplen los filtros, con una sola sentencia UPDATE.
+     * Nuevo salario = salario * (1 + porcentaje / 100) + monto, redondeado a 2 decimales.
+     * @param ajuste Porcentaje y/o monto, y filtros opcionales por departamento y rango de salario.
+     * @return Cantidad de empleados actualizados.
+     */
+    @PostMapping("/salario/ajuste")
+    public ResultadoAjusteSalarial ajustarSalarios(@RequestBody AjusteSalarial ajuste) {
+        return empleadoService.ajustarSalarios(ajuste);
+    }
 
+    /**
+     * GET /api/empleados/salario/indice/rango?min=X&max=Y&limite=N
+     * Buscar empleados por rango de salario en el índice en memoria (sin consultar la base de datos).
+     * @param min Salario mínimo.
+     * @param max Salario máximo.
+     * @param limite Cantidad máxima de resultados (por defecto 100, máximo 1000).
+     * @return IDs y salarios en orden ascendente de salario.
+     */
+    @GetMapping("/salario/indice/rango")
+    public List<SalarioIndexado> buscarEnIndicePorRango(
+        @RequestParam BigDecimal min,
+        @RequestParam BigDecimal max,
+        @RequestParam(defaultValue = "100") int limite) {
+        return indiceSalariosService.buscarPorRango(min, max, limite);
+    }
+
+    /**
+     * GET /api/empleados/salario/indice/posicion/{departamentoId}?salario=X
+     * Obtener la posición de un salario dentro de un departamento (1 = el más alto).
+     * @param departamentoId ID del departamento.
+     * @param salario Salario a ubicar.
+     * @return Posición y cantidad de empleados del departamento.
+     */
+    @GetMapping("/salario/indice/posicion/{departamentoId}")
+    public PosicionSalario obtenerPosicionSalario(@PathVariable Long departamentoId, @RequestParam BigDecimal salario) {
+        return indiceSalariosService.obtenerPosicion(departamentoId, salario);
+    }
+
+    /**
+     * GET /api/empleados/salario/indice/mayores?cantidad=N&departamentoId=D
+     * Obtener los mayores salarios, de toda la empresa o de un departamento.
+     * @param cantidad Cantidad de empleados (por defecto 10, máximo 1000).
+     * @param departamentoId ID del departamento (opcional).
+     * @return IDs y salarios de mayor a menor.
+     */
+    @GetMapping("/salario/indice/mayores")
+    public List<SalarioIndexado> obtenerMayoresSalarios(
+        @RequestParam(defaultValue = "10") int cantidad,
+        @RequestParam(required = false) Long departamentoId) {
+        return indiceSalariosService.obtenerMayoresSalarios(departamentoId, cantidad);
+    }
+}
@@ -0,0 +1,80 @@
+package um.example.TP5.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import um.example.TP5.entity.VersionColeccion;
+import um.example.TP5.exception.VersionNoCoincideException;
+
+import java.util.function.Supplier;
+
+/**
+ * Traduce entre la versión de una entidad ({@code @Version}) y su ETag: la versión entre comillas, como ETag fuerte.
+ * También resuelve los GET condicionales (If-None-Match / If-Modified-Since) antes de leer las filas.
+ * <p>
+ * La versión es la del bloqueo optimista de Empleado, Departamento y Proyecto: cada UPDATE la incrementa. Un PUT
+ * escribe con un solo {@code UPDATE VERSIONED ... WHERE id = ? AND version = ?} (actualizarVersionado de cada
+ * repositorio), que controla a la vez la existencia y la versión; si no actualizó ninguna fila, el service recién ahí
+ * consulta si la entidad existe, para responder 404 o 412. La fila no se vuelve a leer: la respuesta es el cuerpo
+ * recibido con la versión anterior + 1.
+ * <p>
+ * Con If-Match, en Departamento y Proyecto el UPDATE es la única sentencia. Sin If-Match la versión anterior se lee
+ * antes (una consulta, que también responde el 404) y el UPDATE no la controla; si otro PUT sin If-Match se cuela en
+ * el medio, el ETag devuelto queda por debajo del real y el próximo If-Match con él responde 412, nunca pisa datos.
+ * Empleado siempre lee antes su estado (departamento, salario, versión y proyectos) para las estadísticas y la tabla
+ * de proyectos, y de ahí toma la versión.
+ */
+final class EtagVersion {
+
+    private EtagVersion() {
+    }
+
+    static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    static <T> ResponseEntity<T> respuesta(T cuerpo, Long version) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (version != null) {
+            respuesta.eTag(etag(version));
+        }
+        return respuesta.body(cuerpo);
+    }
+
+    /**
+     * True si el cliente ya tiene la versión actual de la entidad; en ese caso la respuesta queda en 304.
+     * La versión se consulta solo si vino If-None-Match: sin ese encabezado no hay nada que comparar.
+     */
+    static boolean noModificado(WebRequest request, Supplier<Long> version) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(etag(version.get()));
+    }
+
+    /**
+     * True si el cliente ya tiene la versión actual de la colección; en ese caso la respuesta queda en 304.
+     * Si no, deja ETag y Last-Modified en la respuesta. Last-Modified tiene precisión de segundos, así que dos
+     * cambios en el mismo segundo solo los distingue el ETag (que tiene prioridad cuando vienen ambos encabezados).
+     */
+    static boolean noModificado(WebRequest request, VersionColeccion coleccion) {
+        String etag = "\"" + coleccion.getVersion() + "-" + coleccion.getUltimaModificacion().toEpochMilli() + "\"";
+        return request.checkNotModified(etag, coleccion.getUltimaModificacion().toEpochMilli());
+    }
+
+    /**
+     * Versión esperada según el encabezado If-Match: null si no vino o es "*" (no se controla la versión).
+     * Un ETag débil o que no corresponde a una versión nunca coincide (la comparación de If-Match es estricta).
+     */
+    static Long versionEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            try {
+                return Long.valueOf(etag.substring(1, etag.length() - 1));
+            } catch (NumberFormatException ex) {
+                // Cae en la excepción de abajo
+            }
+        }
+        throw new VersionNoCoincideException("If-Match no corresponde a ninguna versión: " + ifMatch);
+    }
+}
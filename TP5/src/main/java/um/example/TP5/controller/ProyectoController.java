@@ -1,10 +1,17 @@
 package um.example.TP5.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import um.example.TP5.dto.ProyectoDTO;
 import um.example.TP5.entity.Proyecto;
 import um.example.TP5.service.ProyectoService;
+import um.example.TP5.service.VersionColeccionService;
 import java.util.List;
 
 @RestController
@@ -12,19 +19,26 @@ import java.util.List;
 @Validated
 public class ProyectoController {
     private final ProyectoService proyectoService;
+    private final VersionColeccionService versionColeccionService;
 
-    public ProyectoController(ProyectoService proyectoService) {
+    public ProyectoController(ProyectoService proyectoService, VersionColeccionService versionColeccionService) {
         this.proyectoService = proyectoService;
+        this.versionColeccionService = versionColeccionService;
     }
 
     /**
      * GET /api/proyectos
      * Obtiene todos los proyectos registrados.
-     * @return Lista de proyectos
+     * @return Lista de proyectos (sin sus empleados), con ETag y Last-Modified de la colección
+     *         (304 sin cuerpo si el cliente ya tiene la versión actual)
      */
     @GetMapping
-    public List<Proyecto> obtenerTodos() {
-        return proyectoService.obtenerTodos();
+    public List<ProyectoDTO> obtenerTodos(WebRequest request) {
+        // La versión se lee antes que las filas: si cambian en el medio, el ETag queda viejo y no se pierde el cambio
+        if (EtagVersion.noModificado(request, versionColeccionService.obtener(VersionColeccionService.PROYECTOS))) {
+            return null;
+        }
+        return proyectoService.listar();
     }
 
     /**
@@ -44,12 +58,32 @@ public class ProyectoController {
      * PUT /api/proyectos/{id}
      * Actualiza un proyecto existente por su ID.
      * @param id ID del proyecto a actualizar
+     * @param ifMatch ETag leído antes de modificar (opcional); si la versión ya cambió responde 412
      * @param proyecto Datos nuevos del proyecto
-     * @return Proyecto actualizado
+     * @return Proyecto actualizado, con su nueva versión en el encabezado ETag
      */
     @PutMapping("/{id}")
-    public Proyecto actualizar(@PathVariable Long id, @RequestBody Proyecto proyecto) {
-        return proyectoService.actualizar(id, proyecto);
+    public ResponseEntity<Proyecto> actualizar(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @RequestBody Proyecto proyecto) {
+        Proyecto actualizado = proyectoService.actualizar(id, proyecto, EtagVersion.versionEsperada(ifMatch));
+        return EtagVersion.respuesta(actualizado, actualizado.getVersion());
+    }
+
+    /**
+     * PATCH /api/proyectos/{id}
+     * Modifica solo los campos enviados (JSON Merge Patch): un campo ausente no cambia y uno en null se borra.
+     * @param id ID del proyecto a modificar
+     * @param ifMatch ETag leído antes de modificar (opcional); si la versión ya cambió responde 412
+     * @param parche Campos a modificar
+     * @return Proyecto actualizado, con su nueva versión en el encabezado ETag
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Proyecto> parchear(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestBody JsonNode parche) {
+        Proyecto actualizado = proyectoService.parchear(id, parche, EtagVersion.versionEsperada(ifMatch));
+        return EtagVersion.respuesta(actualizado, actualizado.getVersion());
     }
 
     /**
@@ -68,11 +102,16 @@ public class ProyectoController {
      * GET /api/proyectos/{id}
      * Obtiene un proyecto por su ID.
      * @param id ID del proyecto a buscar
-     * @return Proyecto encontrado
+     * @return Proyecto encontrado, con su versión en el encabezado ETag
+     *         (304 sin cuerpo si el If-None-Match coincide con la versión actual)
      */
     @GetMapping("/{id}")
-    public Proyecto obtenerPorId(@PathVariable Long id) {
-        return proyectoService.buscarPorId(id);
+    public ResponseEntity<Proyecto> obtenerPorId(@PathVariable Long id, WebRequest request) {
+        if (EtagVersion.noModificado(request, () -> proyectoService.obtenerVersion(id))) {
+            return null;
+        }
+        Proyecto proyecto = proyectoService.buscarPorId(id);
+        return EtagVersion.respuesta(proyecto, proyecto.getVersion());
     }
 
     /**
@@ -92,7 +131,7 @@ public class ProyectoController {
      * @return Lista de proyectos con estado activo
      */
     @GetMapping("/activos")
-    public List<Proyecto> obtenerPorProyectosActivos() {
-        return proyectoService.buscarProyectosActivos();
+    public List<ProyectoDTO> obtenerPorProyectosActivos() {
+        return proyectoService.listarProyectosActivos();
     }
 }
@@ -0,0 +1,19 @@
+package um.example.TP5.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Ajuste masivo de salarios: nuevo salario = salario * (1 + porcentaje / 100) + monto, redondeado a 2 decimales.
+ * @param porcentaje Porcentaje de aumento (negativo para una reducción, mayor a -100). Opcional si hay monto.
+ * @param monto Monto fijo a sumar (negativo para restar). Opcional si hay porcentaje.
+ * @param departamentoId Solo empleados de este departamento (opcional).
+ * @param salarioMin Solo salarios mayores o iguales (opcional).
+ * @param salarioMax Solo salarios menores o iguales (opcional).
+ */
+public record AjusteSalarial(
+    BigDecimal porcentaje,
+    BigDecimal monto,
+    Long departamentoId,
+    BigDecimal salarioMin,
+    BigDecimal salarioMax) {
+}
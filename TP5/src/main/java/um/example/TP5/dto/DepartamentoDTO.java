@@ -0,0 +1,7 @@
+package um.example.TP5.dto;
+
+/**
+ * Vista de lectura de un departamento, sin la colección de empleados.
+ */
+public record DepartamentoDTO(Long id, String nombre, String descripcion) {
+}
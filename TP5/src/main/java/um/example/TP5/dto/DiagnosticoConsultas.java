@@ -0,0 +1,27 @@
+package um.example.TP5.dto;
+
+import java.util.List;
+
+/**
+ * Resultado del diagnóstico de consultas SQL por request.
+ * @param habilitado Indica si se están midiendo los requests (tp5.diagnostico-consultas.habilitado).
+ * @param presupuestoSentencias Sentencias por request a partir de las cuales se lo marca como posible N+1.
+ * @param umbralSentenciaLentaMs Duración a partir de la cual una sentencia se considera lenta.
+ * @param muestreoSentenciasLentas Proporción de sentencias lentas que se registran (0 a 1).
+ * @param requestsMedidos Requests medidos desde el inicio o el último reinicio.
+ * @param requestsSobrePresupuesto Requests que superaron el presupuesto de sentencias.
+ * @param endpoints Acumulados por endpoint, de mayor a menor cantidad de sentencias.
+ * @param sospechososNMasUno Últimos requests que superaron el presupuesto, del más reciente al más antiguo.
+ * @param sentenciasLentas Últimas sentencias lentas muestreadas, de la más reciente a la más antigua.
+ */
+public record DiagnosticoConsultas(
+    boolean habilitado,
+    int presupuestoSentencias,
+    long umbralSentenciaLentaMs,
+    double muestreoSentenciasLentas,
+    long requestsMedidos,
+    long requestsSobrePresupuesto,
+    List<EstadisticaEndpointConsultas> endpoints,
+    List<RequestSobrePresupuesto> sospechososNMasUno,
+    List<SentenciaLenta> sentenciasLentas) {
+}
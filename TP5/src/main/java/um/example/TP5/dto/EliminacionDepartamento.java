@@ -0,0 +1,25 @@
+package um.example.TP5.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de una eliminación de departamento ejecutada en segundo plano.
+ * @param id Identificador de la tarea, para consultar el progreso.
+ * @param departamentoId Departamento que se está eliminando.
+ * @param estado PENDIENTE, EN_CURSO, COMPLETADA o FALLIDA.
+ * @param empleadosEliminados Empleados eliminados hasta el momento.
+ * @param lotes Lotes (transacciones) confirmados hasta el momento.
+ * @param inicio Momento en que se creó la tarea.
+ * @param fin Momento en que terminó, null si sigue en curso.
+ * @param error Motivo del fallo, null si no falló.
+ */
+public record EliminacionDepartamento(
+    String id,
+    Long departamentoId,
+    EstadoTarea estado,
+    long empleadosEliminados,
+    int lotes,
+    LocalDateTime inicio,
+    LocalDateTime fin,
+    String error) {
+}
@@ -0,0 +1,35 @@
+package um.example.TP5.dto;
+
+import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.Empleado;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Vista plana de un empleado para lectura: sin colecciones ni proxies de JPA.
+ * Del departamento solo se exponen su ID y su nombre.
+ */
+public record EmpleadoDTO(
+    Long id,
+    String nombre,
+    String apellido,
+    String email,
+    LocalDate fechaContratacion,
+    BigDecimal salario,
+    Long departamentoId,
+    String departamentoNombre) {
+
+    public static EmpleadoDTO desde(Empleado empleado) {
+        Departamento departamento = empleado.getDepartamento();
+        return new EmpleadoDTO(
+            empleado.getId(),
+            empleado.getNombre(),
+            empleado.getApellido(),
+            empleado.getEmail(),
+            empleado.getFechaContratacion(),
+            empleado.getSalario(),
+            departamento != null ? departamento.getId() : null,
+            departamento != null ? departamento.getNombre() : null);
+    }
+}
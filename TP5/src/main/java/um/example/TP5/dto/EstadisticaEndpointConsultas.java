@@ -0,0 +1,36 @@
+package um.example.TP5.dto;
+
+/**
+ * Sentencias SQL acumuladas de los requests a un endpoint.
+ * @param endpoint Método HTTP y patrón de la ruta (por ejemplo "GET /api/empleados/{id}").
+ * @param requests Requests medidos.
+ * @param sentencias Sentencias ejecutadas en total (un batch JDBC cuenta como una).
+ * @param maximoSentencias Mayor cantidad de sentencias de un solo request.
+ * @param promedioSentencias Sentencias por request.
+ * @param entidadesCargadas Entidades cargadas por Hibernate.
+ * @param coleccionesCargadas Colecciones lazy inicializadas (cada una es una consulta extra).
+ * @param sentenciasLentas Sentencias que superaron el umbral de lentitud (muestreadas o no).
+ * @param tiempoJdbcMs Tiempo total ejecutando sentencias.
+ * @param requestsSobrePresupuesto Requests que superaron el presupuesto de sentencias.
+ */
+public record EstadisticaEndpointConsultas(
+    String endpoint,
+    long requests,
+    long sentencias,
+    int maximoSentencias,
+    double promedioSentencias,
+    long entidadesCargadas,
+    long coleccionesCargadas,
+    long sentenciasLentas,
+    double tiempoJdbcMs,
+    long requestsSobrePresupuesto) {
+
+    public static EstadisticaEndpointConsultas de(String endpoint, long requests, long sentencias, int maximoSentencias,
+                                                  long entidadesCargadas, long coleccionesCargadas,
+                                                  long sentenciasLentas, double tiempoJdbcMs,
+                                                  long requestsSobrePresupuesto) {
+        double promedioSentencias = requests == 0 ? 0.0 : (double) sentencias / requests;
+        return new EstadisticaEndpointConsultas(endpoint, requests, sentencias, maximoSentencias, promedioSentencias,
+            entidadesCargadas, coleccionesCargadas, sentenciasLentas, tiempoJdbcMs, requestsSobrePresupuesto);
+    }
+}
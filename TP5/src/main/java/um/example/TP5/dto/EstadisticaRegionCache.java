@@ -0,0 +1,25 @@
+package um.example.TP5.dto;
+
+/**
+ * Contadores de una región de la caché de segundo nivel.
+ * @param region Nombre de la región (entidad o consulta).
+ * @param aciertos Lecturas resueltas desde la caché.
+ * @param fallos Lecturas que tuvieron que ir a la base de datos.
+ * @param escrituras Elementos agregados a la caché.
+ * @param elementosEnMemoria Elementos presentes actualmente (-1 si el proveedor no lo informa).
+ * @param tasaAciertos Proporción de lecturas resueltas desde la caché (0 a 1).
+ */
+public record EstadisticaRegionCache(
+    String region,
+    long aciertos,
+    long fallos,
+    long escrituras,
+    long elementosEnMemoria,
+    double tasaAciertos) {
+
+    public static EstadisticaRegionCache de(String region, long aciertos, long fallos, long escrituras, long elementosEnMemoria) {
+        long lecturas = aciertos + fallos;
+        double tasaAciertos = lecturas == 0 ? 0.0 : (double) aciertos / lecturas;
+        return new EstadisticaRegionCache(region, aciertos, fallos, escrituras, elementosEnMemoria, tasaAciertos);
+    }
+}
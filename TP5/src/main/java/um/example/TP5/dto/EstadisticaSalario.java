@@ -0,0 +1,33 @@
+package um.example.TP5.dto;
+
+import um.example.TP5.entity.EstadisticaSalarioDepartamento;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Resumen de salarios de un departamento.
+ * @param departamentoId ID del departamento.
+ * @param cantidad Cantidad de empleados.
+ * @param suma Suma de los salarios.
+ * @param minimo Salario mínimo (null si no hay empleados).
+ * @param maximo Salario máximo (null si no hay empleados).
+ * @param promedio Salario promedio (0 si no hay empleados).
+ */
+public record EstadisticaSalario(
+    Long departamentoId,
+    long cantidad,
+    BigDecimal suma,
+    BigDecimal minimo,
+    BigDecimal maximo,
+    BigDecimal promedio) {
+
+    public static EstadisticaSalario de(EstadisticaSalarioDepartamento estadistica) {
+        long cantidad = estadistica.getCantidad();
+        BigDecimal promedio = cantidad == 0
+            ? BigDecimal.ZERO
+            : estadistica.getSuma().divide(BigDecimal.valueOf(cantidad), 2, RoundingMode.HALF_UP);
+        return new EstadisticaSalario(estadistica.getDepartamentoId(), cantidad, estadistica.getSuma(),
+            estadistica.getMinimo(), estadistica.getMaximo(), promedio);
+    }
+}
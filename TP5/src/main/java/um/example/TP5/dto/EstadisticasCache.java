@@ -0,0 +1,11 @@
+package um.example.TP5.dto;
+
+import java.util.List;
+
+/**
+ * Estado de la caché de segundo nivel y estadísticas por región.
+ * @param habilitada Indica si la caché de segundo nivel está activa (perfil "cache").
+ * @param regiones Estadísticas de cada región; vacío si la caché o las estadísticas están desactivadas.
+ */
+public record EstadisticasCache(boolean habilitada, List<EstadisticaRegionCache> regiones) {
+}
@@ -0,0 +1,6 @@
+package um.example.TP5.dto;
+
+public enum EstadoItemLote {
+    CREADO,
+    RECHAZADO
+}
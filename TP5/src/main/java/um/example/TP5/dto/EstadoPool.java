@@ -0,0 +1,29 @@
+package um.example.TP5.dto;
+
+/**
+ * Estado de un pool de conexiones de Hikari.
+ * @param pool Nombre del pool (etiqueta {@code pool} de las métricas hikaricp.connections.*).
+ * @param activas Conexiones prestadas en este momento.
+ * @param inactivas Conexiones abiertas y libres.
+ * @param pendientes Hilos esperando una conexión.
+ * @param maximo Tamaño máximo del pool.
+ * @param adquisiciones Conexiones entregadas desde el inicio.
+ * @param esperaPromedioMs Tiempo promedio hasta obtener una conexión.
+ * @param esperaMaximaMs Mayor espera de la ventana reciente.
+ * @param usoPromedioMs Tiempo promedio que se retuvo cada conexión.
+ * @param usoMaximoMs Mayor retención de la ventana reciente.
+ * @param timeouts Pedidos que no obtuvieron conexión dentro del connectionTimeout.
+ */
+public record EstadoPool(
+    String pool,
+    int activas,
+    int inactivas,
+    int pendientes,
+    int maximo,
+    long adquisiciones,
+    double esperaPromedioMs,
+    double esperaMaximaMs,
+    double usoPromedioMs,
+    double usoMaximoMs,
+    long timeouts) {
+}
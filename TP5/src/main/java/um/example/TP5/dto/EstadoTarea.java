@@ -0,0 +1,8 @@
+package um.example.TP5.dto;
+
+public enum EstadoTarea {
+    PENDIENTE,
+    EN_CURSO,
+    COMPLETADA,
+    FALLIDA
+}
@@ -0,0 +1,12 @@
+package um.example.TP5.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados recorrida por cursor (keyset).
+ * @param contenido Elementos de la página, ordenados por ID ascendente.
+ * @param siguienteCursor Cursor opaco para pedir la página siguiente, o null si no hay más.
+ * @param hayMas Indica si existen más elementos después de esta página.
+ */
+public record Pagina<T>(List<T> contenido, String siguienteCursor, boolean hayMas) {
+}
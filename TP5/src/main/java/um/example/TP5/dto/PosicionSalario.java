@@ -0,0 +1,13 @@
+package um.example.TP5.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Posición de un salario dentro de un departamento, de mayor a menor.
+ * @param departamentoId ID del departamento.
+ * @param salario Salario consultado.
+ * @param posicion 1 + cantidad de empleados del departamento que cobran estrictamente más.
+ * @param total Cantidad de empleados del departamento.
+ */
+public record PosicionSalario(Long departamentoId, BigDecimal salario, long posicion, long total) {
+}
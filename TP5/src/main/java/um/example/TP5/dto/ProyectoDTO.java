@@ -0,0 +1,9 @@
+package um.example.TP5.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Vista de lectura de un proyecto, sin la colección de empleados.
+ */
+public record ProyectoDTO(Long id, String nombre, String descripcion, LocalDate fechaInicio, LocalDate fechaFin) {
+}
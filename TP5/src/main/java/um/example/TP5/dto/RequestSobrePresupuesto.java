@@ -0,0 +1,21 @@
+package um.example.TP5.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request que ejecutó más sentencias que el presupuesto (posible N+1).
+ * @param endpoint Método HTTP y patrón de la ruta.
+ * @param fecha Momento en que terminó el request.
+ * @param sentencias Sentencias ejecutadas.
+ * @param entidadesCargadas Entidades cargadas por Hibernate.
+ * @param coleccionesCargadas Colecciones lazy inicializadas.
+ * @param tiempoJdbcMs Tiempo ejecutando sentencias.
+ */
+public record RequestSobrePresupuesto(
+    String endpoint,
+    LocalDateTime fecha,
+    int sentencias,
+    long entidadesCargadas,
+    long coleccionesCargadas,
+    double tiempoJdbcMs) {
+}
@@ -0,0 +1,8 @@
+package um.example.TP5.dto;
+
+/**
+ * Resultado de un ajuste masivo de salarios.
+ * @param empleadosActualizados Cantidad de empleados alcanzados por el ajuste.
+ */
+public record ResultadoAjusteSalarial(int empleadosActualizados) {
+}
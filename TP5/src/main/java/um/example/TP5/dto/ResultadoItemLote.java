@@ -0,0 +1,20 @@
+package um.example.TP5.dto;
+
+/**
+ * Resultado individual de un elemento dentro de una carga masiva.
+ * @param indice Posición del elemento en la lista recibida.
+ * @param estado CREADO o RECHAZADO.
+ * @param id ID asignado si fue creado, null si fue rechazado.
+ * @param email Email del empleado, para identificarlo en el reporte.
+ * @param mensaje Motivo del rechazo, null si fue creado.
+ */
+public record ResultadoItemLote(int indice, EstadoItemLote estado, Long id, String email, String mensaje) {
+
+    public static ResultadoItemLote creado(int indice, Long id, String email) {
+        return new ResultadoItemLote(indice, EstadoItemLote.CREADO, id, email, null);
+    }
+
+    public static ResultadoItemLote rechazado(int indice, String email, String mensaje) {
+        return new ResultadoItemLote(indice, EstadoItemLote.RECHAZADO, null, email, mensaje);
+    }
+}
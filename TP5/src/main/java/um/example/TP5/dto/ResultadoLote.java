@@ -0,0 +1,14 @@
+package um.example.TP5.dto;
+
+import java.util.List;
+
+/**
+ * Reporte de una carga masiva: totales y el resultado de cada elemento en el orden recibido.
+ */
+public record ResultadoLote(int creados, int rechazados, List<ResultadoItemLote> items) {
+
+    public static ResultadoLote de(List<ResultadoItemLote> items) {
+        int creados = (int) items.stream().filter(item -> item.estado() == EstadoItemLote.CREADO).count();
+        return new ResultadoLote(creados, items.size() - creados, items);
+    }
+}
@@ -0,0 +1,11 @@
+package um.example.TP5.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Entrada del índice de salarios en memoria.
+ * @param empleadoId ID del empleado.
+ * @param salario Salario del empleado.
+ */
+public record SalarioIndexado(Long empleadoId, BigDecimal salario) {
+}
@@ -0,0 +1,13 @@
+package um.example.TP5.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sentencia SQL que superó el umbral de lentitud.
+ * @param endpoint Endpoint del request que la ejecutó.
+ * @param sql Sentencia tal como la preparó Hibernate (con parámetros "?").
+ * @param duracionMs Tiempo de ejecución.
+ * @param fecha Momento en que terminó el request.
+ */
+public record SentenciaLenta(String endpoint, String sql, double duracionMs, LocalDateTime fecha) {
+}
@@ -1,30 +1,54 @@
 package um.example.TP5.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "departamentos")
+// Empleado lo referencia como proxy lazy: al serializarlo se omiten los campos internos del proxy
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@DynamicUpdate
+// Datos de referencia de lectura frecuente: se guardan en la caché de segundo nivel con el perfil cache
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departamentos")
+@Table(name = "departamentos",
+    uniqueConstraints = @UniqueConstraint(name = Departamento.RESTRICCION_NOMBRE, columnNames = "nombre"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Departamento {
+    // Nombre de la restricción UNIQUE del nombre (migración V1); GlobalExceptionHandler lo usa para responder 409
+    public static final String RESTRICCION_NOMBRE = "uk_departamentos_nombre";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, length = 100, unique = true)
+    @Column(nullable = false, length = 100)
     private String nombre;
 
     @Column(length = 500)
     private String descripcion;
 
-    // Un departamento tiene muchos empleados
+    // Un departamento tiene muchos empleados (no se serializa: cada empleado ya incluye su departamento)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "departamento", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Empleado> empleados = new ArrayList<>();
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -3,7 +3,10 @@ package um.example.TP5.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -11,11 +14,28 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "empleados")
+@DynamicUpdate
+// Índices de los filtros de EmpleadoRepository; en MySQL/PostgreSQL los crea la migración V2 (db/migration)
+@Table(name = "empleados",
+    uniqueConstraints = @UniqueConstraint(name = Empleado.RESTRICCION_EMAIL, columnNames = "email"),
+    indexes = {
+        @Index(name = "idx_empleados_salario", columnList = "salario"),
+        @Index(name = "idx_empleados_fecha_contratacion", columnList = "fecha_contratacion"),
+        @Index(name = "idx_empleados_departamento_salario", columnList = "departamento_id, salario")
+    })
+// Planes de carga usados por las consultas de EmpleadoRepository (ver PlanCarga)
+@NamedEntityGraph(name = "Empleado.conDepartamento", attributeNodes = @NamedAttributeNode("departamento"))
+@NamedEntityGraph(name = "Empleado.completo", attributeNodes = {
+    @NamedAttributeNode("departamento"),
+    @NamedAttributeNode("proyectos")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Empleado {
+    // Nombre de la restricción UNIQUE del email (migración V1); GlobalExceptionHandler lo usa para responder 409
+    public static final String RESTRICCION_EMAIL = "uk_empleados_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,7 +46,7 @@ public class Empleado {
     @Column(nullable = false, length = 100)
     private String apellido;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
     @Column(name = "fecha_contratacion", nullable = false)
@@ -36,16 +56,25 @@ public class Empleado {
     private BigDecimal salario;
 
     // Un empleado pertenece a un departamento
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "departamento_id")
     private Departamento departamento;
 
     // Un empleado puede trabajar en muchos proyectos
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToMany
     @JoinTable(
         name = "empleado_proyecto",
         joinColumns = @JoinColumn(name = "empleado_id"),
-        inverseJoinColumns = @JoinColumn(name = "proyecto_id")
+        inverseJoinColumns = @JoinColumn(name = "proyecto_id"),
+        indexes = @Index(name = "idx_empleado_proyecto_proyecto_id", columnList = "proyecto_id")
     )
     private Set<Proyecto> proyectos = new HashSet<>();
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,39 @@
+package um.example.TP5.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Resumen de salarios de un departamento, mantenido por EstadisticaSalarioService en la misma transacción
+ * que cada alta, modificación o baja de empleados.
+ */
+@Entity
+@Table(name = "estadisticas_salario_departamento")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaSalarioDepartamento {
+    @Id
+    @Column(name = "departamento_id")
+    private Long departamentoId;
+
+    @Column(nullable = false)
+    private Long cantidad;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal suma;
+
+    // Nulos cuando el departamento no tiene empleados
+    @Column(precision = 10, scale = 2)
+    private BigDecimal minimo;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal maximo;
+}
@@ -1,20 +1,39 @@
 package um.example.TP5.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "proyectos")
+@DynamicUpdate
+// Datos de referencia de lectura frecuente: se guardan en la caché de segundo nivel con el perfil cache
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proyectos")
+// Índices de los filtros por fecha de ProyectoRepository; en MySQL/PostgreSQL los crea la migración V2 (db/migration)
+@Table(name = "proyectos",
+    uniqueConstraints = @UniqueConstraint(name = Proyecto.RESTRICCION_NOMBRE, columnNames = "nombre"),
+    indexes = {
+        @Index(name = "idx_proyectos_fecha_inicio", columnList = "fecha_inicio"),
+        @Index(name = "idx_proyectos_fecha_fin", columnList = "fecha_fin")
+    })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Proyecto {
+    // Nombre de la restricción UNIQUE del nombre (migración V6); GlobalExceptionHandler lo usa para responder 409
+    public static final String RESTRICCION_NOMBRE = "uk_proyectos_nombre";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -31,7 +50,14 @@ public class Proyecto {
     @Column(name = "fecha_fin")
     private LocalDate fechaFin;
 
-    // Un proyecto puede tener muchos empleados
+    // Un proyecto puede tener muchos empleados (no se serializa: cada empleado ya incluye sus proyectos)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToMany(mappedBy = "proyectos")
     private Set<Empleado> empleados = new HashSet<>();
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,32 @@
+package um.example.TP5.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Versión de una colección (por ejemplo, todos los departamentos): VersionColeccionService la incrementa en la misma
+ * transacción que cada alta, modificación o baja, y los controladores la usan para los GET condicionales.
+ */
+@Entity
+@Table(name = "versiones_colecciones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionColeccion {
+    @Id
+    @Column(length = 50)
+    private String coleccion;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "ultima_modificacion", nullable = false)
+    private Instant ultimaModificacion;
+}
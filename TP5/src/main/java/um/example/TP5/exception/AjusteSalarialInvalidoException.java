@@ -0,0 +1,7 @@
+package um.example.TP5.exception;
+
+public class AjusteSalarialInvalidoException extends RuntimeException {
+    public AjusteSalarialInvalidoException(String message) {
+        super(message);
+    }
+}
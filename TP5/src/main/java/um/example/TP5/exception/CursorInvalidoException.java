@@ -0,0 +1,7 @@
+package um.example.TP5.exception;
+
+public class CursorInvalidoException extends RuntimeException {
+    public CursorInvalidoException(String message) {
+        super(message);
+    }
+}
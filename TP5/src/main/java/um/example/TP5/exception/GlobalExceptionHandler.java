@@ -1,11 +1,18 @@
 package um.example.TP5.exception;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.Empleado;
+import um.example.TP5.entity.Proyecto;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @RestControllerAdvice
@@ -41,6 +48,74 @@ public class GlobalExceptionHandler {
         return construirRespuesta(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ResponseEntity<Object> handleCursorInvalido(CursorInvalidoException ex) {
+        return construirRespuesta(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(LoteInvalidoException.class)
+    public ResponseEntity<Object> handleLoteInvalido(LoteInvalidoException ex) {
+        return construirRespuesta(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(AjusteSalarialInvalidoException.class)
+    public ResponseEntity<Object> handleAjusteSalarialInvalido(AjusteSalarialInvalidoException ex) {
+        return construirRespuesta(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(ParcheInvalidoException.class)
+    public ResponseEntity<Object> handleParcheInvalido(ParcheInvalidoException ex) {
+        return construirRespuesta(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(TareaNoEncontradaException.class)
+    public ResponseEntity<Object> handleTareaNoEncontrada(TareaNoEncontradaException ex) {
+        return construirRespuesta(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(VersionNoCoincideException.class)
+    public ResponseEntity<Object> handleVersionNoCoincide(VersionNoCoincideException ex) {
+        return construirRespuesta(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    // Escritura concurrente detectada por Hibernate (@Version) fuera de los PUT con If-Match
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleConflictoDeVersion(OptimisticLockingFailureException ex) {
+        return construirRespuesta(HttpStatus.CONFLICT, "El recurso fue modificado por otra operación concurrente");
+    }
+
+    // Las altas y modificaciones no consultan antes si el email o el nombre están en uso: lo rechaza la restricción
+    // UNIQUE de la base, que además detecta los duplicados entre transacciones concurrentes
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> handleViolacionIntegridad(DataIntegrityViolationException ex) {
+        String restriccion = restriccionViolada(ex);
+        if (restriccion.contains(Empleado.RESTRICCION_EMAIL)) {
+            return handleEmailDuplicado(new EmailDuplicadoException("El email ya está registrado"));
+        }
+        if (restriccion.contains(Departamento.RESTRICCION_NOMBRE)) {
+            return handleDepartamentoYaExiste(new DepartamentoYaExisteException("Ya existe un departamento con ese nombre"));
+        }
+        if (restriccion.contains(Proyecto.RESTRICCION_NOMBRE)) {
+            return handleProyectoYaExiste(new ProyectoYaExisteException("Ya existe un proyecto con ese nombre"));
+        }
+        return construirRespuesta(HttpStatus.CONFLICT, "La operación viola una restricción de integridad de la base de datos");
+    }
+
+    // Cada motor informa el nombre distinto (H2 lo acompaña del índice y la tabla), por eso se compara con contains.
+    // Solo si Hibernate no pudo extraerlo se recurre al mensaje del driver
+    private static String restriccionViolada(DataIntegrityViolationException ex) {
+        String mensaje = "";
+        for (Throwable causa = ex.getCause(); causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion && violacion.getConstraintName() != null) {
+                return violacion.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+            if (causa.getMessage() != null) {
+                mensaje = causa.getMessage();
+            }
+        }
+        return mensaje.toLowerCase(Locale.ROOT);
+    }
+
     // Metodo común para dar formato a la respuesta
     private ResponseEntity<Object> construirRespuesta(HttpStatus status, String mensaje) {
         Map<String, Object> body = new LinkedHashMap<>();
@@ -0,0 +1,7 @@
+package um.example.TP5.exception;
+
+public class LoteInvalidoException extends RuntimeException {
+    public LoteInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package um.example.TP5.exception;
+
+public class ParcheInvalidoException extends RuntimeException {
+    public ParcheInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package um.example.TP5.exception;
+
+public class TareaNoEncontradaException extends RuntimeException {
+    public TareaNoEncontradaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package um.example.TP5.exception;
+
+public class VersionNoCoincideException extends RuntimeException {
+    public VersionNoCoincideException(String message) {
+        super(message);
+    }
+}
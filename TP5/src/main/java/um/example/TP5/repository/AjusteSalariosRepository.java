@@ -0,0 +1,11 @@
+package um.example.TP5.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Ajuste masivo de salarios con un WHERE armado solo con los filtros presentes (fragmento de EmpleadoRepository).
+ */
+public interface AjusteSalariosRepository {
+    int ajustarSalarios(BigDecimal factor, BigDecimal monto, Long departamentoId, BigDecimal salarioMin,
+                        BigDecimal salarioMax);
+}
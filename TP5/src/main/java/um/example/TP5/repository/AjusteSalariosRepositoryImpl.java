@@ -0,0 +1,60 @@
+package um.example.TP5.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Un solo UPDATE para todo el ajuste. Los filtros ausentes no se escriben como {@code (:filtro IS NULL OR ...)}: con
+ * esa forma MySQL y PostgreSQL (plan genérico) no usan {@code idx_empleados_departamento_salario} ni
+ * {@code idx_empleados_salario}, y el UPDATE recorre y bloquea toda la tabla aunque el ajuste sea de un departamento.
+ * <p>
+ * El CAST evita que el factor se enlace con la escala del salario (2 decimales), que convertiría 1.105 en 1.11.
+ * VERSIONED incrementa la versión. Como un {@code @Modifying(flushAutomatically = true, clearAutomatically = true)},
+ * vuelca los cambios pendientes antes y limpia el contexto de persistencia después.
+ */
+class AjusteSalariosRepositoryImpl implements AjusteSalariosRepository {
+    private final EntityManager entityManager;
+
+    AjusteSalariosRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int ajustarSalarios(BigDecimal factor, BigDecimal monto, Long departamentoId, BigDecimal salarioMin,
+                               BigDecimal salarioMax) {
+        List<String> filtros = new ArrayList<>(3);
+        if (departamentoId != null) {
+            filtros.add("e.departamento.id = :departamentoId");
+        }
+        if (salarioMin != null) {
+            filtros.add("e.salario >= :salarioMin");
+        }
+        if (salarioMax != null) {
+            filtros.add("e.salario <= :salarioMax");
+        }
+        String jpql = "UPDATE VERSIONED Empleado e "
+            + "SET e.salario = ROUND(e.salario * CAST(:factor AS BigDecimal(19, 10)) + :monto, 2)"
+            + (filtros.isEmpty() ? "" : " WHERE " + String.join(" AND ", filtros));
+
+        entityManager.flush();
+        Query update = entityManager.createQuery(jpql)
+            .setParameter("factor", factor)
+            .setParameter("monto", monto);
+        if (departamentoId != null) {
+            update.setParameter("departamentoId", departamentoId);
+        }
+        if (salarioMin != null) {
+            update.setParameter("salarioMin", salarioMin);
+        }
+        if (salarioMax != null) {
+            update.setParameter("salarioMax", salarioMax);
+        }
+        int actualizados = update.executeUpdate();
+        entityManager.clear();
+        return actualizados;
+    }
+}
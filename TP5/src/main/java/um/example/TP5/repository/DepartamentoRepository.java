@@ -1,12 +1,56 @@
 package um.example.TP5.repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import um.example.TP5.dto.DepartamentoDTO;
 import um.example.TP5.entity.Departamento;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 // Extiende JpaRepository (ya tiene métodos listos: findAll(), findById(), save(), deleteById()…)
 @Repository
 public interface DepartamentoRepository extends JpaRepository<Departamento, Long> {
+    // Resultado cacheable en la región "departamentos-por-nombre" (solo tiene efecto con la caché de consultas activada)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "departamentos-por-nombre")
+    })
     Optional<Departamento> findByNombre(String nombre);
 
+    // Proyección para el listado: sin la colección de empleados ni entidades administradas
+    @Query("SELECT new um.example.TP5.dto.DepartamentoDTO(d.id, d.nombre, d.descripcion) FROM Departamento d ORDER BY d.id")
+    List<DepartamentoDTO> findAllDto();
+
+    // IDs existentes dentro de un conjunto, sin cargar las entidades
+    @Query("SELECT d.id FROM Departamento d WHERE d.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    // Solo la versión (para un GET condicional), sin leer el resto de la fila
+    @Query("SELECT d.version FROM Departamento d WHERE d.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VERSIONED Departamento d SET d.nombre = :#{#departamento.nombre}, "
+        + "d.descripcion = :#{#departamento.descripcion} WHERE d.id = :id AND (:version IS NULL OR d.version = :version)")
+    int actualizarVersionado(@Param("id") Long id, @Param("version") Long version,
+                             @Param("departamento") Departamento departamento);
+
+    // SELECT ... FOR UPDATE: mientras dure la transacción no se pueden agregar empleados al departamento
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Departamento d WHERE d.id = :id")
+    Optional<Departamento> findParaEliminar(@Param("id") Long id);
+
+    // Sin cargar la entidad: la cascada sobre empleados no interviene (se eliminan antes, por conjunto)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Departamento d WHERE d.id = :id")
+    int eliminarPorId(@Param("id") Long id);
+
 }
@@ -1,28 +1,155 @@
 package um.example.TP5.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import um.example.TP5.dto.EmpleadoDTO;
 import um.example.TP5.entity.Departamento;
 import um.example.TP5.entity.Empleado;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EmpleadoRepository extends JpaRepository<Empleado, Long> {
+public interface EmpleadoRepository extends JpaRepository<Empleado, Long>, AjusteSalariosRepository {
     Optional<Empleado> findByEmail(String email);
     List<Empleado> findByDepartamento(Departamento departamento);
     List<Empleado> findBySalarioBetween(BigDecimal salarioMin, BigDecimal salarioMax);
     List<Empleado> findByFechaContratacionAfter(LocalDate fecha);
 
+    // Proyecciones para los listados: solo las columnas de EmpleadoDTO, sin crear entidades administradas
+    String SELECT_DTO = "SELECT new um.example.TP5.dto.EmpleadoDTO(e.id, e.nombre, e.apellido, e.email, "
+        + "e.fechaContratacion, e.salario, d.id, d.nombre) FROM Empleado e LEFT JOIN e.departamento d ";
+
+    @Query(SELECT_DTO + "ORDER BY e.id")
+    List<EmpleadoDTO> findAllDto();
+
+    @Query(SELECT_DTO + "WHERE d.nombre = :nombreDepartamento ORDER BY e.id")
+    List<EmpleadoDTO> findDtoByNombreDepartamento(@Param("nombreDepartamento") String nombreDepartamento);
+
+    @Query(SELECT_DTO + "WHERE e.salario BETWEEN :salarioMin AND :salarioMax ORDER BY e.id")
+    List<EmpleadoDTO> findDtoBySalarioBetween(@Param("salarioMin") BigDecimal salarioMin,
+                                              @Param("salarioMax") BigDecimal salarioMax);
+
+    // Paginación keyset: siguiente tramo de empleados a partir del último ID visto (usa el índice de la PK)
+    @Query(SELECT_DTO + "WHERE e.id > :id ORDER BY e.id")
+    List<EmpleadoDTO> findDtoByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    // Recorrido completo con cursor de base de datos: las filas llegan en tandas de 500, sin cargar toda la tabla.
+    // Debe consumirse dentro de una transacción y cerrarse al terminar.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Empleado e LEFT JOIN FETCH e.departamento ORDER BY e.id")
+    Stream<Empleado> streamAllByOrderByIdAsc();
+
+    // Carga del índice de salarios en memoria: solo las tres columnas que necesita, en streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new um.example.TP5.repository.SalarioEmpleado(e.id, e.departamento.id, e.salario) FROM Empleado e")
+    Stream<SalarioEmpleado> streamSalarios();
+
+    // Eliminación de departamentos en lotes: el próximo lote de empleados (con su salario, para el índice en memoria)
+    @Query("SELECT new um.example.TP5.repository.SalarioEmpleado(e.id, e.departamento.id, e.salario) "
+        + "FROM Empleado e WHERE e.departamento.id = :departamentoId ORDER BY e.id")
+    List<SalarioEmpleado> findSalariosByDepartamento(@Param("departamentoId") Long departamentoId, Limit limit);
+
+    // La tabla de unión no es una entidad: se modifica con SQL nativo. El hint limita la invalidación de la caché de
+    // segundo nivel a lo que usa esa tabla (sin él, Hibernate vacía todas las regiones)
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "empleado_proyecto"))
+    @Query(value = "DELETE FROM empleado_proyecto WHERE empleado_id IN (:ids)", nativeQuery = true)
+    int eliminarAsignacionesProyectos(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "empleado_proyecto"))
+    @Query(value = "DELETE FROM empleado_proyecto WHERE empleado_id = :empleadoId AND proyecto_id IN (:proyectoIds)",
+        nativeQuery = true)
+    int desasignarProyectos(@Param("empleadoId") Long empleadoId, @Param("proyectoIds") Collection<Long> proyectoIds);
+
+    // Solo asigna proyectos existentes
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "empleado_proyecto"))
+    @Query(value = "INSERT INTO empleado_proyecto (empleado_id, proyecto_id) "
+        + "SELECT :empleadoId, p.id FROM proyectos p WHERE p.id IN (:proyectoIds)", nativeQuery = true)
+    int asignarProyectos(@Param("empleadoId") Long empleadoId, @Param("proyectoIds") Collection<Long> proyectoIds);
+
+    // DELETE por conjunto: no carga las entidades ni dispara las cascadas una fila a la vez
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Empleado e WHERE e.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
+
+    // Emails ya registrados dentro de un conjunto (una sola consulta IN para validar una carga masiva)
+    @Query("SELECT e.email FROM Empleado e WHERE e.email IN :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
     // Consulta personalizada con @Query (JPQL)
     @Query("SELECT e FROM Empleado e WHERE e.departamento.nombre = :nombreDepartamento")
     List<Empleado> findByNombreDepartamento(@Param("nombreDepartamento") String nombreDepartamento);
 
     @Query("SELECT AVG(e.salario) FROM Empleado e WHERE e.departamento.id = :departamentoId")
     Optional<BigDecimal> findAverageSalarioByDepartamento(@Param("departamentoId") Long departamentoId);
+
+    // Extremos de salario de un departamento (resueltos con el índice departamento_id + salario)
+    @Query("SELECT MIN(e.salario) FROM Empleado e WHERE e.departamento.id = :departamentoId")
+    Optional<BigDecimal> findMinSalarioByDepartamento(@Param("departamentoId") Long departamentoId);
+
+    @Query("SELECT MAX(e.salario) FROM Empleado e WHERE e.departamento.id = :departamentoId")
+    Optional<BigDecimal> findMaxSalarioByDepartamento(@Param("departamentoId") Long departamentoId);
+
+    // Solo la versión (para un GET condicional), sin leer el resto de la fila
+    @Query("SELECT e.version FROM Empleado e WHERE e.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Los proyectos asignados (tabla de unión) se actualizan aparte, solo los que cambian
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VERSIONED Empleado e SET e.nombre = :#{#empleado.nombre}, e.apellido = :#{#empleado.apellido}, "
+        + "e.email = :#{#empleado.email}, e.fechaContratacion = :#{#empleado.fechaContratacion}, "
+        + "e.salario = :#{#empleado.salario}, e.departamento = :departamento "
+        + "WHERE e.id = :id AND (:version IS NULL OR e.version = :version)")
+    int actualizarVersionado(@Param("id") Long id, @Param("version") Long version, @Param("empleado") Empleado empleado,
+                             @Param("departamento") Departamento departamento);
+
+    // Estado previo a un PUT en una sola consulta: departamento y salario (para las estadísticas), versión (para la
+    // respuesta) y proyectos asignados (para escribir en la tabla de unión solo los que cambian)
+    @Query("SELECT new um.example.TP5.repository.EstadoEmpleado(e.departamento.id, e.salario, e.version, p.id) "
+        + "FROM Empleado e LEFT JOIN e.proyectos p WHERE e.id = :id")
+    List<EstadoEmpleado> findEstadoById(@Param("id") Long id);
+
+    // Departamento y salario actuales, sin cargar la entidad (para ajustar las estadísticas antes de modificarla)
+    @Query("SELECT new um.example.TP5.repository.SalarioDepartamento(e.departamento.id, e.salario) "
+        + "FROM Empleado e WHERE e.id = :id")
+    Optional<SalarioDepartamento> findSalarioDepartamentoById(@Param("id") Long id);
+
+    // Variantes con plan de carga (PlanCarga): las asociaciones llegan en la misma consulta
+    @EntityGraph("Empleado.conDepartamento")
+    @Query("SELECT e FROM Empleado e")
+    List<Empleado> findAllConDepartamento();
+
+    @EntityGraph("Empleado.completo")
+    @Query("SELECT e FROM Empleado e")
+    List<Empleado> findAllCompleto();
+
+    @Query("SELECT e FROM Empleado e JOIN FETCH e.departamento d WHERE d.nombre = :nombreDepartamento")
+    List<Empleado> findConDepartamentoByNombreDepartamento(@Param("nombreDepartamento") String nombreDepartamento);
+
+    @Query("SELECT e FROM Empleado e JOIN FETCH e.departamento d LEFT JOIN FETCH e.proyectos WHERE d.nombre = :nombreDepartamento")
+    List<Empleado> findCompletoByNombreDepartamento(@Param("nombreDepartamento") String nombreDepartamento);
+
+    @EntityGraph("Empleado.conDepartamento")
+    List<Empleado> findConDepartamentoBySalarioBetween(BigDecimal salarioMin, BigDecimal salarioMax);
+
+    @EntityGraph("Empleado.completo")
+    List<Empleado> findCompletoBySalarioBetween(BigDecimal salarioMin, BigDecimal salarioMax);
 }
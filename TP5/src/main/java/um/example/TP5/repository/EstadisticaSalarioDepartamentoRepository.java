@@ -0,0 +1,39 @@
+package um.example.TP5.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import um.example.TP5.entity.EstadisticaSalarioDepartamento;
+
+import java.util.Optional;
+
+@Repository
+public interface EstadisticaSalarioDepartamentoRepository extends JpaRepository<EstadisticaSalarioDepartamento, Long> {
+
+    // Bloquea la fila del departamento hasta el fin de la transacción (las altas/bajas concurrentes se serializan)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT es FROM EstadisticaSalarioDepartamento es WHERE es.departamentoId = :departamentoId")
+    Optional<EstadisticaSalarioDepartamento> findParaActualizar(@Param("departamentoId") Long departamentoId);
+
+    // Cálculo completo a partir de la tabla de empleados, para inicializar o reparar una fila
+    @Query("SELECT new um.example.TP5.entity.EstadisticaSalarioDepartamento(:departamentoId, COUNT(e), "
+        + "COALESCE(SUM(e.salario), 0), MIN(e.salario), MAX(e.salario)) "
+        + "FROM Empleado e WHERE e.departamento.id = :departamentoId")
+    EstadisticaSalarioDepartamento calcularDesdeEmpleados(@Param("departamentoId") Long departamentoId);
+
+    // Sin cargar la fila antes de borrarla
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM EstadisticaSalarioDepartamento es WHERE es.departamentoId = :departamentoId")
+    int eliminarPorDepartamento(@Param("departamentoId") Long departamentoId);
+
+    // Regenera todas las filas en una sola sentencia (incluye departamentos sin empleados)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("INSERT INTO EstadisticaSalarioDepartamento (departamentoId, cantidad, suma, minimo, maximo) "
+        + "SELECT d.id, COUNT(e), COALESCE(SUM(e.salario), 0), MIN(e.salario), MAX(e.salario) "
+        + "FROM Departamento d LEFT JOIN d.empleados e GROUP BY d.id")
+    int insertarDesdeEmpleados();
+}
@@ -0,0 +1,10 @@
+package um.example.TP5.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Departamento (puede ser null), salario, versión y un proyecto asignado de un empleado, leídos sin cargar la entidad:
+ * una fila por proyecto, o una sola con proyectoId null si no tiene ninguno.
+ */
+public record EstadoEmpleado(Long departamentoId, BigDecimal salario, Long version, Long proyectoId) {
+}
@@ -0,0 +1,15 @@
+package um.example.TP5.repository;
+
+/**
+ * Plan de carga de las asociaciones de Empleado para las consultas de listado.
+ * Cada caso de uso elige qué relaciones necesita, y estas se traen en la misma consulta
+ * (entity graph o fetch join) en lugar de una consulta extra por empleado (N+1).
+ */
+public enum PlanCarga {
+    // Solo las columnas de empleados; departamento y proyectos quedan como proxies LAZY
+    SIMPLE,
+    // Empleado junto con su departamento
+    CON_DEPARTAMENTO,
+    // Empleado con su departamento y sus proyectos
+    COMPLETO
+}
@@ -1,7 +1,14 @@
 package um.example.TP5.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import um.example.TP5.dto.ProyectoDTO;
 import um.example.TP5.entity.Proyecto;
 
 import java.time.LocalDate;
@@ -10,7 +17,32 @@ import java.util.Optional;
 
 @Repository
 public interface ProyectoRepository extends JpaRepository<Proyecto, Long> {
+    // Resultado cacheable en la región "proyectos-por-nombre" (solo tiene efecto con la caché de consultas activada)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "proyectos-por-nombre")
+    })
     Optional<Proyecto> findByNombre(String nombre);
     List<Proyecto> findByFechaInicio(LocalDate fechaInicio);
     List<Proyecto> findByFechaFinAfter(LocalDate fechaFin);
+
+    // Proyecciones para los listados: sin la colección de empleados ni entidades administradas
+    String SELECT_DTO = "SELECT new um.example.TP5.dto.ProyectoDTO(p.id, p.nombre, p.descripcion, p.fechaInicio, p.fechaFin) "
+        + "FROM Proyecto p ";
+
+    @Query(SELECT_DTO + "ORDER BY p.id")
+    List<ProyectoDTO> findAllDto();
+
+    @Query(SELECT_DTO + "WHERE p.fechaFin > :fechaFin ORDER BY p.id")
+    List<ProyectoDTO> findDtoByFechaFinAfter(@Param("fechaFin") LocalDate fechaFin);
+
+    // Solo la versión (para un GET condicional), sin leer el resto de la fila
+    @Query("SELECT p.version FROM Proyecto p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VERSIONED Proyecto p SET p.nombre = :#{#proyecto.nombre}, p.descripcion = :#{#proyecto.descripcion}, "
+        + "p.fechaInicio = :#{#proyecto.fechaInicio}, p.fechaFin = :#{#proyecto.fechaFin} "
+        + "WHERE p.id = :id AND (:version IS NULL OR p.version = :version)")
+    int actualizarVersionado(@Param("id") Long id, @Param("version") Long version, @Param("proyecto") Proyecto proyecto);
 }
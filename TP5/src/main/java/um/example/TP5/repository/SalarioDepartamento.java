@@ -0,0 +1,9 @@
+package um.example.TP5.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Departamento (puede ser null) y salario de un empleado, leídos sin cargar la entidad.
+ */
+public record SalarioDepartamento(Long departamentoId, BigDecimal salario) {
+}
@@ -0,0 +1,9 @@
+package um.example.TP5.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * ID, departamento (puede ser null) y salario de un empleado, leídos sin cargar la entidad.
+ */
+public record SalarioEmpleado(Long id, Long departamentoId, BigDecimal salario) {
+}
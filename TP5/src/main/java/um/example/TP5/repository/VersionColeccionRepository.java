@@ -0,0 +1,20 @@
+package um.example.TP5.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import um.example.TP5.entity.VersionColeccion;
+
+import java.time.Instant;
+
+@Repository
+public interface VersionColeccionRepository extends JpaRepository<VersionColeccion, String> {
+
+    // Incremento atómico en la base (sin leer la fila); la fila queda bloqueada hasta el commit
+    @Modifying
+    @Query("UPDATE VersionColeccion v SET v.version = v.version + 1, v.ultimaModificacion = :ahora "
+        + "WHERE v.coleccion = :coleccion")
+    int incrementar(@Param("coleccion") String coleccion, @Param("ahora") Instant ahora);
+}
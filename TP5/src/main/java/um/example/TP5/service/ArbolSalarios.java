@@ -0,0 +1,235 @@
+package um.example.TP5.service;
+
+import java.util.Arrays;
+
+/**
+ * Árbol ordenado de pares (salario en centavos, ID de empleado) con estadística de orden.
+ * <p>
+ * Es un treap guardado en arreglos paralelos de primitivos (sin objetos por nodo ni boxing): cada nodo es un
+ * índice y el 0 hace de nulo. Inserción, baja, conteo por debajo de un salario y el inicio de un recorrido por
+ * rango o de mayor a menor cuestan O(log n) esperado. No es thread-safe: IndiceSalariosServiceImpl lo protege.
+ */
+final class ArbolSalarios {
+
+    /** Recibe cada elemento de un recorrido; devolver false lo corta. */
+    @FunctionalInterface
+    interface Visitante {
+        boolean visitar(long empleadoId, long centavos);
+    }
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private long[] centavos = new long[CAPACIDAD_INICIAL];
+    private long[] ids = new long[CAPACIDAD_INICIAL];
+    private int[] izquierdo = new int[CAPACIDAD_INICIAL];
+    private int[] derecho = new int[CAPACIDAD_INICIAL];
+    private int[] tamanio = new int[CAPACIDAD_INICIAL];
+    private int[] prioridad = new int[CAPACIDAD_INICIAL];
+
+    private int raiz;
+    // Próximo índice sin usar y lista de nodos liberados (encadenados por "izquierdo")
+    private int siguienteLibre = 1;
+    private int liberados;
+    private int semilla = 0x2545F491;
+
+    // Resultado de dividir(): evita crear un objeto por operación
+    private int divisionMenores;
+    private int divisionMayores;
+
+    int tamanio() {
+        return tamanio[raiz];
+    }
+
+    boolean contiene(long centavos, long empleadoId) {
+        int nodo = raiz;
+        while (nodo != 0) {
+            int comparacion = comparar(centavos, empleadoId, nodo);
+            if (comparacion == 0) {
+                return true;
+            }
+            nodo = comparacion < 0 ? izquierdo[nodo] : derecho[nodo];
+        }
+        return false;
+    }
+
+    /** Agrega el par si no estaba; devuelve false si ya existía. */
+    boolean insertar(long centavos, long empleadoId) {
+        if (contiene(centavos, empleadoId)) {
+            return false;
+        }
+        int nodo = nuevoNodo(centavos, empleadoId);
+        dividir(raiz, centavos, empleadoId);
+        int mayores = divisionMayores;
+        raiz = unir(unir(divisionMenores, nodo), mayores);
+        return true;
+    }
+
+    /** Quita el par si estaba; devuelve false si no existía. */
+    boolean eliminar(long centavos, long empleadoId) {
+        if (!contiene(centavos, empleadoId)) {
+            return false;
+        }
+        raiz = eliminar(raiz, centavos, empleadoId);
+        return true;
+    }
+
+    /** Cantidad de elementos con salario estrictamente menor que {@code centavos}. */
+    long contarMenores(long centavos) {
+        long cuenta = 0;
+        int nodo = raiz;
+        while (nodo != 0) {
+            if (this.centavos[nodo] < centavos) {
+                cuenta += tamanio[izquierdo[nodo]] + 1;
+                nodo = derecho[nodo];
+            } else {
+                nodo = izquierdo[nodo];
+            }
+        }
+        return cuenta;
+    }
+
+    /** Cantidad de elementos con salario estrictamente mayor que {@code centavos}. */
+    long contarMayores(long centavos) {
+        return centavos == Long.MAX_VALUE ? 0 : tamanio() - contarMenores(centavos + 1);
+    }
+
+    /** Recorre en orden ascendente los elementos con salario dentro de [minimo, maximo]. */
+    void recorrerRango(long minimo, long maximo, Visitante visitante) {
+        recorrerRango(raiz, minimo, maximo, visitante);
+    }
+
+    /** Recorre los elementos de mayor a menor salario (a igual salario, de mayor a menor ID). */
+    void recorrerDescendente(Visitante visitante) {
+        recorrerDescendente(raiz, visitante);
+    }
+
+    private boolean recorrerRango(int nodo, long minimo, long maximo, Visitante visitante) {
+        if (nodo == 0) {
+            return true;
+        }
+        long valor = centavos[nodo];
+        if (valor >= minimo && !recorrerRango(izquierdo[nodo], minimo, maximo, visitante)) {
+            return false;
+        }
+        if (valor >= minimo && valor <= maximo && !visitante.visitar(ids[nodo], valor)) {
+            return false;
+        }
+        return valor > maximo || recorrerRango(derecho[nodo], minimo, maximo, visitante);
+    }
+
+    private boolean recorrerDescendente(int nodo, Visitante visitante) {
+        if (nodo == 0) {
+            return true;
+        }
+        return recorrerDescendente(derecho[nodo], visitante)
+            && visitante.visitar(ids[nodo], centavos[nodo])
+            && recorrerDescendente(izquierdo[nodo], visitante);
+    }
+
+    // Separa el subárbol en menores que (centavos, id) y mayores o iguales
+    private void dividir(int nodo, long centavos, long empleadoId) {
+        if (nodo == 0) {
+            divisionMenores = 0;
+            divisionMayores = 0;
+            return;
+        }
+        if (comparar(centavos, empleadoId, nodo) > 0) {
+            dividir(derecho[nodo], centavos, empleadoId);
+            derecho[nodo] = divisionMenores;
+            actualizar(nodo);
+            divisionMenores = nodo;
+        } else {
+            dividir(izquierdo[nodo], centavos, empleadoId);
+            izquierdo[nodo] = divisionMayores;
+            actualizar(nodo);
+            divisionMayores = nodo;
+        }
+    }
+
+    // Une dos subárboles donde todos los elementos de "menores" preceden a los de "mayores"
+    private int unir(int menores, int mayores) {
+        if (menores == 0 || mayores == 0) {
+            return menores == 0 ? mayores : menores;
+        }
+        if (prioridad[menores] > prioridad[mayores]) {
+            derecho[menores] = unir(derecho[menores], mayores);
+            actualizar(menores);
+            return menores;
+        }
+        izquierdo[mayores] = unir(menores, izquierdo[mayores]);
+        actualizar(mayores);
+        return mayores;
+    }
+
+    private int eliminar(int nodo, long centavos, long empleadoId) {
+        int comparacion = comparar(centavos, empleadoId, nodo);
+        if (comparacion == 0) {
+            int reemplazo = unir(izquierdo[nodo], derecho[nodo]);
+            liberar(nodo);
+            return reemplazo;
+        }
+        if (comparacion < 0) {
+            izquierdo[nodo] = eliminar(izquierdo[nodo], centavos, empleadoId);
+        } else {
+            derecho[nodo] = eliminar(derecho[nodo], centavos, empleadoId);
+        }
+        actualizar(nodo);
+        return nodo;
+    }
+
+    private int comparar(long centavos, long empleadoId, int nodo) {
+        int comparacion = Long.compare(centavos, this.centavos[nodo]);
+        return comparacion != 0 ? comparacion : Long.compare(empleadoId, ids[nodo]);
+    }
+
+    private void actualizar(int nodo) {
+        tamanio[nodo] = tamanio[izquierdo[nodo]] + tamanio[derecho[nodo]] + 1;
+    }
+
+    private int nuevoNodo(long centavos, long empleadoId) {
+        int nodo;
+        if (liberados != 0) {
+            nodo = liberados;
+            liberados = izquierdo[nodo];
+        } else {
+            if (siguienteLibre == ids.length) {
+                crecer();
+            }
+            nodo = siguienteLibre++;
+        }
+        this.centavos[nodo] = centavos;
+        ids[nodo] = empleadoId;
+        izquierdo[nodo] = 0;
+        derecho[nodo] = 0;
+        tamanio[nodo] = 1;
+        prioridad[nodo] = siguientePrioridad();
+        return nodo;
+    }
+
+    private void liberar(int nodo) {
+        izquierdo[nodo] = liberados;
+        derecho[nodo] = 0;
+        tamanio[nodo] = 0;
+        liberados = nodo;
+    }
+
+    private void crecer() {
+        int capacidad = ids.length * 2;
+        centavos = Arrays.copyOf(centavos, capacidad);
+        ids = Arrays.copyOf(ids, capacidad);
+        izquierdo = Arrays.copyOf(izquierdo, capacidad);
+        derecho = Arrays.copyOf(derecho, capacidad);
+        tamanio = Arrays.copyOf(tamanio, capacidad);
+        prioridad = Arrays.copyOf(prioridad, capacidad);
+    }
+
+    // xorshift32: prioridades pseudoaleatorias sin depender de un Random compartido
+    private int siguientePrioridad() {
+        int x = semilla;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        semilla = x;
+        return x;
+    }
+}
@@ -0,0 +1,35 @@
+package um.example.TP5.service;
+
+import um.example.TP5.exception.CursorInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Codifica el último ID entregado como un cursor opaco (Base64 URL-safe) para la paginación keyset
+final class CursorPaginacion {
+    private static final String PREFIJO = "id:";
+
+    private CursorPaginacion() {
+    }
+
+    static String codificar(Long ultimoId) {
+        byte[] bytes = (PREFIJO + ultimoId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Un cursor nulo o vacío significa "desde el principio"
+    static long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO)) {
+                throw new CursorInvalidoException("Cursor de paginación inválido: " + cursor);
+            }
+            return Long.parseLong(valor.substring(PREFIJO.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new CursorInvalidoException("Cursor de paginación inválido: " + cursor);
+        }
+    }
+}
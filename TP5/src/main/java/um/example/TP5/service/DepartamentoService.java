@@ -1,12 +1,18 @@
 package um.example.TP5.service;
+import com.fasterxml.jackson.databind.JsonNode;
+import um.example.TP5.dto.DepartamentoDTO;
 import um.example.TP5.entity.Departamento;
 import java.util.List;
 
 public interface DepartamentoService {
     Departamento guardar(Departamento departamento);
     Departamento buscarPorId(Long id);
+    Long obtenerVersion(Long id);
     List<Departamento> obtenerTodos();
+    List<DepartamentoDTO> listar();
     Departamento actualizar(Long id, Departamento departamento);
+    Departamento actualizar(Long id, Departamento departamento, Long version);
+    Departamento parchear(Long id, JsonNode parche, Long version);
     void eliminar(Long id);
     Departamento buscarPorNombre(String nombre);
 }
@@ -1,44 +1,81 @@
 package um.example.TP5.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.dto.DepartamentoDTO;
 import um.example.TP5.entity.Departamento;
 import um.example.TP5.exception.DepartamentoNoEncontradoException;
-import um.example.TP5.exception.DepartamentoYaExisteException;
+import um.example.TP5.exception.VersionNoCoincideException;
 import um.example.TP5.repository.DepartamentoRepository;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
+@Observed(name = "tp5.servicio")
 @Transactional
 public class DepartamentoServiceImpl implements DepartamentoService {
+    private static final Set<String> CAMPOS_PARCHE = Set.of("nombre", "descripcion");
+
     private final DepartamentoRepository departamentoRepository;
+    private final EstadisticaSalarioService estadisticaSalarioService;
+    private final VersionColeccionService versionColeccionService;
+    private final EliminacionDepartamentoService eliminacionDepartamentoService;
 
-    public DepartamentoServiceImpl(DepartamentoRepository departamentoRepository) {
+    public DepartamentoServiceImpl(DepartamentoRepository departamentoRepository,
+                                   EstadisticaSalarioService estadisticaSalarioService,
+                                   VersionColeccionService versionColeccionService,
+                                   EliminacionDepartamentoService eliminacionDepartamentoService) {
         this.departamentoRepository = departamentoRepository;
+        this.estadisticaSalarioService = estadisticaSalarioService;
+        this.versionColeccionService = versionColeccionService;
+        this.eliminacionDepartamentoService = eliminacionDepartamentoService;
     }
 
+    // Sin consulta previa del nombre: un duplicado lo rechaza la restricción UNIQUE (ver GlobalExceptionHandler).
+    // La fila de estadísticas se crea en la misma transacción: así el primer alta de empleados ya encuentra una fila
+    // que bloquear, y dos altas concurrentes no intentan insertarla las dos
     @Override
     public Departamento guardar(Departamento departamento) {
-        if (departamentoRepository.findByNombre(departamento.getNombre()).isPresent()) {
-            throw new DepartamentoYaExisteException("El departamento ya ha sido creado: " + departamento.getNombre());
-        }
-        return departamentoRepository.save(departamento);
+        Departamento guardado = departamentoRepository.save(departamento);
+        estadisticaSalarioService.inicializar(guardado.getId());
+        versionColeccionService.registrarCambio(VersionColeccionService.DEPARTAMENTOS);
+        return guardado;
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public Departamento buscarPorId(Long id) {
         return departamentoRepository.findById(id)
             .orElseThrow(() -> new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Long obtenerVersion(Long id) {
+        return departamentoRepository.findVersionById(id)
+            .orElseThrow(() -> new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Departamento> obtenerTodos() {
         return departamentoRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<DepartamentoDTO> listar() {
+        return departamentoRepository.findAllDto();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Departamento buscarPorNombre(String nombre) {
         return departamentoRepository.findByNombre(nombre)
             .orElseThrow(() -> new DepartamentoNoEncontradoException("Departamento no encontrado con nombre: " + nombre));
@@ -46,18 +83,51 @@ public class DepartamentoServiceImpl implements DepartamentoService {
 
     @Override
     public Departamento actualizar(Long id, Departamento departamento) {
-        if (!departamentoRepository.existsById(id)) {
-            throw new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id);
+        return actualizar(id, departamento, null);
+    }
+
+    @Override
+    public Departamento actualizar(Long id, Departamento departamento, Long version) {
+        Long versionAnterior = version != null ? version : departamentoRepository.findVersionById(id)
+            .orElseThrow(() -> new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id));
+        if (departamentoRepository.actualizarVersionado(id, version, departamento) == 0) {
+            if (version == null || !departamentoRepository.existsById(id)) {
+                throw new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id);
+            }
+            throw new VersionNoCoincideException("El departamento " + id + " ya no está en la versión " + version);
         }
+        versionColeccionService.registrarCambio(VersionColeccionService.DEPARTAMENTOS);
         departamento.setId(id);
-        return departamentoRepository.save(departamento);
+        departamento.setVersion(versionAnterior + 1);
+        return departamento;
     }
 
     @Override
-    public void eliminar(Long id) {
-        if (!departamentoRepository.existsById(id)) {
-            throw new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id);
+    public Departamento parchear(Long id, JsonNode parche, Long version) {
+        ParcheJson cambios = ParcheJson.de(parche, CAMPOS_PARCHE);
+        Departamento departamento = buscarPorId(id);
+        Long versionAnterior = departamento.getVersion();
+        if (version != null && !version.equals(versionAnterior)) {
+            throw new VersionNoCoincideException("El departamento " + id + " ya no está en la versión " + version);
+        }
+        if (cambios.contiene("nombre")) {
+            departamento.setNombre(cambios.texto("nombre", true));
+        }
+        if (cambios.contiene("descripcion")) {
+            departamento.setDescripcion(cambios.texto("descripcion", false));
         }
-        departamentoRepository.deleteById(id);
+        departamentoRepository.flush();
+        if (!Objects.equals(versionAnterior, departamento.getVersion())) {
+            versionColeccionService.registrarCambio(VersionColeccionService.DEPARTAMENTOS);
+        }
+        return departamento;
+    }
+
+    // Los mismos lotes que la eliminación en segundo plano, en este hilo: una transacción corta por lote y el
+    // departamento bloqueado solo en la última. SUPPORTS para no abrir una transacción que abarque todos los lotes
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void eliminar(Long id) {
+        eliminacionDepartamentoService.eliminar(id);
     }
 }
@@ -0,0 +1,15 @@
+package um.example.TP5.service;
+import um.example.TP5.dto.DiagnosticoConsultas;
+
+/**
+ * Mide las sentencias SQL de cada request, marca los que superan el presupuesto de sentencias (posibles N+1) y
+ * registra, por muestreo, las sentencias que superan el umbral de lentitud.
+ */
+public interface DiagnosticoConsultasService {
+    /** Empieza a medir el request que atiende el hilo actual (no hace nada si el diagnóstico está desactivado). */
+    void iniciarMedicion();
+    /** Termina la medición del hilo actual y la acumula bajo el endpoint indicado (por ejemplo "GET /api/empleados"). */
+    void terminarMedicion(String endpoint);
+    DiagnosticoConsultas obtenerDiagnostico();
+    void reiniciar();
+}
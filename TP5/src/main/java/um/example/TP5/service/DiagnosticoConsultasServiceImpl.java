@@ -0,0 +1,170 @@
+package um.example.TP5.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import um.example.TP5.dto.DiagnosticoConsultas;
+import um.example.TP5.dto.EstadisticaEndpointConsultas;
+import um.example.TP5.dto.RequestSobrePresupuesto;
+import um.example.TP5.dto.SentenciaLenta;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumula las mediciones de cada request por endpoint y conserva los últimos requests sobre presupuesto y las últimas
+ * sentencias lentas (hasta {@code tp5.diagnostico-consultas.registros-maximo} de cada uno).
+ * <p>
+ * Los requests sobre presupuesto se loguean siempre (una línea por request); las sentencias lentas se cuentan
+ * siempre, pero solo se loguean y conservan en la proporción {@code muestreo-sentencias-lentas}, para que una base
+ * lenta no inunde el log.
+ */
+@Service
+public class DiagnosticoConsultasServiceImpl implements DiagnosticoConsultasService {
+    private static final Logger log = LoggerFactory.getLogger(DiagnosticoConsultasServiceImpl.class);
+
+    private final boolean habilitado;
+    private final int presupuestoSentencias;
+    private final long umbralSentenciaLentaMs;
+    private final double muestreoSentenciasLentas;
+    private final int registrosMaximo;
+    private final Map<String, Acumulado> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder requestsMedidos = new LongAdder();
+    private final LongAdder requestsSobrePresupuesto = new LongAdder();
+    // Los más recientes primero; protegidos por el monitor de cada cola
+    private final Deque<RequestSobrePresupuesto> sospechosos = new ArrayDeque<>();
+    private final Deque<SentenciaLenta> lentas = new ArrayDeque<>();
+
+    public DiagnosticoConsultasServiceImpl(@Value("${tp5.diagnostico-consultas.habilitado:true}") boolean habilitado,
+                                           @Value("${tp5.diagnostico-consultas.presupuesto-sentencias:20}") int presupuestoSentencias,
+                                           @Value("${tp5.diagnostico-consultas.umbral-sentencia-lenta-ms:200}") long umbralSentenciaLentaMs,
+                                           @Value("${tp5.diagnostico-consultas.muestreo-sentencias-lentas:1.0}") double muestreoSentenciasLentas,
+                                           @Value("${tp5.diagnostico-consultas.registros-maximo:50}") int registrosMaximo) {
+        this.habilitado = habilitado;
+        this.presupuestoSentencias = presupuestoSentencias;
+        this.umbralSentenciaLentaMs = umbralSentenciaLentaMs;
+        this.muestreoSentenciasLentas = muestreoSentenciasLentas;
+        this.registrosMaximo = registrosMaximo;
+    }
+
+    @Override
+    public void iniciarMedicion() {
+        if (habilitado) {
+            MedicionConsultas.iniciar(TimeUnit.MILLISECONDS.toNanos(umbralSentenciaLentaMs));
+        }
+    }
+
+    @Override
+    public void terminarMedicion(String endpoint) {
+        MedicionConsultas medicion = MedicionConsultas.terminar();
+        if (medicion == null) {
+            return;
+        }
+        LocalDateTime fecha = LocalDateTime.now();
+        boolean sobrePresupuesto = medicion.sentencias() > presupuestoSentencias;
+        requestsMedidos.increment();
+        endpoints.computeIfAbsent(endpoint, clave -> new Acumulado()).sumar(medicion, sobrePresupuesto);
+
+        if (sobrePresupuesto) {
+            requestsSobrePresupuesto.increment();
+            log.warn("Posible N+1 en {}: {} sentencias (presupuesto {}), {} entidades y {} colecciones cargadas, {} ms en JDBC",
+                endpoint, medicion.sentencias(), presupuestoSentencias, medicion.entidadesCargadas(),
+                medicion.coleccionesCargadas(), aMilisegundos(medicion.nanosJdbc()));
+            agregar(sospechosos, new RequestSobrePresupuesto(endpoint, fecha, medicion.sentencias(),
+                medicion.entidadesCargadas(), medicion.coleccionesCargadas(), aMilisegundos(medicion.nanosJdbc())));
+        }
+        for (MedicionConsultas.SentenciaMedida sentencia : medicion.lentas()) {
+            if (muestreada()) {
+                log.warn("Sentencia lenta en {} ({} ms): {}", endpoint, aMilisegundos(sentencia.nanos()), sentencia.sql());
+                agregar(lentas, new SentenciaLenta(endpoint, sentencia.sql(), aMilisegundos(sentencia.nanos()), fecha));
+            }
+        }
+    }
+
+    @Override
+    public DiagnosticoConsultas obtenerDiagnostico() {
+        List<EstadisticaEndpointConsultas> estadisticas = endpoints.entrySet().stream()
+            .map(entrada -> entrada.getValue().aEstadistica(entrada.getKey()))
+            .sorted(Comparator.comparingLong(EstadisticaEndpointConsultas::sentencias).reversed()
+                .thenComparing(EstadisticaEndpointConsultas::endpoint))
+            .toList();
+        return new DiagnosticoConsultas(habilitado, presupuestoSentencias, umbralSentenciaLentaMs,
+            muestreoSentenciasLentas, requestsMedidos.sum(), requestsSobrePresupuesto.sum(), estadisticas,
+            copiar(sospechosos), copiar(lentas));
+    }
+
+    @Override
+    public void reiniciar() {
+        endpoints.clear();
+        requestsMedidos.reset();
+        requestsSobrePresupuesto.reset();
+        synchronized (sospechosos) {
+            sospechosos.clear();
+        }
+        synchronized (lentas) {
+            lentas.clear();
+        }
+    }
+
+    private boolean muestreada() {
+        return muestreoSentenciasLentas >= 1.0 || ThreadLocalRandom.current().nextDouble() < muestreoSentenciasLentas;
+    }
+
+    private <T> void agregar(Deque<T> registros, T registro) {
+        synchronized (registros) {
+            registros.addFirst(registro);
+            while (registros.size() > registrosMaximo) {
+                registros.removeLast();
+            }
+        }
+    }
+
+    private static <T> List<T> copiar(Deque<T> registros) {
+        synchronized (registros) {
+            return new ArrayList<>(registros);
+        }
+    }
+
+    private static double aMilisegundos(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private static final class Acumulado {
+        private long requests;
+        private long sentencias;
+        private int maximoSentencias;
+        private long entidadesCargadas;
+        private long coleccionesCargadas;
+        private long sentenciasLentas;
+        private long nanosJdbc;
+        private long requestsSobrePresupuesto;
+
+        private synchronized void sumar(MedicionConsultas medicion, boolean sobrePresupuesto) {
+            requests++;
+            sentencias += medicion.sentencias();
+            maximoSentencias = Math.max(maximoSentencias, medicion.sentencias());
+            entidadesCargadas += medicion.entidadesCargadas();
+            coleccionesCargadas += medicion.coleccionesCargadas();
+            sentenciasLentas += medicion.sentenciasLentas();
+            nanosJdbc += medicion.nanosJdbc();
+            if (sobrePresupuesto) {
+                requestsSobrePresupuesto++;
+            }
+        }
+
+        private synchronized EstadisticaEndpointConsultas aEstadistica(String endpoint) {
+            return EstadisticaEndpointConsultas.de(endpoint, requests, sentencias, maximoSentencias, entidadesCargadas,
+                coleccionesCargadas, sentenciasLentas, aMilisegundos(nanosJdbc), requestsSobrePresupuesto);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package um.example.TP5.service;
+import um.example.TP5.dto.EliminacionDepartamento;
+
+public interface EliminacionDepartamentoService {
+    EliminacionDepartamento iniciar(Long departamentoId);
+    void eliminar(Long departamentoId);
+    EliminacionDepartamento consultar(String id);
+}
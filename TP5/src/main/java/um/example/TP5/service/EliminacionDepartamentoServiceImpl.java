@@ -0,0 +1,226 @@
+package um.example.TP5.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import um.example.TP5.dto.EliminacionDepartamento;
+import um.example.TP5.dto.EstadoTarea;
+import um.example.TP5.exception.DepartamentoNoEncontradoException;
+import um.example.TP5.exception.TareaNoEncontradaException;
+import um.example.TP5.repository.DepartamentoRepository;
+import um.example.TP5.repository.EmpleadoRepository;
+import um.example.TP5.repository.SalarioEmpleado;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+
+/**
+ * Elimina departamentos grandes en segundo plano y por lotes.
+ * <p>
+ * Cada lote es una transacción corta que borra, con sentencias por conjunto, las asignaciones a proyectos y los
+ * empleados de hasta {@code tp5.eliminacion-departamentos.tamanio-lote} IDs; así los locks se liberan entre lotes y
+ * el resto del tráfico no queda esperando. La última transacción bloquea el departamento (para que no reciba altas),
+ * borra lo que haya quedado y después el departamento. Las tareas se ejecutan de a una, en un hilo propio;
+ * {@link #eliminar(Long)} recorre los mismos lotes en el hilo del llamador (el {@code DELETE} sincrónico).
+ * <p>
+ * Sin {@code @Transactional} a nivel de clase: cada lote abre y confirma su propia transacción.
+ */
+@Service
+public class EliminacionDepartamentoServiceImpl implements EliminacionDepartamentoService {
+    // Tareas terminadas que se conservan para consultar su resultado
+    static final int TAREAS_TERMINADAS_MAXIMO = 100;
+
+    private final EmpleadoRepository empleadoRepository;
+    private final DepartamentoRepository departamentoRepository;
+    private final EstadisticaSalarioService estadisticaSalarioService;
+    private final IndiceSalariosService indiceSalariosService;
+    private final VersionColeccionService versionColeccionService;
+    private final TransactionTemplate transaccion;
+    private final int tamanioLote;
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("eliminacion-departamentos").daemon().factory());
+    private final Map<String, Tarea> tareas = new ConcurrentHashMap<>();
+
+    public EliminacionDepartamentoServiceImpl(EmpleadoRepository empleadoRepository,
+                                              DepartamentoRepository departamentoRepository,
+                                              EstadisticaSalarioService estadisticaSalarioService,
+                                              IndiceSalariosService indiceSalariosService,
+                                              VersionColeccionService versionColeccionService,
+                                              PlatformTransactionManager transactionManager,
+                                              @Value("${tp5.eliminacion-departamentos.tamanio-lote:1000}") int tamanioLote) {
+        this.empleadoRepository = empleadoRepository;
+        this.departamentoRepository = departamentoRepository;
+        this.estadisticaSalarioService = estadisticaSalarioService;
+        this.indiceSalariosService = indiceSalariosService;
+        this.versionColeccionService = versionColeccionService;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+    }
+
+    @Override
+    public synchronized EliminacionDepartamento iniciar(Long departamentoId) {
+        if (!departamentoRepository.existsById(departamentoId)) {
+            throw new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + departamentoId);
+        }
+        // Si ya hay una eliminación sin terminar del mismo departamento, se devuelve esa
+        for (Tarea tarea : tareas.values()) {
+            if (tarea.departamentoId.equals(departamentoId) && !tarea.terminada()) {
+                return tarea.aDto();
+            }
+        }
+        descartarTerminadas();
+        Tarea tarea = new Tarea(UUID.randomUUID().toString(), departamentoId);
+        tareas.put(tarea.id, tarea);
+        ejecutor.execute(() -> ejecutar(tarea));
+        return tarea.aDto();
+    }
+
+    // Dentro de una transacción ya abierta los lotes se unen a ella y no se confirman por separado
+    @Override
+    public void eliminar(Long departamentoId) {
+        if (!eliminarPorLotes(departamentoId, eliminados -> { })) {
+            throw new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + departamentoId);
+        }
+    }
+
+    @Override
+    public EliminacionDepartamento consultar(String id) {
+        Tarea tarea = tareas.get(id);
+        if (tarea == null) {
+            throw new TareaNoEncontradaException("Tarea de eliminación no encontrada: " + id);
+        }
+        return tarea.aDto();
+    }
+
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    private void ejecutar(Tarea tarea) {
+        // Proceso masivo: con el perfil pools-separados sus lotes no compiten por las conexiones del tráfico OLTP
+        PoolConexiones.Pool anterior = PoolConexiones.usar(PoolConexiones.Pool.REPORTES);
+        try {
+            ejecutarLotes(tarea);
+        } finally {
+            PoolConexiones.restaurar(anterior);
+        }
+    }
+
+    private void ejecutarLotes(Tarea tarea) {
+        tarea.estado = EstadoTarea.EN_CURSO;
+        try {
+            eliminarPorLotes(tarea.departamentoId, tarea::registrarLote);
+            tarea.terminar(EstadoTarea.COMPLETADA, null);
+        } catch (RuntimeException ex) {
+            tarea.terminar(EstadoTarea.FALLIDA, ex.getMessage());
+        }
+    }
+
+    // Devuelve false si el departamento ya no existía al llegar a la transacción final
+    private boolean eliminarPorLotes(Long departamentoId, IntConsumer registrarLote) {
+        try {
+            Integer eliminados;
+            while ((eliminados = transaccion.execute(estado -> eliminarLote(departamentoId))) > 0) {
+                registrarLote.accept(eliminados);
+            }
+            Integer finales = transaccion.execute(estado -> eliminarDepartamento(departamentoId));
+            registrarLote.accept(finales != null ? finales : 0);
+            return finales != null;
+        } catch (RuntimeException ex) {
+            // Los lotes confirmados no se deshacen: las estadísticas se recalculan con los empleados que quedaron
+            try {
+                transaccion.executeWithoutResult(estado -> estadisticaSalarioService.recalcular(departamentoId));
+            } catch (RuntimeException recalculo) {
+                ex.addSuppressed(recalculo);
+            }
+            throw ex;
+        }
+    }
+
+    // Las estadísticas del departamento no se ajustan lote a lote: se borran junto con el departamento
+    private int eliminarLote(Long departamentoId) {
+        List<SalarioEmpleado> lote = empleadoRepository.findSalariosByDepartamento(departamentoId, Limit.of(tamanioLote));
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = lote.stream().map(SalarioEmpleado::id).toList();
+        empleadoRepository.eliminarAsignacionesProyectos(ids);
+        empleadoRepository.eliminarPorIds(ids);
+        lote.forEach(salario -> indiceSalariosService.registrarBaja(salario.id(), departamentoId, salario.salario()));
+        return lote.size();
+    }
+
+    private Integer eliminarDepartamento(Long departamentoId) {
+        if (departamentoRepository.findParaEliminar(departamentoId).isEmpty()) {
+            return null; // No existe o ya se eliminó por otra vía
+        }
+        // Empleados que se agregaron mientras corrían los lotes
+        int eliminados = 0;
+        int lote;
+        while ((lote = eliminarLote(departamentoId)) > 0) {
+            eliminados += lote;
+        }
+        estadisticaSalarioService.eliminar(departamentoId);
+        departamentoRepository.eliminarPorId(departamentoId);
+        indiceSalariosService.registrarBajaDepartamento(departamentoId);
+        versionColeccionService.registrarCambio(VersionColeccionService.DEPARTAMENTOS);
+        return eliminados;
+    }
+
+    private void descartarTerminadas() {
+        List<Tarea> terminadas = tareas.values().stream()
+            .filter(Tarea::terminada)
+            .sorted(Comparator.comparing(tarea -> tarea.fin))
+            .toList();
+        for (int i = 0; i < terminadas.size() - TAREAS_TERMINADAS_MAXIMO + 1; i++) {
+            tareas.remove(terminadas.get(i).id);
+        }
+    }
+
+    // Solo la modifica el hilo del ejecutor; los campos volatile permiten consultarla desde los requests
+    private static final class Tarea {
+        private final String id;
+        private final Long departamentoId;
+        private final LocalDateTime inicio = LocalDateTime.now();
+        private volatile EstadoTarea estado = EstadoTarea.PENDIENTE;
+        private volatile long empleadosEliminados;
+        private volatile int lotes;
+        private volatile LocalDateTime fin;
+        private volatile String error;
+
+        private Tarea(String id, Long departamentoId) {
+            this.id = id;
+            this.departamentoId = departamentoId;
+        }
+
+        private void registrarLote(int eliminados) {
+            empleadosEliminados += eliminados;
+            lotes++;
+        }
+
+        private void terminar(EstadoTarea estadoFinal, String mensaje) {
+            error = mensaje;
+            fin = LocalDateTime.now();
+            estado = estadoFinal;
+        }
+
+        private boolean terminada() {
+            return estado == EstadoTarea.COMPLETADA || estado == EstadoTarea.FALLIDA;
+        }
+
+        private EliminacionDepartamento aDto() {
+            return new EliminacionDepartamento(id, departamentoId, estado, empleadosEliminados, lotes, inicio, fin, error);
+        }
+    }
+}
@@ -1,16 +1,39 @@
 package um.example.TP5.service;
+import com.fasterxml.jackson.databind.JsonNode;
+import um.example.TP5.dto.AjusteSalarial;
+import um.example.TP5.dto.EmpleadoDTO;
+import um.example.TP5.dto.EstadisticaSalario;
+import um.example.TP5.dto.Pagina;
+import um.example.TP5.dto.ResultadoAjusteSalarial;
+import um.example.TP5.dto.ResultadoLote;
 import um.example.TP5.entity.Empleado;
+import um.example.TP5.repository.PlanCarga;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EmpleadoService {
     Empleado guardar(Empleado empleado);
+    ResultadoLote guardarLote(List<Empleado> empleados);
     Empleado buscarPorId(Long id);
+    Long obtenerVersion(Long id);
     List<Empleado> buscarPorDepartamento(String nombreDepartamento);
+    List<Empleado> buscarPorDepartamento(String nombreDepartamento, PlanCarga plan);
     List<Empleado> buscarPorRangoSalario(BigDecimal salarioMin, BigDecimal salarioMax);
+    List<Empleado> buscarPorRangoSalario(BigDecimal salarioMin, BigDecimal salarioMax, PlanCarga plan);
     BigDecimal obtenerSalarioPromedioPorDepartamento(Long departamentoId);
+    EstadisticaSalario obtenerEstadisticaSalario(Long departamentoId);
     List<Empleado> obtenerTodos();
+    List<Empleado> obtenerTodos(PlanCarga plan);
+    Pagina<EmpleadoDTO> obtenerPagina(String cursor, int tamanio);
+    List<EmpleadoDTO> listar();
+    List<EmpleadoDTO> listarPorDepartamento(String nombreDepartamento);
+    List<EmpleadoDTO> listarPorRangoSalario(BigDecimal salarioMin, BigDecimal salarioMax);
+    void exportarTodos(Consumer<EmpleadoDTO> consumidor);
     Empleado actualizar(Long id, Empleado empleado);
+    Empleado actualizar(Long id, Empleado empleado, Long version);
+    Empleado parchear(Long id, JsonNode parche, Long version);
     void eliminar(Long id);
+    ResultadoAjusteSalarial ajustarSalarios(AjusteSalarial ajuste);
 
 }
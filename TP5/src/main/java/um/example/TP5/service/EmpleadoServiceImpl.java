@@ -1,76 +1,474 @@
 package um.example.TP5.service;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.dto.AjusteSalarial;
+import um.example.TP5.dto.EmpleadoDTO;
+import um.example.TP5.dto.EstadisticaSalario;
+import um.example.TP5.dto.Pagina;
+import um.example.TP5.dto.ResultadoAjusteSalarial;
+import um.example.TP5.dto.ResultadoItemLote;
+import um.example.TP5.dto.ResultadoLote;
+import um.example.TP5.entity.Departamento;
 import um.example.TP5.entity.Empleado;
-import um.example.TP5.exception.EmailDuplicadoException;
+import um.example.TP5.entity.Proyecto;
+import um.example.TP5.exception.AjusteSalarialInvalidoException;
+import um.example.TP5.exception.DepartamentoNoEncontradoException;
 import um.example.TP5.exception.EmpleadoNoEncontradoException;
+import um.example.TP5.exception.LoteInvalidoException;
+import um.example.TP5.exception.ProyectoNoEncontradoException;
+import um.example.TP5.exception.VersionNoCoincideException;
 import um.example.TP5.repository.EmpleadoRepository;
+import um.example.TP5.repository.EstadoEmpleado;
+import um.example.TP5.repository.PlanCarga;
+import um.example.TP5.repository.SalarioDepartamento;
 import um.example.TP5.repository.DepartamentoRepository;
+import um.example.TP5.repository.ProyectoRepository;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Observed(name = "tp5.servicio")
 @Transactional
 public class EmpleadoServiceImpl implements EmpleadoService {
+    static final int TAMANIO_PAGINA_MAXIMO = 500;
+    static final int TAMANIO_LOTE_MAXIMO = 5000;
+    // Coincide con hibernate.jdbc.batch_size: cada flush envía un batch JDBC completo
+    static final int TAMANIO_BATCH = 50;
+    private static final BigDecimal CIEN = BigDecimal.valueOf(100);
+    private static final Set<String> CAMPOS_PARCHE = Set.of(
+        "nombre", "apellido", "email", "fechaContratacion", "salario", "departamento", "proyectos");
+
     private final EmpleadoRepository empleadoRepository;
     private final DepartamentoRepository departamentoRepository;
+    private final ProyectoRepository proyectoRepository;
+    private final EntityManager entityManager;
+    private final EstadisticaSalarioService estadisticaSalarioService;
+    private final IndiceSalariosService indiceSalariosService;
 
     // Constructor para inyección de dependencias
-    public EmpleadoServiceImpl(EmpleadoRepository empleadoRepository, DepartamentoRepository departamentoRepository) {
+    public EmpleadoServiceImpl(EmpleadoRepository empleadoRepository, DepartamentoRepository departamentoRepository,
+                               ProyectoRepository proyectoRepository, EntityManager entityManager,
+                               EstadisticaSalarioService estadisticaSalarioService,
+                               IndiceSalariosService indiceSalariosService) {
         this.empleadoRepository = empleadoRepository;
         this.departamentoRepository = departamentoRepository;
+        this.proyectoRepository = proyectoRepository;
+        this.entityManager = entityManager;
+        this.estadisticaSalarioService = estadisticaSalarioService;
+        this.indiceSalariosService = indiceSalariosService;
     }
 
+    // Sin consulta previa del email: un duplicado lo rechaza la restricción UNIQUE (ver GlobalExceptionHandler)
     @Override
     public Empleado guardar(Empleado empleado) {
-        if (empleadoRepository.findByEmail(empleado.getEmail()).isPresent()) {
-            throw new EmailDuplicadoException("El email ya está registrado: " + empleado.getEmail());
+        Empleado guardado = empleadoRepository.save(empleado);
+        estadisticaSalarioService.registrarAlta(idDepartamento(guardado), guardado.getSalario());
+        indiceSalariosService.registrarAlta(guardado.getId(), idDepartamento(guardado), guardado.getSalario());
+        return guardado;
+    }
+
+    @Override
+    @PoolReportes
+    public ResultadoLote guardarLote(List<Empleado> empleados) {
+        if (empleados == null || empleados.isEmpty()) {
+            throw new LoteInvalidoException("El lote de empleados está vacío");
+        }
+        if (empleados.size() > TAMANIO_LOTE_MAXIMO) {
+            throw new LoteInvalidoException("El lote supera el máximo de " + TAMANIO_LOTE_MAXIMO + " empleados");
+        }
+        // El lote es solo de altas: un elemento con ID haría fallar el persist a mitad del lote
+        for (int i = 0; i < empleados.size(); i++) {
+            if (empleados.get(i) == null) {
+                throw new LoteInvalidoException("El elemento " + i + " del lote está vacío");
+            }
+            if (empleados.get(i).getId() != null) {
+                throw new LoteInvalidoException("El elemento " + i + " del lote trae ID; el ID lo asigna la base de datos");
+            }
+        }
+
+        // Validación de todo el lote con una consulta por tabla, en lugar de una por empleado
+        Set<String> emailsEnUso = new HashSet<>(empleadoRepository.findEmailsExistentes(
+            empleados.stream().map(Empleado::getEmail).filter(Objects::nonNull).distinct().toList()));
+        Set<Long> idsDepartamento = empleados.stream()
+            .map(Empleado::getDepartamento).filter(Objects::nonNull)
+            .map(Departamento::getId).filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Long> departamentosExistentes = idsDepartamento.isEmpty()
+            ? Set.of()
+            : new HashSet<>(departamentoRepository.findIdsExistentes(idsDepartamento));
+
+        List<ResultadoItemLote> items = new ArrayList<>(empleados.size());
+        Map<Long, List<BigDecimal>> salariosPorDepartamento = new HashMap<>();
+        List<Empleado> pendientes = new ArrayList<>(TAMANIO_BATCH);
+        List<Integer> indicesPendientes = new ArrayList<>(TAMANIO_BATCH);
+        for (int i = 0; i < empleados.size(); i++) {
+            Empleado empleado = empleados.get(i);
+            String rechazo = motivoRechazo(empleado, emailsEnUso, departamentosExistentes);
+            if (rechazo != null) {
+                items.add(ResultadoItemLote.rechazado(i, empleado.getEmail(), rechazo));
+                continue;
+            }
+            emailsEnUso.add(empleado.getEmail());
+            if (empleado.getDepartamento() != null) {
+                Long departamentoId = empleado.getDepartamento().getId();
+                empleado.setDepartamento(entityManager.getReference(Departamento.class, departamentoId));
+                salariosPorDepartamento.computeIfAbsent(departamentoId, id -> new ArrayList<>()).add(empleado.getSalario());
+            }
+            entityManager.persist(empleado);
+            items.add(null); // se completa con el ID una vez persistido
+            pendientes.add(empleado);
+            indicesPendientes.add(i);
+            if (pendientes.size() == TAMANIO_BATCH) {
+                volcarBatch(pendientes, indicesPendientes, items);
+            }
+        }
+        volcarBatch(pendientes, indicesPendientes, items);
+        // Una actualización de estadísticas por departamento, no una por empleado
+        salariosPorDepartamento.forEach(estadisticaSalarioService::registrarAltas);
+        return ResultadoLote.de(items);
+    }
+
+    private String motivoRechazo(Empleado empleado, Set<String> emailsEnUso, Set<Long> departamentosExistentes) {
+        if (empleado.getEmail() == null || empleado.getEmail().isBlank()) {
+            return "El email es obligatorio";
         }
-        return empleadoRepository.save(empleado);
+        if (empleado.getNombre() == null || empleado.getApellido() == null
+            || empleado.getFechaContratacion() == null || empleado.getSalario() == null) {
+            return "Faltan campos obligatorios (nombre, apellido, fechaContratacion, salario)";
+        }
+        if (emailsEnUso.contains(empleado.getEmail())) {
+            return "El email ya está registrado: " + empleado.getEmail();
+        }
+        Departamento departamento = empleado.getDepartamento();
+        if (departamento != null && (departamento.getId() == null || !departamentosExistentes.contains(departamento.getId()))) {
+            return "Departamento no encontrado con ID: " + departamento.getId();
+        }
+        return null;
+    }
+
+    // Envía los INSERT pendientes como batch JDBC y libera el contexto de persistencia
+    private void volcarBatch(List<Empleado> pendientes, List<Integer> indicesPendientes, List<ResultadoItemLote> items) {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        for (int j = 0; j < pendientes.size(); j++) {
+            Empleado empleado = pendientes.get(j);
+            int indice = indicesPendientes.get(j);
+            items.set(indice, ResultadoItemLote.creado(indice, empleado.getId(), empleado.getEmail()));
+            indiceSalariosService.registrarAlta(empleado.getId(), idDepartamento(empleado), empleado.getSalario());
+        }
+        entityManager.clear();
+        pendientes.clear();
+        indicesPendientes.clear();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Empleado buscarPorId(Long id) {
         return empleadoRepository.findById(id)
             .orElseThrow(() -> new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Long obtenerVersion(Long id) {
+        return empleadoRepository.findVersionById(id)
+            .orElseThrow(() -> new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id));
+    }
+
+    @Override
+    @PoolReportes
+    @Transactional(readOnly = true)
     public List<Empleado> buscarPorDepartamento(String nombreDepartamento) {
-        return empleadoRepository.findByNombreDepartamento(nombreDepartamento);
+        return buscarPorDepartamento(nombreDepartamento, PlanCarga.SIMPLE);
     }
 
     @Override
+    @PoolReportes
+    @Transactional(readOnly = true)
+    public List<Empleado> buscarPorDepartamento(String nombreDepartamento, PlanCarga plan) {
+        return switch (plan) {
+            case SIMPLE -> empleadoRepository.findByNombreDepartamento(nombreDepartamento);
+            case CON_DEPARTAMENTO -> empleadoRepository.findConDepartamentoByNombreDepartamento(nombreDepartamento);
+            case COMPLETO -> empleadoRepository.findCompletoByNombreDepartamento(nombreDepartamento);
+        };
+    }
+
+    @Override
+    @PoolReportes
+    @Transactional(readOnly = true)
     public List<Empleado> buscarPorRangoSalario(BigDecimal salarioMin, BigDecimal salarioMax) {
-        return empleadoRepository.findBySalarioBetween(salarioMin, salarioMax);
+        return buscarPorRangoSalario(salarioMin, salarioMax, PlanCarga.SIMPLE);
+    }
+
+    @Override
+    @PoolReportes
+    @Transactional(readOnly = true)
+    public List<Empleado> buscarPorRangoSalario(BigDecimal salarioMin, BigDecimal salarioMax, PlanCarga plan) {
+        return switch (plan) {
+            case SIMPLE -> empleadoRepository.findBySalarioBetween(salarioMin, salarioMax);
+            case CON_DEPARTAMENTO -> empleadoRepository.findConDepartamentoBySalarioBetween(salarioMin, salarioMax);
+            case COMPLETO -> empleadoRepository.findCompletoBySalarioBetween(salarioMin, salarioMax);
+        };
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BigDecimal obtenerSalarioPromedioPorDepartamento(Long departamentoId) {
-        return empleadoRepository.findAverageSalarioByDepartamento(departamentoId)
-            .orElse(BigDecimal.ZERO);
+        return estadisticaSalarioService.obtener(departamentoId).promedio();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EstadisticaSalario obtenerEstadisticaSalario(Long departamentoId) {
+        return estadisticaSalarioService.obtener(departamentoId);
     }
 
     @Override
+    @PoolReportes
+    @Transactional(readOnly = true)
     public List<Empleado> obtenerTodos() {
-        return empleadoRepository.findAll();
+        return obtenerTodos(PlanCarga.SIMPLE);
+    }
+
+    @Override
+    @PoolReportes
+    @Transactional(readOnly = true)
+    public List<Empleado> obtenerTodos(PlanCarga plan) {
+        return switch (plan) {
+            case SIMPLE -> empleadoRepository.findAll();
+            case CON_DEPARTAMENTO -> empleadoRepository.findAllConDepartamento();
+            case COMPLETO -> empleadoRepository.findAllCompleto();
+        };
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<EmpleadoDTO> obtenerPagina(String cursor, int tamanio) {
+        int tamanioEfectivo = Math.max(1, Math.min(tamanio, TAMANIO_PAGINA_MAXIMO));
+        long ultimoId = CursorPaginacion.decodificar(cursor);
+
+        // Se pide un elemento extra para saber si existe una página siguiente sin hacer un COUNT
+        List<EmpleadoDTO> empleados = empleadoRepository.findDtoByIdGreaterThan(ultimoId, Limit.of(tamanioEfectivo + 1));
+        boolean hayMas = empleados.size() > tamanioEfectivo;
+        List<EmpleadoDTO> contenido = hayMas ? empleados.subList(0, tamanioEfectivo) : empleados;
+        String siguienteCursor = hayMas ? CursorPaginacion.codificar(contenido.get(contenido.size() - 1).id()) : null;
+        return new Pagina<>(List.copyOf(contenido), siguienteCursor, hayMas);
+    }
+
+    @Override
+    @PoolReportes
+    @Transactional(readOnly = true)
+    public List<EmpleadoDTO> listar() {
+        return empleadoRepository.findAllDto();
+    }
+
+    @Override
+    @PoolReportes
+    @Transactional(readOnly = true)
+    public List<EmpleadoDTO> listarPorDepartamento(String nombreDepartamento) {
+        return empleadoRepository.findDtoByNombreDepartamento(nombreDepartamento);
+    }
+
+    @Override
+    @PoolReportes
+    @Transactional(readOnly = true)
+    public List<EmpleadoDTO> listarPorRangoSalario(BigDecimal salarioMin, BigDecimal salarioMax) {
+        return empleadoRepository.findDtoBySalarioBetween(salarioMin, salarioMax);
+    }
+
+    @Override
+    @PoolReportes
+    @Transactional(readOnly = true)
+    public void exportarTodos(Consumer<EmpleadoDTO> consumidor) {
+        try (Stream<Empleado> empleados = empleadoRepository.streamAllByOrderByIdAsc()) {
+            empleados.forEach(empleado -> {
+                consumidor.accept(EmpleadoDTO.desde(empleado));
+                // Se separa del contexto de persistencia para que la memoria no crezca con cada fila leída
+                entityManager.detach(empleado);
+            });
+        }
     }
 
     @Override
     public Empleado actualizar(Long id, Empleado empleado) {
-        if (!empleadoRepository.existsById(id)) {
+        return actualizar(id, empleado, null);
+    }
+
+    @Override
+    public Empleado actualizar(Long id, Empleado empleado, Long version) {
+        List<EstadoEmpleado> estado = empleadoRepository.findEstadoById(id);
+        if (estado.isEmpty()) {
             throw new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id);
         }
+        EstadoEmpleado anterior = estado.get(0);
+        if (empleado.getSalario() != null) {
+            // Misma escala que la columna: la respuesta, las estadísticas y el índice usan el valor que queda guardado
+            empleado.setSalario(empleado.getSalario().setScale(2, RoundingMode.HALF_UP));
+        }
+        // Referencia sin SELECT: el UPDATE solo necesita el ID del departamento
+        Long departamentoId = idDepartamento(empleado);
+        Departamento departamento = departamentoId == null ? null : departamentoRepository.getReferenceById(departamentoId);
+        if (empleadoRepository.actualizarVersionado(id, version, empleado, departamento) == 0) {
+            if (version == null) {
+                throw new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id);
+            }
+            throw new VersionNoCoincideException("El empleado " + id + " ya no está en la versión " + version);
+        }
+        reemplazarProyectos(id, estado, empleado.getProyectos());
+        estadisticaSalarioService.registrarCambio(anterior.departamentoId(), anterior.salario(),
+            departamentoId, empleado.getSalario());
+        indiceSalariosService.registrarCambio(id, anterior.departamentoId(), anterior.salario(),
+            departamentoId, empleado.getSalario());
         empleado.setId(id);
-        return empleadoRepository.save(empleado);
+        empleado.setVersion((version != null ? version : anterior.version()) + 1);
+        return empleado;
     }
 
+    // De la tabla de proyectos solo se borran o insertan las asignaciones que cambiaron
     @Override
-    public void eliminar(Long id) {
-        if (!empleadoRepository.existsById(id)) {
-            throw new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id);
+    public Empleado parchear(Long id, JsonNode parche, Long version) {
+        ParcheJson cambios = ParcheJson.de(parche, CAMPOS_PARCHE);
+        Empleado empleado = buscarPorId(id);
+        Long versionAnterior = empleado.getVersion();
+        if (version != null && !version.equals(versionAnterior)) {
+            throw new VersionNoCoincideException("El empleado " + id + " ya no está en la versión " + version);
         }
+        Long departamentoAnterior = idDepartamento(empleado);
+        BigDecimal salarioAnterior = empleado.getSalario();
+
+        if (cambios.contiene("nombre")) {
+            empleado.setNombre(cambios.texto("nombre", true));
+        }
+        if (cambios.contiene("apellido")) {
+            empleado.setApellido(cambios.texto("apellido", true));
+        }
+        if (cambios.contiene("email")) {
+            empleado.setEmail(cambios.texto("email", true));
+        }
+        if (cambios.contiene("fechaContratacion")) {
+            empleado.setFechaContratacion(cambios.fecha("fechaContratacion", true));
+        }
+        if (cambios.contiene("salario")) {
+            // Misma escala que la columna: las estadísticas y el índice usan el valor que queda guardado
+            empleado.setSalario(cambios.decimal("salario", true).setScale(2, RoundingMode.HALF_UP));
+        }
+        if (cambios.contiene("departamento")) {
+            Long departamentoId = cambios.referencia("departamento");
+            empleado.setDepartamento(departamentoId == null ? null : departamentoRepository.findById(departamentoId)
+                .orElseThrow(() -> new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + departamentoId)));
+        }
+        if (cambios.contiene("proyectos")) {
+            reasignarProyectos(empleado, cambios.referencias("proyectos"));
+        }
+        empleadoRepository.flush();
+
+        if (!Objects.equals(departamentoAnterior, idDepartamento(empleado))
+            || salarioAnterior.compareTo(empleado.getSalario()) != 0) {
+            estadisticaSalarioService.registrarCambio(departamentoAnterior, salarioAnterior,
+                idDepartamento(empleado), empleado.getSalario());
+            indiceSalariosService.registrarCambio(id, departamentoAnterior, salarioAnterior,
+                idDepartamento(empleado), empleado.getSalario());
+        }
+        return empleado;
+    }
+
+    @Override
+    public void eliminar(Long id) {
+        SalarioDepartamento anterior = empleadoRepository.findSalarioDepartamentoById(id)
+            .orElseThrow(() -> new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id));
         empleadoRepository.deleteById(id);
+        estadisticaSalarioService.registrarBaja(anterior.departamentoId(), anterior.salario());
+        indiceSalariosService.registrarBaja(id, anterior.departamentoId(), anterior.salario());
+    }
+
+    @Override
+    @PoolReportes
+    public ResultadoAjusteSalarial ajustarSalarios(AjusteSalarial ajuste) {
+        validarAjuste(ajuste);
+        BigDecimal porcentaje = ajuste.porcentaje() == null ? BigDecimal.ZERO : ajuste.porcentaje();
+        // Misma escala que el CAST del UPDATE, para que el índice en memoria calcule exactamente lo mismo
+        BigDecimal factor = BigDecimal.ONE.add(porcentaje.movePointLeft(2)).setScale(10, RoundingMode.HALF_UP);
+        BigDecimal monto = ajuste.monto() == null ? BigDecimal.ZERO : ajuste.monto();
+
+        // Se registra antes del UPDATE: si hay una recarga del índice en curso, espera a que termine
+        indiceSalariosService.registrarAjuste(ajuste.departamentoId(), ajuste.salarioMin(), ajuste.salarioMax(),
+            factor, monto);
+        int actualizados = empleadoRepository.ajustarSalarios(factor, monto, ajuste.departamentoId(),
+            ajuste.salarioMin(), ajuste.salarioMax());
+        if (actualizados > 0) {
+            if (ajuste.departamentoId() != null) {
+                estadisticaSalarioService.recalcular(ajuste.departamentoId());
+            } else {
+                estadisticaSalarioService.reconstruir();
+            }
+        }
+        return new ResultadoAjusteSalarial(actualizados);
+    }
+
+    private static void validarAjuste(AjusteSalarial ajuste) {
+        if (ajuste.porcentaje() == null && ajuste.monto() == null) {
+            throw new AjusteSalarialInvalidoException("El ajuste necesita un porcentaje o un monto");
+        }
+        if (ajuste.porcentaje() != null && ajuste.porcentaje().compareTo(CIEN.negate()) <= 0) {
+            throw new AjusteSalarialInvalidoException("El porcentaje debe ser mayor a -100");
+        }
+        if (ajuste.salarioMin() != null && ajuste.salarioMax() != null
+            && ajuste.salarioMin().compareTo(ajuste.salarioMax()) > 0) {
+            throw new AjusteSalarialInvalidoException("El salario mínimo no puede ser mayor al máximo");
+        }
+    }
+
+    // Como hacía el merge de la entidad: los proyectos recibidos reemplazan a los asignados. En la tabla de unión solo
+    // se borran y se insertan las diferencias; si el conjunto no cambió, no hay ninguna sentencia
+    private void reemplazarProyectos(Long empleadoId, List<EstadoEmpleado> estado, Set<Proyecto> proyectos) {
+        Set<Long> asignados = estado.stream()
+            .map(EstadoEmpleado::proyectoId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Long> recibidos = proyectos == null ? Set.of() : proyectos.stream()
+            .map(Proyecto::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        List<Long> quitados = asignados.stream().filter(proyectoId -> !recibidos.contains(proyectoId)).toList();
+        List<Long> agregados = recibidos.stream().filter(proyectoId -> !asignados.contains(proyectoId)).toList();
+        if (!quitados.isEmpty()) {
+            empleadoRepository.desasignarProyectos(empleadoId, quitados);
+        }
+        if (!agregados.isEmpty()) {
+            empleadoRepository.asignarProyectos(empleadoId, agregados);
+        }
+    }
+
+    // Cambiar la colección (en lugar de reemplazarla) también incrementa la versión del empleado
+    private void reasignarProyectos(Empleado empleado, Set<Long> proyectoIds) {
+        List<Proyecto> proyectos = proyectoIds.isEmpty() ? List.of() : proyectoRepository.findAllById(proyectoIds);
+        if (proyectos.size() != proyectoIds.size()) {
+            Set<Long> faltantes = new HashSet<>(proyectoIds);
+            proyectos.forEach(proyecto -> faltantes.remove(proyecto.getId()));
+            throw new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + faltantes.iterator().next());
+        }
+        empleado.getProyectos().retainAll(proyectos);
+        empleado.getProyectos().addAll(proyectos);
+    }
+
+    private static Long idDepartamento(Empleado empleado) {
+        return empleado.getDepartamento() == null ? null : empleado.getDepartamento().getId();
     }
 }
 
@@ -0,0 +1,20 @@
+package um.example.TP5.service;
+import um.example.TP5.dto.EstadisticaSalario;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Estadísticas de salario por departamento, actualizadas en la transacción de cada escritura de empleados.
+ */
+public interface EstadisticaSalarioService {
+    EstadisticaSalario obtener(Long departamentoId);
+    void inicializar(Long departamentoId);
+    void registrarAlta(Long departamentoId, BigDecimal salario);
+    void registrarAltas(Long departamentoId, Collection<BigDecimal> salarios);
+    void registrarBaja(Long departamentoId, BigDecimal salario);
+    void registrarCambio(Long departamentoAnterior, BigDecimal salarioAnterior, Long departamentoNuevo, BigDecimal salarioNuevo);
+    void eliminar(Long departamentoId);
+    void recalcular(Long departamentoId);
+    int reconstruir();
+}
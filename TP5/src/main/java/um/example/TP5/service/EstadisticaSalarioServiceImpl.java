@@ -0,0 +1,165 @@
+package um.example.TP5.service;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.dto.EstadisticaSalario;
+import um.example.TP5.entity.EstadisticaSalarioDepartamento;
+import um.example.TP5.repository.EmpleadoRepository;
+import um.example.TP5.repository.EstadisticaSalarioDepartamentoRepository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Mantiene una fila de estadísticas por departamento (cantidad, suma, mínimo y máximo) para que el promedio y la
+ * cantidad de empleados se lean en O(1), sin recorrer los empleados.
+ * <p>
+ * Los métodos de registro deben llamarse dentro de la transacción que modifica los empleados: la fila se bloquea
+ * (SELECT ... FOR UPDATE) hasta el commit, así dos escrituras concurrentes sobre el mismo departamento no pisan
+ * sus cambios. La fila se crea junto con el departamento ({@link #inicializar(Long)}); si falta (por ejemplo, filas
+ * cargadas por fuera de la aplicación) se calcula completa desde la tabla de empleados.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class EstadisticaSalarioServiceImpl implements EstadisticaSalarioService {
+    private final EstadisticaSalarioDepartamentoRepository estadisticaRepository;
+    private final EmpleadoRepository empleadoRepository;
+    private final EntityManager entityManager;
+
+    public EstadisticaSalarioServiceImpl(EstadisticaSalarioDepartamentoRepository estadisticaRepository,
+                                         EmpleadoRepository empleadoRepository, EntityManager entityManager) {
+        this.estadisticaRepository = estadisticaRepository;
+        this.empleadoRepository = empleadoRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EstadisticaSalario obtener(Long departamentoId) {
+        EstadisticaSalarioDepartamento estadistica = estadisticaRepository.findById(departamentoId)
+            .orElseGet(() -> estadisticaRepository.calcularDesdeEmpleados(departamentoId));
+        return EstadisticaSalario.de(estadistica);
+    }
+
+    // El departamento se acaba de insertar en esta transacción, así que la fila es siempre nueva: persist directo, sin
+    // el SELECT de existencia ni el del merge que haría save() con un ID asignado
+    @Override
+    public void inicializar(Long departamentoId) {
+        entityManager.persist(new EstadisticaSalarioDepartamento(departamentoId, 0L, BigDecimal.ZERO, null, null));
+    }
+
+    @Override
+    public void registrarAlta(Long departamentoId, BigDecimal salario) {
+        registrarAltas(departamentoId, List.of(salario));
+    }
+
+    @Override
+    public void registrarAltas(Long departamentoId, Collection<BigDecimal> salarios) {
+        if (departamentoId == null || salarios.isEmpty()) {
+            return;
+        }
+        EstadisticaSalarioDepartamento estadistica = bloquear(departamentoId);
+        if (estadistica != null) {
+            sumar(estadistica, salarios);
+        }
+    }
+
+    @Override
+    public void registrarBaja(Long departamentoId, BigDecimal salario) {
+        if (departamentoId == null) {
+            return;
+        }
+        EstadisticaSalarioDepartamento estadistica = bloquear(departamentoId);
+        if (estadistica != null) {
+            restar(estadistica, salario);
+        }
+    }
+
+    @Override
+    public void registrarCambio(Long departamentoAnterior, BigDecimal salarioAnterior,
+                                Long departamentoNuevo, BigDecimal salarioNuevo) {
+        if (Objects.equals(departamentoAnterior, departamentoNuevo)) {
+            if (departamentoNuevo == null || salarioAnterior.compareTo(salarioNuevo) == 0) {
+                return;
+            }
+            EstadisticaSalarioDepartamento estadistica = bloquear(departamentoNuevo);
+            if (estadistica != null) {
+                restar(estadistica, salarioAnterior);
+                sumar(estadistica, List.of(salarioNuevo));
+            }
+            return;
+        }
+        // Cambio de departamento: se bloquean ambas filas en orden de ID para no generar deadlocks entre sí
+        if (departamentoAnterior != null && (departamentoNuevo == null || departamentoAnterior < departamentoNuevo)) {
+            registrarBaja(departamentoAnterior, salarioAnterior);
+            registrarAlta(departamentoNuevo, salarioNuevo);
+        } else {
+            registrarAlta(departamentoNuevo, salarioNuevo);
+            registrarBaja(departamentoAnterior, salarioAnterior);
+        }
+    }
+
+    @Override
+    public void eliminar(Long departamentoId) {
+        estadisticaRepository.eliminarPorDepartamento(departamentoId);
+    }
+
+    // Primero el bloqueo y después el cálculo: un alta o baja que confirme entre medio queda en el agregado (con READ
+    // COMMITTED, calcular antes dejaría un resultado viejo que pisaría ese cambio al guardarlo)
+    @Override
+    public void recalcular(Long departamentoId) {
+        estadisticaRepository.findParaActualizar(departamentoId).ifPresentOrElse(estadistica -> {
+            EstadisticaSalarioDepartamento calculada = estadisticaRepository.calcularDesdeEmpleados(departamentoId);
+            estadistica.setCantidad(calculada.getCantidad());
+            estadistica.setSuma(calculada.getSuma());
+            estadistica.setMinimo(calculada.getMinimo());
+            estadistica.setMaximo(calculada.getMaximo());
+        }, () -> estadisticaRepository.save(estadisticaRepository.calcularDesdeEmpleados(departamentoId)));
+    }
+
+    @Override
+    @PoolReportes
+    @Transactional
+    public int reconstruir() {
+        estadisticaRepository.deleteAllInBatch();
+        return estadisticaRepository.insertarDesdeEmpleados();
+    }
+
+    // Devuelve la fila bloqueada, o null si no existía y se acaba de calcular completa (ya incluye el cambio)
+    private EstadisticaSalarioDepartamento bloquear(Long departamentoId) {
+        return estadisticaRepository.findParaActualizar(departamentoId).orElseGet(() -> {
+            estadisticaRepository.save(estadisticaRepository.calcularDesdeEmpleados(departamentoId));
+            return null;
+        });
+    }
+
+    private void sumar(EstadisticaSalarioDepartamento estadistica, Collection<BigDecimal> salarios) {
+        for (BigDecimal salario : salarios) {
+            estadistica.setCantidad(estadistica.getCantidad() + 1);
+            estadistica.setSuma(estadistica.getSuma().add(salario));
+            if (estadistica.getMinimo() == null || salario.compareTo(estadistica.getMinimo()) < 0) {
+                estadistica.setMinimo(salario);
+            }
+            if (estadistica.getMaximo() == null || salario.compareTo(estadistica.getMaximo()) > 0) {
+                estadistica.setMaximo(salario);
+            }
+        }
+    }
+
+    private void restar(EstadisticaSalarioDepartamento estadistica, BigDecimal salario) {
+        Long departamentoId = estadistica.getDepartamentoId();
+        estadistica.setCantidad(estadistica.getCantidad() - 1);
+        estadistica.setSuma(estadistica.getSuma().subtract(salario));
+        // Solo si se fue el mínimo o el máximo hace falta buscar el nuevo extremo (consulta por índice)
+        if (estadistica.getMinimo() != null && salario.compareTo(estadistica.getMinimo()) <= 0) {
+            estadistica.setMinimo(empleadoRepository.findMinSalarioByDepartamento(departamentoId).orElse(null));
+        }
+        if (estadistica.getMaximo() != null && salario.compareTo(estadistica.getMaximo()) >= 0) {
+            estadistica.setMaximo(empleadoRepository.findMaxSalarioByDepartamento(departamentoId).orElse(null));
+        }
+    }
+}
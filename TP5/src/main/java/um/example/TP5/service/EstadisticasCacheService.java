@@ -0,0 +1,6 @@
+package um.example.TP5.service;
+import um.example.TP5.dto.EstadisticasCache;
+
+public interface EstadisticasCacheService {
+    EstadisticasCache obtenerEstadisticas();
+}
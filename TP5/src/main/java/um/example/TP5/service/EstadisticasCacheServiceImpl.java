@@ -0,0 +1,49 @@
+package um.example.TP5.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import um.example.TP5.dto.EstadisticaRegionCache;
+import um.example.TP5.dto.EstadisticasCache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class EstadisticasCacheServiceImpl implements EstadisticasCacheService {
+    private final SessionFactory sessionFactory;
+
+    public EstadisticasCacheServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @Override
+    public EstadisticasCache obtenerEstadisticas() {
+        boolean habilitada = sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!habilitada || !statistics.isStatisticsEnabled()) {
+            return new EstadisticasCache(habilitada, List.of());
+        }
+        List<EstadisticaRegionCache> regiones = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+            .sorted()
+            .map(region -> aEstadistica(region, statistics.getCacheRegionStatistics(region)))
+            .filter(Objects::nonNull)
+            .toList();
+        return new EstadisticasCache(true, regiones);
+    }
+
+    private EstadisticaRegionCache aEstadistica(String region, CacheRegionStatistics estadisticas) {
+        if (estadisticas == null) {
+            return null;
+        }
+        return EstadisticaRegionCache.de(
+            region,
+            estadisticas.getHitCount(),
+            estadisticas.getMissCount(),
+            estadisticas.getPutCount(),
+            estadisticas.getElementCountInMemory());
+    }
+}
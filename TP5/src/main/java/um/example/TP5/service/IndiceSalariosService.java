@@ -0,0 +1,24 @@
+package um.example.TP5.service;
+import um.example.TP5.dto.PosicionSalario;
+import um.example.TP5.dto.SalarioIndexado;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Índice de salarios en memoria para consultas por rango, posición y mayores salarios sin ir a la base de datos.
+ * Los métodos de registro se aplican al confirmarse la transacción en curso.
+ */
+public interface IndiceSalariosService {
+    List<SalarioIndexado> buscarPorRango(BigDecimal salarioMin, BigDecimal salarioMax, int limite);
+    PosicionSalario obtenerPosicion(Long departamentoId, BigDecimal salario);
+    List<SalarioIndexado> obtenerMayoresSalarios(Long departamentoId, int cantidad);
+    void registrarAlta(Long empleadoId, Long departamentoId, BigDecimal salario);
+    void registrarBaja(Long empleadoId, Long departamentoId, BigDecimal salario);
+    void registrarCambio(Long empleadoId, Long departamentoAnterior, BigDecimal salarioAnterior,
+                         Long departamentoNuevo, BigDecimal salarioNuevo);
+    void registrarBajaDepartamento(Long departamentoId);
+    void registrarAjuste(Long departamentoId, BigDecimal salarioMin, BigDecimal salarioMax,
+                         BigDecimal factor, BigDecimal monto);
+    int reconstruir();
+}
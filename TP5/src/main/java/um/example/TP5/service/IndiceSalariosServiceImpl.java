@@ -0,0 +1,331 @@
+package um.example.TP5.service;
+
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import um.example.TP5.dto.PosicionSalario;
+import um.example.TP5.dto.SalarioIndexado;
+import um.example.TP5.repository.EmpleadoRepository;
+import um.example.TP5.repository.SalarioEmpleado;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Mantiene en memoria un {@link ArbolSalarios} global y uno por departamento.
+ * <p>
+ * Se carga completo al iniciar la aplicación y después se actualiza con las escrituras de los servicios: los
+ * cambios de cada transacción se acumulan y se aplican juntos recién en el commit, así un rollback no deja rastros.
+ * Las consultas toman un lock de lectura y las actualizaciones uno de escritura. Solo ve los cambios hechos por los
+ * servicios de esta instancia; los hechos por fuera se incorporan con {@link #reconstruir()}.
+ * <p>
+ * Las altas y bajas se pueden reaplicar sin efecto, así que las confirmadas durante una recarga se vuelven a aplicar
+ * sobre la carga nueva. Un ajuste masivo no es idempotente: una recarga espera a que terminen los ajustes en curso y
+ * un ajuste nuevo espera a que termine la recarga.
+ */
+@Service
+@Observed(name = "tp5.servicio")
+public class IndiceSalariosServiceImpl implements IndiceSalariosService {
+    static final int LIMITE_MAXIMO = 1000;
+
+    private sealed interface Cambio {
+    }
+
+    private record Alta(long empleadoId, Long departamentoId, long centavos) implements Cambio {
+    }
+
+    private record Baja(long empleadoId, Long departamentoId, long centavos) implements Cambio {
+    }
+
+    private record BajaDepartamento(Long departamentoId) implements Cambio {
+    }
+
+    private record Ajuste(Long departamentoId, long minimo, long maximo, BigDecimal factor, BigDecimal monto)
+        implements Cambio {
+    }
+
+    private final EmpleadoRepository empleadoRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Lectura: ajustes masivos en curso (desde que se registran hasta el fin de su transacción). Escritura: recarga
+    private final ReentrantReadWriteLock cargaYAjustes = new ReentrantReadWriteLock();
+
+    private ArbolSalarios global = new ArbolSalarios();
+    // Un árbol por departamento; la clave null agrupa a los empleados sin departamento
+    private Map<Long, ArbolSalarios> porDepartamento = new HashMap<>();
+    // Cambios confirmados mientras se recarga el índice; se vuelven a aplicar sobre la carga nueva
+    private List<Cambio> cambiosDuranteCarga;
+
+    public IndiceSalariosServiceImpl(EmpleadoRepository empleadoRepository) {
+        this.empleadoRepository = empleadoRepository;
+    }
+
+    @Override
+    public List<SalarioIndexado> buscarPorRango(BigDecimal salarioMin, BigDecimal salarioMax, int limite) {
+        List<SalarioIndexado> resultado = new ArrayList<>();
+        int limiteEfectivo = limitar(limite);
+        lock.readLock().lock();
+        try {
+            global.recorrerRango(aCentavos(salarioMin), aCentavos(salarioMax), (empleadoId, centavos) -> {
+                resultado.add(new SalarioIndexado(empleadoId, deCentavos(centavos)));
+                return resultado.size() < limiteEfectivo;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return resultado;
+    }
+
+    @Override
+    public PosicionSalario obtenerPosicion(Long departamentoId, BigDecimal salario) {
+        lock.readLock().lock();
+        try {
+            ArbolSalarios arbol = departamentoId == null
+                ? new ArbolSalarios()
+                : porDepartamento.getOrDefault(departamentoId, new ArbolSalarios());
+            long mayores = arbol.contarMayores(aCentavos(salario));
+            return new PosicionSalario(departamentoId, salario, mayores + 1, arbol.tamanio());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<SalarioIndexado> obtenerMayoresSalarios(Long departamentoId, int cantidad) {
+        List<SalarioIndexado> resultado = new ArrayList<>();
+        int limiteEfectivo = limitar(cantidad);
+        lock.readLock().lock();
+        try {
+            ArbolSalarios arbol = departamentoId == null ? global : porDepartamento.get(departamentoId);
+            if (arbol != null) {
+                arbol.recorrerDescendente((empleadoId, centavos) -> {
+                    resultado.add(new SalarioIndexado(empleadoId, deCentavos(centavos)));
+                    return resultado.size() < limiteEfectivo;
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return resultado;
+    }
+
+    @Override
+    public void registrarAlta(Long empleadoId, Long departamentoId, BigDecimal salario) {
+        registrar(new Alta(empleadoId, departamentoId, aCentavos(salario)));
+    }
+
+    @Override
+    public void registrarBaja(Long empleadoId, Long departamentoId, BigDecimal salario) {
+        registrar(new Baja(empleadoId, departamentoId, aCentavos(salario)));
+    }
+
+    @Override
+    public void registrarCambio(Long empleadoId, Long departamentoAnterior, BigDecimal salarioAnterior,
+                                Long departamentoNuevo, BigDecimal salarioNuevo) {
+        registrarBaja(empleadoId, departamentoAnterior, salarioAnterior);
+        registrarAlta(empleadoId, departamentoNuevo, salarioNuevo);
+    }
+
+    @Override
+    public void registrarBajaDepartamento(Long departamentoId) {
+        registrar(new BajaDepartamento(departamentoId));
+    }
+
+    @Override
+    public void registrarAjuste(Long departamentoId, BigDecimal salarioMin, BigDecimal salarioMax,
+                                BigDecimal factor, BigDecimal monto) {
+        Ajuste ajuste = new Ajuste(departamentoId,
+            salarioMin == null ? Long.MIN_VALUE : aCentavos(salarioMin),
+            salarioMax == null ? Long.MAX_VALUE : aCentavos(salarioMax),
+            factor, monto);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Se libera en afterCompletion (mismo hilo), con commit o con rollback
+            cargaYAjustes.readLock().lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    cargaYAjustes.readLock().unlock();
+                }
+            });
+        }
+        registrar(ajuste);
+    }
+
+    // La carga lee de la base primaria a propósito (sin readOnly): con una réplica atrasada se perderían
+    // cambios confirmados antes de empezar la carga, que no están en cambiosDuranteCarga
+    @Override
+    @PoolReportes
+    @Transactional
+    public int reconstruir() {
+        return cargar();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @PoolReportes
+    @Transactional
+    public void cargarAlIniciar() {
+        cargar();
+    }
+
+    private int cargar() {
+        cargaYAjustes.writeLock().lock();
+        try {
+            return cargarSinAjustesEnCurso();
+        } finally {
+            cargaYAjustes.writeLock().unlock();
+        }
+    }
+
+    private int cargarSinAjustesEnCurso() {
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteCarga = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // La lectura se hace sin lock: las consultas siguen respondiendo con el índice anterior
+        ArbolSalarios nuevoGlobal = new ArbolSalarios();
+        Map<Long, ArbolSalarios> nuevoPorDepartamento = new HashMap<>();
+        try (Stream<SalarioEmpleado> salarios = empleadoRepository.streamSalarios()) {
+            salarios.forEach(salario -> agregar(nuevoGlobal, nuevoPorDepartamento,
+                salario.id(), salario.departamentoId(), aCentavos(salario.salario())));
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteCarga = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            global = nuevoGlobal;
+            porDepartamento = nuevoPorDepartamento;
+            // Las operaciones son idempotentes: reaplicar un cambio que la lectura ya vio no lo duplica
+            cambiosDuranteCarga.forEach(this::aplicar);
+            cambiosDuranteCarga = null;
+            return global.tamanio();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Acumula el cambio en la transacción actual; sin transacción se aplica en el momento
+    private void registrar(Cambio cambio) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicarConfirmados(List.of(cambio));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Cambio> pendientes = (List<Cambio>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            List<Cambio> nuevos = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicarConfirmados(nuevos);
+                }
+
+                @Override
+                public void afterCompletion(int estado) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(IndiceSalariosServiceImpl.this);
+                }
+            });
+            pendientes = nuevos;
+        }
+        pendientes.add(cambio);
+    }
+
+    private void aplicarConfirmados(List<Cambio> cambios) {
+        lock.writeLock().lock();
+        try {
+            cambios.forEach(this::aplicar);
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.addAll(cambios);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void aplicar(Cambio cambio) {
+        switch (cambio) {
+            case Alta alta -> agregar(global, porDepartamento, alta.empleadoId(), alta.departamentoId(), alta.centavos());
+            case Baja baja -> {
+                global.eliminar(baja.centavos(), baja.empleadoId());
+                ArbolSalarios arbol = porDepartamento.get(baja.departamentoId());
+                if (arbol != null) {
+                    arbol.eliminar(baja.centavos(), baja.empleadoId());
+                }
+            }
+            case BajaDepartamento bajaDepartamento -> {
+                ArbolSalarios arbol = porDepartamento.remove(bajaDepartamento.departamentoId());
+                if (arbol != null) {
+                    arbol.recorrerDescendente((empleadoId, centavos) -> {
+                        global.eliminar(centavos, empleadoId);
+                        return true;
+                    });
+                }
+            }
+            case Ajuste ajuste -> {
+                if (ajuste.departamentoId() != null) {
+                    ajustar(porDepartamento.get(ajuste.departamentoId()), ajuste);
+                } else {
+                    porDepartamento.values().forEach(arbol -> ajustar(arbol, ajuste));
+                }
+            }
+        }
+    }
+
+    // Misma fórmula que EmpleadoRepository.ajustarSalarios: ROUND(salario * factor + monto, 2)
+    private void ajustar(ArbolSalarios arbol, Ajuste ajuste) {
+        if (arbol == null) {
+            return;
+        }
+        // Primero se juntan los afectados y después se modifican, para no recorrer un árbol que está cambiando
+        List<long[]> afectados = new ArrayList<>();
+        arbol.recorrerRango(ajuste.minimo(), ajuste.maximo(),
+            (empleadoId, centavos) -> afectados.add(new long[]{empleadoId, centavos}));
+        for (long[] afectado : afectados) {
+            long empleadoId = afectado[0];
+            long anterior = afectado[1];
+            long nuevo = aCentavos(deCentavos(anterior).multiply(ajuste.factor()).add(ajuste.monto()));
+            arbol.eliminar(anterior, empleadoId);
+            global.eliminar(anterior, empleadoId);
+            arbol.insertar(nuevo, empleadoId);
+            global.insertar(nuevo, empleadoId);
+        }
+    }
+
+    private static void agregar(ArbolSalarios global, Map<Long, ArbolSalarios> porDepartamento,
+                                long empleadoId, Long departamentoId, long centavos) {
+        global.insertar(centavos, empleadoId);
+        porDepartamento.computeIfAbsent(departamentoId, id -> new ArbolSalarios()).insertar(centavos, empleadoId);
+    }
+
+    private static int limitar(int limite) {
+        return Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    }
+
+    private static long aCentavos(BigDecimal salario) {
+        return salario.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal deCentavos(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+}
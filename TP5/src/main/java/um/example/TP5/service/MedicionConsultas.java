@@ -0,0 +1,107 @@
+package um.example.TP5.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contadores de lo que hace Hibernate durante un request: sentencias ejecutadas, tiempo en JDBC, entidades cargadas y
+ * colecciones inicializadas.
+ * <p>
+ * {@link DiagnosticoConsultasService} la asocia al hilo del request y los listeners de Hibernate
+ * (DiagnosticoConsultasConfig) la obtienen con {@link #actual()}; fuera de un request medido es null y no se cuenta
+ * nada. No es thread-safe: solo la usa el hilo del request.
+ */
+public final class MedicionConsultas {
+    // Sentencias lentas que se conservan por request; las demás solo se cuentan
+    static final int SENTENCIAS_LENTAS_MAXIMO = 10;
+
+    private static final ThreadLocal<MedicionConsultas> ACTUAL = new ThreadLocal<>();
+
+    private final long umbralLentaNanos;
+    private final List<SentenciaMedida> lentas = new ArrayList<>();
+    private int sentencias;
+    private int sentenciasLentas;
+    private long nanosJdbc;
+    private long entidadesCargadas;
+    private long coleccionesCargadas;
+    private String sqlActual;
+    private long inicioSentencia;
+
+    private MedicionConsultas(long umbralLentaNanos) {
+        this.umbralLentaNanos = umbralLentaNanos;
+    }
+
+    /** Medición del request que atiende el hilo actual, o null si no se está midiendo. */
+    public static MedicionConsultas actual() {
+        return ACTUAL.get();
+    }
+
+    static MedicionConsultas iniciar(long umbralLentaNanos) {
+        MedicionConsultas medicion = new MedicionConsultas(umbralLentaNanos);
+        ACTUAL.set(medicion);
+        return medicion;
+    }
+
+    static MedicionConsultas terminar() {
+        MedicionConsultas medicion = ACTUAL.get();
+        ACTUAL.remove();
+        return medicion;
+    }
+
+    /** Hibernate preparó una sentencia: las ejecuciones siguientes se atribuyen a ese SQL. */
+    public void prepararSentencia(String sql) {
+        sqlActual = sql;
+    }
+
+    public void iniciarSentencia() {
+        inicioSentencia = System.nanoTime();
+    }
+
+    /** Un batch JDBC cuenta como una sentencia: es un único viaje a la base de datos. */
+    public void terminarSentencia() {
+        long nanos = System.nanoTime() - inicioSentencia;
+        sentencias++;
+        nanosJdbc += nanos;
+        if (nanos >= umbralLentaNanos) {
+            sentenciasLentas++;
+            if (lentas.size() < SENTENCIAS_LENTAS_MAXIMO) {
+                lentas.add(new SentenciaMedida(sqlActual, nanos));
+            }
+        }
+    }
+
+    public void registrarEntidadCargada() {
+        entidadesCargadas++;
+    }
+
+    public void registrarColeccionCargada() {
+        coleccionesCargadas++;
+    }
+
+    int sentencias() {
+        return sentencias;
+    }
+
+    int sentenciasLentas() {
+        return sentenciasLentas;
+    }
+
+    long nanosJdbc() {
+        return nanosJdbc;
+    }
+
+    long entidadesCargadas() {
+        return entidadesCargadas;
+    }
+
+    long coleccionesCargadas() {
+        return coleccionesCargadas;
+    }
+
+    List<SentenciaMedida> lentas() {
+        return lentas;
+    }
+
+    record SentenciaMedida(String sql, long nanos) {
+    }
+}
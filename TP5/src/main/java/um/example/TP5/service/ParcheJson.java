@@ -0,0 +1,118 @@
+package um.example.TP5.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import um.example.TP5.exception.ParcheInvalidoException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Lee un documento JSON Merge Patch (RFC 7396) con los campos a modificar de una entidad.
+ * <p>
+ * Un campo ausente no se modifica y un campo en null se borra (los obligatorios no aceptan null). Los campos que no
+ * están entre los modificables, incluidos {@code id} y {@code version}, se rechazan en lugar de ignorarse.
+ * <p>
+ * Los services aplican el parche sobre la entidad cargada y dejan el UPDATE al dirty checking de Hibernate. Como las
+ * entidades tienen {@code @DynamicUpdate}, el UPDATE lleva solo las columnas que cambiaron. Si los valores enviados
+ * eran los actuales, no hay UPDATE ni cambio de versión (y la versión de la colección no se registra como cambiada).
+ */
+final class ParcheJson {
+    private final JsonNode documento;
+
+    private ParcheJson(JsonNode documento) {
+        this.documento = documento;
+    }
+
+    static ParcheJson de(JsonNode documento, Set<String> camposModificables) {
+        if (documento == null || !documento.isObject()) {
+            throw new ParcheInvalidoException("El cuerpo del PATCH debe ser un objeto JSON");
+        }
+        documento.fieldNames().forEachRemaining(campo -> {
+            if (!camposModificables.contains(campo)) {
+                throw new ParcheInvalidoException("Campo no modificable: " + campo);
+            }
+        });
+        return new ParcheJson(documento);
+    }
+
+    boolean contiene(String campo) {
+        return documento.has(campo);
+    }
+
+    String texto(String campo, boolean obligatorio) {
+        JsonNode valor = valor(campo, obligatorio);
+        if (valor == null) {
+            return null;
+        }
+        if (!valor.isTextual()) {
+            throw tipoInvalido(campo, "un texto");
+        }
+        return valor.textValue();
+    }
+
+    BigDecimal decimal(String campo, boolean obligatorio) {
+        JsonNode valor = valor(campo, obligatorio);
+        if (valor == null) {
+            return null;
+        }
+        if (!valor.isNumber()) {
+            throw tipoInvalido(campo, "un número");
+        }
+        return valor.decimalValue();
+    }
+
+    LocalDate fecha(String campo, boolean obligatorio) {
+        String valor = texto(campo, obligatorio);
+        try {
+            return valor == null ? null : LocalDate.parse(valor);
+        } catch (DateTimeParseException ex) {
+            throw tipoInvalido(campo, "una fecha (aaaa-mm-dd)");
+        }
+    }
+
+    /** ID de una relación enviada como {@code {"id": 1}}; null si el campo vino en null (se quita la relación). */
+    Long referencia(String campo) {
+        JsonNode valor = valor(campo, false);
+        return valor == null ? null : id(campo, valor);
+    }
+
+    /** IDs de una colección enviada como {@code [{"id": 1}, ...]}; vacío si el campo vino en null. */
+    Set<Long> referencias(String campo) {
+        JsonNode valor = valor(campo, false);
+        Set<Long> ids = new HashSet<>();
+        if (valor == null) {
+            return ids;
+        }
+        if (!valor.isArray()) {
+            throw tipoInvalido(campo, "una lista de objetos con id");
+        }
+        valor.forEach(elemento -> ids.add(id(campo, elemento)));
+        return ids;
+    }
+
+    private JsonNode valor(String campo, boolean obligatorio) {
+        JsonNode valor = documento.get(campo);
+        if (valor == null || valor.isNull()) {
+            if (obligatorio) {
+                throw new ParcheInvalidoException("El campo " + campo + " no puede ser null");
+            }
+            return null;
+        }
+        return valor;
+    }
+
+    private static Long id(String campo, JsonNode valor) {
+        JsonNode id = valor.get("id");
+        if (!valor.isObject() || id == null || !id.canConvertToLong()) {
+            throw tipoInvalido(campo, "un objeto con id");
+        }
+        return id.longValue();
+    }
+
+    private static ParcheInvalidoException tipoInvalido(String campo, String esperado) {
+        return new ParcheInvalidoException("El campo " + campo + " debe ser " + esperado);
+    }
+}
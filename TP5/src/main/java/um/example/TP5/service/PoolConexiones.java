@@ -0,0 +1,42 @@
+package um.example.TP5.service;
+
+/**
+ * Pool de conexiones que corresponde al trabajo del hilo actual.
+ * <p>
+ * El aspecto de {@link PoolReportes} (perfil {@code pools-separados}) lo cambia alrededor de cada método marcado y el
+ * DataSource enrutador (EnrutadorPoolDataSource) lo consulta con {@link #actual()} al pedir una conexión. Por
+ * defecto es {@link Pool#OLTP}.
+ */
+public final class PoolConexiones {
+
+    public enum Pool { OLTP, REPORTES }
+
+    private static final ThreadLocal<Pool> ACTUAL = new ThreadLocal<>();
+
+    private PoolConexiones() {
+    }
+
+    public static Pool actual() {
+        Pool pool = ACTUAL.get();
+        return pool == null ? Pool.OLTP : pool;
+    }
+
+    /**
+     * Cambia el pool del hilo actual.
+     * @return El pool anterior, para restaurarlo con {@link #restaurar(Pool)} al terminar
+     */
+    public static Pool usar(Pool pool) {
+        Pool anterior = actual();
+        ACTUAL.set(pool);
+        return anterior;
+    }
+
+    public static void restaurar(Pool anterior) {
+        // Sin referencias en el ThreadLocal de los hilos de Tomcat cuando se vuelve al valor por defecto
+        if (anterior == Pool.OLTP) {
+            ACTUAL.remove();
+        } else {
+            ACTUAL.set(anterior);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package um.example.TP5.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca los métodos de servicio de reportes y procesos masivos: lecturas sin límite de filas, exportaciones, cargas en
+ * lote y reconstrucciones. Con el perfil {@code pools-separados} sus transacciones toman la conexión del pool
+ * {@code reportes} en lugar del pool {@code oltp}, así una consulta pesada no deja sin conexiones a las búsquedas
+ * puntuales. Sin el perfil no tiene efecto.
+ * <p>
+ * Tiene que estar en el método que abre la transacción: si se llama dentro de una transacción ya abierta, usa la
+ * conexión de esa transacción.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PoolReportes {
+}
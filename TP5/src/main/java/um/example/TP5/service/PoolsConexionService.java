@@ -0,0 +1,8 @@
+package um.example.TP5.service;
+import um.example.TP5.dto.EstadoPool;
+
+import java.util.List;
+
+public interface PoolsConexionService {
+    List<EstadoPool> obtenerEstado();
+}
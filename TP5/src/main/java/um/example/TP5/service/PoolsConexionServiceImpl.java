@@ -0,0 +1,66 @@
+package um.example.TP5.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import um.example.TP5.dto.EstadoPool;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estado de cada pool de Hikari de la aplicación: uno con la configuración por defecto, {@code oltp} y
+ * {@code reportes} con el perfil pools-separados, o {@code primaria} y {@code replica} con el perfil replica.
+ * <p>
+ * Los contadores instantáneos salen del MXBean del pool y los tiempos de los timers que Spring Boot registra para
+ * cada HikariDataSource (hikaricp.connections.acquire y .usage). Los pools que todavía no abrieron conexiones no
+ * se informan.
+ */
+@Service
+public class PoolsConexionServiceImpl implements PoolsConexionService {
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final MeterRegistry meterRegistry;
+
+    public PoolsConexionServiceImpl(ObjectProvider<HikariDataSource> dataSources, MeterRegistry meterRegistry) {
+        this.dataSources = dataSources;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<EstadoPool> obtenerEstado() {
+        return dataSources.stream()
+            .map(this::aEstado)
+            .filter(Objects::nonNull)
+            .sorted(Comparator.comparing(EstadoPool::pool))
+            .toList();
+    }
+
+    private EstadoPool aEstado(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return null;
+        }
+        String nombre = dataSource.getPoolName();
+        Timer espera = meterRegistry.find("hikaricp.connections.acquire").tag("pool", nombre).timer();
+        Timer uso = meterRegistry.find("hikaricp.connections.usage").tag("pool", nombre).timer();
+        Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag("pool", nombre).counter();
+        return new EstadoPool(
+            nombre,
+            pool.getActiveConnections(),
+            pool.getIdleConnections(),
+            pool.getThreadsAwaitingConnection(),
+            dataSource.getMaximumPoolSize(),
+            espera == null ? 0 : espera.count(),
+            espera == null ? 0.0 : espera.mean(TimeUnit.MILLISECONDS),
+            espera == null ? 0.0 : espera.max(TimeUnit.MILLISECONDS),
+            uso == null ? 0.0 : uso.mean(TimeUnit.MILLISECONDS),
+            uso == null ? 0.0 : uso.max(TimeUnit.MILLISECONDS),
+            timeouts == null ? 0 : (long) timeouts.count());
+    }
+}
@@ -1,4 +1,6 @@
 package um.example.TP5.service;
+import com.fasterxml.jackson.databind.JsonNode;
+import um.example.TP5.dto.ProyectoDTO;
 import um.example.TP5.entity.Proyecto;
 
 import java.util.List;
@@ -6,9 +8,14 @@ import java.util.List;
 public interface ProyectoService {
     Proyecto guardar(Proyecto proyecto);
     Proyecto buscarPorId(Long id);
+    Long obtenerVersion(Long id);
     List<Proyecto> obtenerTodos();
+    List<ProyectoDTO> listar();
     Proyecto actualizar(Long id, Proyecto proyecto);
+    Proyecto actualizar(Long id, Proyecto proyecto, Long version);
+    Proyecto parchear(Long id, JsonNode parche, Long version);
     void eliminar(Long id);
     Proyecto buscarPorNombre(String nombre);
     List<Proyecto> buscarProyectosActivos();
+    List<ProyectoDTO> listarProyectosActivos();
 }
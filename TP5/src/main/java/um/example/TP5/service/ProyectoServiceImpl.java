@@ -1,44 +1,70 @@
 package um.example.TP5.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.dto.ProyectoDTO;
 import um.example.TP5.entity.Proyecto;
 import um.example.TP5.exception.ProyectoNoEncontradoException;
-import um.example.TP5.exception.ProyectoYaExisteException;
+import um.example.TP5.exception.VersionNoCoincideException;
 import um.example.TP5.repository.ProyectoRepository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
+@Observed(name = "tp5.servicio")
 @Transactional
 public class ProyectoServiceImpl implements ProyectoService {
+    private static final Set<String> CAMPOS_PARCHE = Set.of("nombre", "descripcion", "fechaInicio", "fechaFin");
+
     private final ProyectoRepository proyectoRepository;
+    private final VersionColeccionService versionColeccionService;
 
-    public ProyectoServiceImpl(ProyectoRepository proyectoRepository) {
+    public ProyectoServiceImpl(ProyectoRepository proyectoRepository, VersionColeccionService versionColeccionService) {
         this.proyectoRepository = proyectoRepository;
+        this.versionColeccionService = versionColeccionService;
     }
 
+    // Sin consulta previa del nombre: un duplicado lo rechaza la restricción UNIQUE (ver GlobalExceptionHandler)
     @Override
     public Proyecto guardar(Proyecto proyecto) {
-        if (proyectoRepository.findByNombre(proyecto.getNombre()).isPresent()) {
-            throw new ProyectoYaExisteException("El proyecto ya ha sido creado: " + proyecto.getNombre());
-        }
-        return proyectoRepository.save(proyecto);
+        Proyecto guardado = proyectoRepository.save(proyecto);
+        versionColeccionService.registrarCambio(VersionColeccionService.PROYECTOS);
+        return guardado;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Proyecto buscarPorId(Long id) {
         return proyectoRepository.findById(id)
             .orElseThrow(() -> new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Long obtenerVersion(Long id) {
+        return proyectoRepository.findVersionById(id)
+            .orElseThrow(() -> new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Proyecto> obtenerTodos() {
         return proyectoRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<ProyectoDTO> listar() {
+        return proyectoRepository.findAllDto();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Proyecto buscarPorNombre(String nombre) {
         return proyectoRepository.findByNombre(nombre)
             .orElseThrow(() -> new ProyectoNoEncontradoException("Proyecto no encontrado con nombre: " + nombre));
@@ -46,11 +72,50 @@ public class ProyectoServiceImpl implements ProyectoService {
 
     @Override
     public Proyecto actualizar(Long id, Proyecto proyecto) {
-        if (!proyectoRepository.existsById(id)) {
-            throw new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id);
+        return actualizar(id, proyecto, null);
+    }
+
+    @Override
+    public Proyecto actualizar(Long id, Proyecto proyecto, Long version) {
+        Long versionAnterior = version != null ? version : proyectoRepository.findVersionById(id)
+            .orElseThrow(() -> new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id));
+        if (proyectoRepository.actualizarVersionado(id, version, proyecto) == 0) {
+            if (version == null || !proyectoRepository.existsById(id)) {
+                throw new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id);
+            }
+            throw new VersionNoCoincideException("El proyecto " + id + " ya no está en la versión " + version);
         }
+        versionColeccionService.registrarCambio(VersionColeccionService.PROYECTOS);
         proyecto.setId(id);
-        return proyectoRepository.save(proyecto);
+        proyecto.setVersion(versionAnterior + 1);
+        return proyecto;
+    }
+
+    @Override
+    public Proyecto parchear(Long id, JsonNode parche, Long version) {
+        ParcheJson cambios = ParcheJson.de(parche, CAMPOS_PARCHE);
+        Proyecto proyecto = buscarPorId(id);
+        Long versionAnterior = proyecto.getVersion();
+        if (version != null && !version.equals(versionAnterior)) {
+            throw new VersionNoCoincideException("El proyecto " + id + " ya no está en la versión " + version);
+        }
+        if (cambios.contiene("nombre")) {
+            proyecto.setNombre(cambios.texto("nombre", true));
+        }
+        if (cambios.contiene("descripcion")) {
+            proyecto.setDescripcion(cambios.texto("descripcion", false));
+        }
+        if (cambios.contiene("fechaInicio")) {
+            proyecto.setFechaInicio(cambios.fecha("fechaInicio", false));
+        }
+        if (cambios.contiene("fechaFin")) {
+            proyecto.setFechaFin(cambios.fecha("fechaFin", false));
+        }
+        proyectoRepository.flush();
+        if (!Objects.equals(versionAnterior, proyecto.getVersion())) {
+            versionColeccionService.registrarCambio(VersionColeccionService.PROYECTOS);
+        }
+        return proyecto;
     }
 
     @Override
@@ -59,12 +124,20 @@ public class ProyectoServiceImpl implements ProyectoService {
             throw new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id);
         }
         proyectoRepository.deleteById(id);
+        versionColeccionService.registrarCambio(VersionColeccionService.PROYECTOS);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Proyecto> buscarProyectosActivos() {
         return proyectoRepository.findByFechaFinAfter(LocalDate.now());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProyectoDTO> listarProyectosActivos() {
+        return proyectoRepository.findDtoByFechaFinAfter(LocalDate.now());
+    }
+
 }
 
@@ -0,0 +1,10 @@
+package um.example.TP5.service;
+import um.example.TP5.entity.VersionColeccion;
+
+public interface VersionColeccionService {
+    String DEPARTAMENTOS = "departamentos";
+    String PROYECTOS = "proyectos";
+
+    VersionColeccion obtener(String coleccion);
+    void registrarCambio(String coleccion);
+}
@@ -0,0 +1,59 @@
+package um.example.TP5.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.entity.VersionColeccion;
+import um.example.TP5.repository.VersionColeccionRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Mantiene una fila por colección con su versión y la fecha de la última modificación.
+ * <p>
+ * {@link #registrarCambio(String)} debe llamarse dentro de la transacción que modifica la colección: el incremento
+ * se confirma o se descarta junto con el cambio, y como vive en la base lo ven todas las instancias (y la réplica).
+ * Las escrituras de una misma colección se serializan sobre esa fila hasta el commit; son poco frecuentes en
+ * departamentos y proyectos, que son las colecciones que se consultan de forma repetida.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class VersionColeccionServiceImpl implements VersionColeccionService {
+    static final List<String> COLECCIONES = List.of(DEPARTAMENTOS, PROYECTOS);
+
+    private final VersionColeccionRepository versionColeccionRepository;
+
+    public VersionColeccionServiceImpl(VersionColeccionRepository versionColeccionRepository) {
+        this.versionColeccionRepository = versionColeccionRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionColeccion obtener(String coleccion) {
+        return versionColeccionRepository.findById(coleccion)
+            .orElseGet(() -> new VersionColeccion(coleccion, 0L, Instant.EPOCH));
+    }
+
+    @Override
+    public void registrarCambio(String coleccion) {
+        Instant ahora = Instant.now();
+        if (versionColeccionRepository.incrementar(coleccion, ahora) == 0) {
+            versionColeccionRepository.save(new VersionColeccion(coleccion, 1L, ahora));
+        }
+    }
+
+    // En MySQL/PostgreSQL las filas las crea la migración V5; con H2 (ddl-auto) se crean acá
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void inicializar() {
+        Instant ahora = Instant.now();
+        for (String coleccion : COLECCIONES) {
+            if (!versionColeccionRepository.existsById(coleccion)) {
+                versionColeccionRepository.save(new VersionColeccion(coleccion, 0L, ahora));
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+-- Esquema inicial, equivalente al que generaba Hibernate con ddl-auto: update.
+-- En bases existentes no se ejecuta: Flyway toma esta versión como baseline (spring.flyway.baseline-version: 1).
+
+CREATE TABLE IF NOT EXISTS departamentos (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre      VARCHAR(100) NOT NULL,
+    descripcion VARCHAR(500),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_departamentos_nombre UNIQUE (nombre)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS empleados (
+    id                 BIGINT         NOT NULL AUTO_INCREMENT,
+    nombre             VARCHAR(100)   NOT NULL,
+    apellido           VARCHAR(100)   NOT NULL,
+    email              VARCHAR(255)   NOT NULL,
+    fecha_contratacion DATE           NOT NULL,
+    salario            DECIMAL(10, 2) NOT NULL,
+    departamento_id    BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_empleados_email UNIQUE (email),
+    CONSTRAINT fk_empleados_departamento FOREIGN KEY (departamento_id) REFERENCES departamentos (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS proyectos (
+    id           BIGINT        NOT NULL AUTO_INCREMENT,
+    nombre       VARCHAR(100)  NOT NULL,
+    descripcion  VARCHAR(1000),
+    fecha_inicio DATE,
+    fecha_fin    DATE,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS empleado_proyecto (
+    empleado_id BIGINT NOT NULL,
+    proyecto_id BIGINT NOT NULL,
+    PRIMARY KEY (empleado_id, proyecto_id),
+    CONSTRAINT fk_empleado_proyecto_empleado FOREIGN KEY (empleado_id) REFERENCES empleados (id),
+    CONSTRAINT fk_empleado_proyecto_proyecto FOREIGN KEY (proyecto_id) REFERENCES proyectos (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,14 @@
+-- Índices para los filtros de EmpleadoRepository y ProyectoRepository (ver @Table(indexes) en las entidades).
+-- departamentos.nombre ya tiene índice por su restricción UNIQUE.
+
+-- findBySalarioBetween / findDtoBySalarioBetween
+CREATE INDEX idx_empleados_salario ON empleados (salario);
+-- findByFechaContratacionAfter
+CREATE INDEX idx_empleados_fecha_contratacion ON empleados (fecha_contratacion);
+-- findByNombreDepartamento y promedio de salario por departamento (el índice cubre departamento_id + salario)
+CREATE INDEX idx_empleados_departamento_salario ON empleados (departamento_id, salario);
+-- Navegación proyecto -> empleados (la PK de la tabla de unión empieza por empleado_id)
+CREATE INDEX idx_empleado_proyecto_proyecto_id ON empleado_proyecto (proyecto_id);
+-- findByFechaInicio / findByFechaFinAfter
+CREATE INDEX idx_proyectos_fecha_inicio ON proyectos (fecha_inicio);
+CREATE INDEX idx_proyectos_fecha_fin ON proyectos (fecha_fin);
@@ -0,0 +1,4 @@
+-- Nombre de proyecto único, como el de departamento: la restricción reemplaza la consulta previa a cada alta.
+-- Si la base ya tiene proyectos con el mismo nombre hay que renombrarlos antes de aplicar esta migración.
+
+ALTER TABLE proyectos ADD CONSTRAINT uk_proyectos_nombre UNIQUE (nombre);
@@ -0,0 +1,15 @@
+-- Índices para los filtros de EmpleadoRepository y ProyectoRepository (ver @Table(indexes) en las entidades).
+-- departamentos.nombre ya tiene índice por su restricción UNIQUE.
+-- PostgreSQL no indexa las claves foráneas por su cuenta, por eso también se cubren departamento_id y proyecto_id.
+
+-- findBySalarioBetween / findDtoBySalarioBetween
+CREATE INDEX IF NOT EXISTS idx_empleados_salario ON empleados (salario);
+-- findByFechaContratacionAfter
+CREATE INDEX IF NOT EXISTS idx_empleados_fecha_contratacion ON empleados (fecha_contratacion);
+-- findByNombreDepartamento y promedio de salario por departamento (el índice cubre departamento_id + salario)
+CREATE INDEX IF NOT EXISTS idx_empleados_departamento_salario ON empleados (departamento_id, salario);
+-- Navegación proyecto -> empleados (la PK de la tabla de unión empieza por empleado_id)
+CREATE INDEX IF NOT EXISTS idx_empleado_proyecto_proyecto_id ON empleado_proyecto (proyecto_id);
+-- findByFechaInicio / findByFechaFinAfter
+CREATE INDEX IF NOT EXISTS idx_proyectos_fecha_inicio ON proyectos (fecha_inicio);
+CREATE INDEX IF NOT EXISTS idx_proyectos_fecha_fin ON proyectos (fecha_fin);
@@ -0,0 +1,17 @@
+-- Estadísticas de salario por departamento mantenidas por EstadisticaSalarioService.
+-- Se cargan con los datos existentes; después se pueden regenerar con POST /api/admin/estadisticas-salario/reconstruir.
+
+CREATE TABLE estadisticas_salario_departamento (
+    departamento_id BIGINT         NOT NULL,
+    cantidad        BIGINT         NOT NULL,
+    suma            NUMERIC(19, 2) NOT NULL,
+    minimo          NUMERIC(10, 2),
+    maximo          NUMERIC(10, 2),
+    PRIMARY KEY (departamento_id)
+);
+
+INSERT INTO estadisticas_salario_departamento (departamento_id, cantidad, suma, minimo, maximo)
+SELECT d.id, COUNT(e.id), COALESCE(SUM(e.salario), 0), MIN(e.salario), MAX(e.salario)
+FROM departamentos d
+LEFT JOIN empleados e ON e.departamento_id = d.id
+GROUP BY d.id;
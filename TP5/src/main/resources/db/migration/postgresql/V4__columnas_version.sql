@@ -0,0 +1,6 @@
+-- Columna de versión para el bloqueo optimista (@Version en las entidades; se expone como ETag en la API).
+-- Las filas existentes empiezan en la versión 0.
+
+ALTER TABLE departamentos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE empleados ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE proyectos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
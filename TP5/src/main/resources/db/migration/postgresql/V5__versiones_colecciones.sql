@@ -0,0 +1,12 @@
+-- Versión y fecha de última modificación de cada colección, mantenidas por VersionColeccionService.
+-- Permiten responder GET condicionales (If-None-Match / If-Modified-Since) sin volver a leer las filas.
+
+CREATE TABLE versiones_colecciones (
+    coleccion           VARCHAR(50)              NOT NULL,
+    version             BIGINT                   NOT NULL,
+    ultima_modificacion TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (coleccion)
+);
+
+INSERT INTO versiones_colecciones (coleccion, version, ultima_modificacion)
+VALUES ('departamentos', 0, CURRENT_TIMESTAMP), ('proyectos', 0, CURRENT_TIMESTAMP);
@@ -0,0 +1,47 @@
+package um.example.TP5;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica que /actuator/prometheus publique los histogramas de latencia por endpoint, por método de servicio, por
+ * consulta de repositorio y de espera por una conexión del pool.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class MetricasPrometheusIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void cuandoSeConsultaUnEndpoint_entoncesPrometheusPublicaSusHistogramas() throws Exception {
+        // Arrange + Act
+        mockMvc.perform(get("/api/empleados/salario").param("min", "1000").param("max", "90000"))
+            .andExpect(status().isOk());
+
+        // Assert
+        String endpoint = "(?s).*http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/empleados/salario\"[^}]*}.*";
+        String servicio = "(?s).*tp5_servicio_seconds_bucket\\{[^}]*method=\"listarPorRangoSalario\"[^}]*}.*";
+        String repositorio = "(?s).*spring_data_repository_invocations_seconds_bucket\\{[^}]*method=\"findDtoBySalarioBetween\"[^}]*}.*";
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(matchesPattern(endpoint)))
+            .andExpect(content().string(matchesPattern(servicio)))
+            .andExpect(content().string(matchesPattern(repositorio)))
+            .andExpect(content().string(containsString("tp5_servicio_seconds_max{")))
+            .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket{")));
+    }
+}
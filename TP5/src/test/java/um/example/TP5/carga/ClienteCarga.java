@@ -0,0 +1,78 @@
+package um.example.TP5.carga;
+
+import um.example.TP5.support.GeneradorDatos;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Estado de un cliente de la prueba de carga: su secuencia pseudoaleatoria y los IDs del dataset sobre los que opera.
+ * Lo usa un único virtual thread, así que no necesita sincronización.
+ */
+final class ClienteCarga {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    final SplittableRandom random;
+    private final URI base;
+    private final GeneradorDatos.Resultado datos;
+    private final String prefijoUnico;
+    private final LocalDate hoy = LocalDate.now();
+    private long altas;
+
+    ClienteCarga(URI base, GeneradorDatos.Resultado datos, SplittableRandom random, String prefijoUnico) {
+        this.base = base;
+        this.datos = datos;
+        this.random = random;
+        this.prefijoUnico = prefijoUnico;
+    }
+
+    HttpRequest.Builder get(String ruta) {
+        return solicitud(ruta).GET();
+    }
+
+    HttpRequest.Builder post(String ruta, String json) {
+        return solicitud(ruta)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    HttpRequest.Builder patch(String ruta, String json) {
+        return solicitud(ruta)
+            .header("Content-Type", "application/merge-patch+json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    long idEmpleado() {
+        return datos.idEmpleado(random.nextInt(datos.empleados()));
+    }
+
+    long idDepartamento() {
+        return datos.idDepartamento(random.nextInt(datos.departamentos()));
+    }
+
+    long idProyecto() {
+        return datos.idProyecto(random.nextInt(datos.proyectos()));
+    }
+
+    // Sufijo para nombres y emails que tienen que ser únicos (también entre ejecuciones sobre la misma base)
+    String unico() {
+        return prefijoUnico + "-" + (++altas);
+    }
+
+    long salario() {
+        return 30_000 + random.nextLong(90_000);
+    }
+
+    LocalDate fechaReciente() {
+        return hoy.minusDays(random.nextInt(365));
+    }
+
+    private HttpRequest.Builder solicitud(String ruta) {
+        return HttpRequest.newBuilder(base.resolve(ruta))
+            .timeout(TIMEOUT)
+            .header("Accept", "application/json");
+    }
+}
@@ -0,0 +1,45 @@
+package um.example.TP5.carga;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Ejecuta la misma prueba de carga contra el pool de hilos de plataforma de Tomcat (200 hilos) y contra el perfil
+ * {@code hilos-virtuales} (virtual threads con admisión limitada al pool de Hikari), cada una con su propia base H2,
+ * y compara throughput, latencias de cola y rechazos. Acepta las mismas opciones que {@link EjecutarPruebaCarga}; por
+ * defecto usa 400 clientes, el doble del pool de Tomcat, para que la diferencia entre los modos se vea.
+ */
+public final class CompararModosHilos {
+    private static final String CLIENTES_POR_DEFECTO = "--clientes=400";
+
+    private CompararModosHilos() {
+    }
+
+    public static void main(String[] args) {
+        String[] argumentos = Arrays.stream(args).anyMatch(argumento -> argumento.startsWith("--clientes="))
+            ? args
+            : Stream.concat(Stream.of(CLIENTES_POR_DEFECTO), Arrays.stream(args)).toArray(String[]::new);
+
+        ResultadoCarga plataforma = EjecutarPruebaCarga.ejecutar(argumentos,
+            "--spring.datasource.url=jdbc:h2:mem:carga-plataforma;DB_CLOSE_DELAY=-1",
+            "--spring.threads.virtual.enabled=false");
+        System.out.print("Hilos de plataforma: " + plataforma.reporte());
+
+        ResultadoCarga virtuales = EjecutarPruebaCarga.ejecutar(argumentos,
+            "--spring.datasource.url=jdbc:h2:mem:carga-virtuales;DB_CLOSE_DELAY=-1",
+            "--spring.profiles.include=hilos-virtuales");
+        System.out.print("Hilos virtuales: " + virtuales.reporte());
+
+        System.out.printf(Locale.ROOT, "%n%-20s %10s %8s %9s %9s %9s %9s %8s%n",
+            "Modo", "Req/s", "Error %", "p50 ms", "p99 ms", "p99.9 ms", "Máx ms", "503");
+        fila("Plataforma", plataforma.total());
+        fila("Virtuales+admisión", virtuales.total());
+    }
+
+    private static void fila(String modo, ResultadoCarga.Estadistica total) {
+        System.out.printf(Locale.ROOT, "%-20s %10.1f %8.2f %9.2f %9.2f %9.2f %9.2f %8d%n", modo, total.throughput(),
+            total.tasaError() * 100, total.p50Ms(), total.p99Ms(), total.p999Ms(), total.maximoMs(),
+            total.porEstado().getOrDefault(503, 0L));
+    }
+}
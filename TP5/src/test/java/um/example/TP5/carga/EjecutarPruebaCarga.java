@@ -0,0 +1,95 @@
+package um.example.TP5.carga;
+
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import um.example.TP5.Tp5Application;
+import um.example.TP5.service.EstadisticaSalarioService;
+import um.example.TP5.service.IndiceSalariosService;
+import um.example.TP5.support.GeneradorDatos;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Levanta la aplicación completa (Tomcat en un puerto libre, H2 en memoria), la puebla con {@link GeneradorDatos} y
+ * ejecuta una prueba de carga. Opciones ({@code --clave=valor}, valores por defecto de {@link EscenarioCarga}):
+ * <ul>
+ *   <li>{@code --clientes}, {@code --duracion} y {@code --calentamiento} (segundos), {@code --escrituras} (0 a 1)</li>
+ *   <li>{@code --peso-empleados}, {@code --peso-departamentos}, {@code --peso-proyectos}, {@code --semilla}</li>
+ *   <li>{@code --empleados}, {@code --departamentos}, {@code --proyectos}: tamaño del dataset</li>
+ * </ul>
+ * Todos los argumentos llegan también a Spring, por ejemplo {@code --server.port=8080} o
+ * {@code --spring.datasource.hikari.maximum-pool-size=20}.
+ */
+public final class EjecutarPruebaCarga {
+
+    private EjecutarPruebaCarga() {
+    }
+
+    public static void main(String[] args) {
+        System.out.print(ejecutar(args).reporte());
+    }
+
+    /**
+     * Levanta la aplicación, la puebla, ejecuta la prueba y la cierra.
+     * @param args Opciones de la prueba y argumentos de Spring.
+     * @param adicionales Argumentos de Spring que se aplican salvo que {@code args} los repita.
+     */
+    static ResultadoCarga ejecutar(String[] args, String... adicionales) {
+        DefaultApplicationArguments argumentos = new DefaultApplicationArguments(args);
+        EscenarioCarga porDefecto = EscenarioCarga.porDefecto();
+        EscenarioCarga escenario = new EscenarioCarga(
+            opcion(argumentos, "clientes", Integer::parseInt, porDefecto.clientes()),
+            Duration.ofSeconds(opcion(argumentos, "duracion", Long::parseLong, porDefecto.duracion().toSeconds())),
+            Duration.ofSeconds(opcion(argumentos, "calentamiento", Long::parseLong, porDefecto.calentamiento().toSeconds())),
+            opcion(argumentos, "escrituras", Double::parseDouble, porDefecto.proporcionEscrituras()),
+            opcion(argumentos, "peso-empleados", Integer::parseInt, porDefecto.pesoEmpleados()),
+            opcion(argumentos, "peso-departamentos", Integer::parseInt, porDefecto.pesoDepartamentos()),
+            opcion(argumentos, "peso-proyectos", Integer::parseInt, porDefecto.pesoProyectos()),
+            opcion(argumentos, "semilla", Long::parseLong, porDefecto.semilla()));
+        GeneradorDatos.Configuracion dataset = GeneradorDatos.Configuracion.de(escenario.semilla(),
+            opcion(argumentos, "empleados", Integer::parseInt, 100_000),
+            opcion(argumentos, "departamentos", Integer::parseInt, 1_000),
+            opcion(argumentos, "proyectos", Integer::parseInt, 2_000));
+
+        // Los argumentos de línea de comandos tienen prioridad sobre application.yml. Cada propiedad puede aparecer una
+        // sola vez: los adicionales reemplazan a estos valores y los de args a ambos
+        Map<String, String> porPropiedad = new LinkedHashMap<>();
+        Stream.concat(Stream.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"), Arrays.stream(adicionales))
+            .forEach(argumento -> porPropiedad.put(argumento.substring(2, argumento.indexOf('=')), argumento));
+        porPropiedad.keySet().removeIf(argumentos::containsOption);
+        String[] argumentosSpring = Stream.concat(porPropiedad.values().stream(), Arrays.stream(args))
+            .toArray(String[]::new);
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(Tp5Application.class)
+            .run(argumentosSpring)) {
+            GeneradorDatos.Resultado datos = new GeneradorDatos(contexto.getBean(DataSource.class)).generar(dataset);
+            contexto.getBean(EstadisticaSalarioService.class).reconstruir();
+            contexto.getBean(IndiceSalariosService.class).reconstruir();
+            System.out.printf("Dataset: %d empleados, %d departamentos, %d proyectos (%d ms)%n",
+                datos.empleados(), datos.departamentos(), datos.proyectos(), datos.duracion().toMillis());
+
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            return new PruebaCarga(URI.create("http://localhost:" + puerto), datos).ejecutar(escenario);
+        }
+    }
+
+    private static <T> T opcion(DefaultApplicationArguments argumentos, String nombre, Function<String, T> conversion,
+                                T porDefecto) {
+        List<String> valores = argumentos.getOptionValues(nombre);
+        return valores == null || valores.isEmpty() ? porDefecto : conversion.apply(valores.getFirst());
+    }
+}
@@ -0,0 +1,39 @@
+package um.example.TP5.carga;
+
+import java.time.Duration;
+
+/**
+ * Parámetros de una prueba de carga.
+ * @param clientes Clientes concurrentes (un virtual thread cada uno, sin pausa entre requests).
+ * @param duracion Tiempo medido.
+ * @param calentamiento Tiempo previo cuyos requests no se cuentan (JIT, pool de conexiones, cachés).
+ * @param proporcionEscrituras Fracción de requests que escriben (POST/PATCH), de 0 a 1.
+ * @param pesoEmpleados Peso relativo de /api/empleados en la mezcla.
+ * @param pesoDepartamentos Peso relativo de /api/departamentos en la mezcla.
+ * @param pesoProyectos Peso relativo de /api/proyectos en la mezcla.
+ * @param semilla Semilla de la secuencia de operaciones de cada cliente.
+ */
+public record EscenarioCarga(int clientes, Duration duracion, Duration calentamiento, double proporcionEscrituras,
+                             int pesoEmpleados, int pesoDepartamentos, int pesoProyectos, long semilla) {
+
+    public EscenarioCarga {
+        if (clientes < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un cliente");
+        }
+        if (duracion.isNegative() || duracion.isZero() || calentamiento.isNegative()) {
+            throw new IllegalArgumentException("Duración o calentamiento inválidos");
+        }
+        if (proporcionEscrituras < 0 || proporcionEscrituras > 1) {
+            throw new IllegalArgumentException("La proporción de escrituras debe estar entre 0 y 1");
+        }
+        if (pesoEmpleados < 0 || pesoDepartamentos < 0 || pesoProyectos < 0
+            || pesoEmpleados + pesoDepartamentos + pesoProyectos == 0) {
+            throw new IllegalArgumentException("Los pesos no pueden ser negativos ni sumar 0");
+        }
+    }
+
+    // 50 clientes, 30 s medidos tras 10 s de calentamiento, 20 % de escrituras, 60/20/20 entre los recursos
+    public static EscenarioCarga porDefecto() {
+        return new EscenarioCarga(50, Duration.ofSeconds(30), Duration.ofSeconds(10), 0.2, 6, 2, 2, 42);
+    }
+}
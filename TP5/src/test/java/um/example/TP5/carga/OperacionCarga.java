@@ -0,0 +1,142 @@
+package um.example.TP5.carga;
+
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Requests que arma la prueba de carga, agrupados por recurso y por lectura o escritura.
+ * Las escrituras crean filas con nombres y emails únicos y modifican con PATCH sin If-Match (último gana).
+ */
+public enum OperacionCarga {
+    EMPLEADO_POR_ID(Recurso.EMPLEADOS, false) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            return cliente.get("/api/empleados/" + cliente.idEmpleado());
+        }
+    },
+    EMPLEADOS_POR_RANGO_SALARIO(Recurso.EMPLEADOS, false) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            // Rango de 1.000 alrededor de la mediana de salarios del dataset: pocas decenas de filas por cada 10.000
+            long minimo = 40_000 + cliente.random.nextLong(40_000);
+            return cliente.get("/api/empleados/salario?min=" + minimo + "&max=" + (minimo + 1_000));
+        }
+    },
+    EMPLEADOS_PAGINA(Recurso.EMPLEADOS, false) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            return cliente.get("/api/empleados/pagina?tamanio=50");
+        }
+    },
+    ALTA_EMPLEADO(Recurso.EMPLEADOS, true) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            // version 0: referencia a un departamento existente, no uno nuevo
+            return cliente.post("/api/empleados", """
+                {"nombre":"Carga","apellido":"Cliente","email":"carga.%s@empresa.com","fechaContratacion":"%s",\
+                "salario":%d,"departamento":{"id":%d,"version":0}}"""
+                .formatted(cliente.unico(), cliente.fechaReciente(), cliente.salario(), cliente.idDepartamento()));
+        }
+    },
+    MODIFICACION_EMPLEADO(Recurso.EMPLEADOS, true) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            return cliente.patch("/api/empleados/" + cliente.idEmpleado(), "{\"salario\":" + cliente.salario() + "}");
+        }
+    },
+    DEPARTAMENTOS(Recurso.DEPARTAMENTOS, false) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            return cliente.get("/api/departamentos");
+        }
+    },
+    DEPARTAMENTO_POR_ID(Recurso.DEPARTAMENTOS, false) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            return cliente.get("/api/departamentos/" + cliente.idDepartamento());
+        }
+    },
+    ALTA_DEPARTAMENTO(Recurso.DEPARTAMENTOS, true) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            return cliente.post("/api/departamentos",
+                "{\"nombre\":\"Carga " + cliente.unico() + "\",\"descripcion\":\"Alta de la prueba de carga\"}");
+        }
+    },
+    MODIFICACION_DEPARTAMENTO(Recurso.DEPARTAMENTOS, true) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            return cliente.patch("/api/departamentos/" + cliente.idDepartamento(),
+                "{\"descripcion\":\"Modificado " + cliente.unico() + "\"}");
+        }
+    },
+    PROYECTOS_ACTIVOS(Recurso.PROYECTOS, false) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            return cliente.get("/api/proyectos/activos");
+        }
+    },
+    PROYECTO_POR_ID(Recurso.PROYECTOS, false) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            return cliente.get("/api/proyectos/" + cliente.idProyecto());
+        }
+    },
+    ALTA_PROYECTO(Recurso.PROYECTOS, true) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            return cliente.post("/api/proyectos", """
+                {"nombre":"Carga %s","descripcion":"Alta de la prueba de carga","fechaInicio":"%s","fechaFin":"%s"}"""
+                .formatted(cliente.unico(), cliente.fechaReciente(), cliente.fechaReciente().plusMonths(12)));
+        }
+    },
+    MODIFICACION_PROYECTO(Recurso.PROYECTOS, true) {
+        @Override
+        HttpRequest.Builder solicitud(ClienteCarga cliente) {
+            return cliente.patch("/api/proyectos/" + cliente.idProyecto(),
+                "{\"descripcion\":\"Modificado " + cliente.unico() + "\"}");
+        }
+    };
+
+    public enum Recurso { EMPLEADOS, DEPARTAMENTOS, PROYECTOS }
+
+    private static final Map<Recurso, List<OperacionCarga>> LECTURAS = agrupar(false);
+    private static final Map<Recurso, List<OperacionCarga>> ESCRITURAS = agrupar(true);
+
+    private final Recurso recurso;
+    private final boolean escritura;
+
+    OperacionCarga(Recurso recurso, boolean escritura) {
+        this.recurso = recurso;
+        this.escritura = escritura;
+    }
+
+    public Recurso getRecurso() {
+        return recurso;
+    }
+
+    public boolean isEscritura() {
+        return escritura;
+    }
+
+    abstract HttpRequest.Builder solicitud(ClienteCarga cliente);
+
+    static OperacionCarga elegir(Recurso recurso, boolean escritura, SplittableRandom random) {
+        List<OperacionCarga> grupo = (escritura ? ESCRITURAS : LECTURAS).get(recurso);
+        return grupo.get(random.nextInt(grupo.size()));
+    }
+
+    private static Map<Recurso, List<OperacionCarga>> agrupar(boolean escritura) {
+        Map<Recurso, List<OperacionCarga>> grupos = new EnumMap<>(Recurso.class);
+        for (Recurso recurso : Recurso.values()) {
+            grupos.put(recurso, Arrays.stream(values())
+                .filter(operacion -> operacion.recurso == recurso && operacion.escritura == escritura)
+                .toList());
+        }
+        return grupos;
+    }
+}
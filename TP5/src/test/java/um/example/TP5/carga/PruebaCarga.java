@@ -0,0 +1,161 @@
+package um.example.TP5.carga;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import um.example.TP5.support.GeneradorDatos;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prueba de carga HTTP contra un servidor levantado en la misma JVM (o en otra, con su URL).
+ * <p>
+ * Cada cliente es un virtual thread que envía requests sin pausa: elige el recurso según los pesos del escenario,
+ * escritura o lectura según la proporción de escrituras, y una operación de ese grupo al azar. Es un modelo cerrado
+ * (cada cliente espera su respuesta antes de enviar la siguiente), así que las latencias no incluyen la espera que
+ * tendría un request que llega mientras el servidor está saturado: para planificar capacidad conviene subir los
+ * clientes hasta que el p99 deja de ser aceptable y tomar el throughput de ese punto.
+ * <p>
+ * Las latencias se registran en histogramas HdrHistogram (3 dígitos significativos, hasta 1 minuto).
+ */
+public final class PruebaCarga {
+    // Código de estado registrado cuando el request no obtuvo respuesta (conexión rechazada, timeout)
+    public static final int SIN_RESPUESTA = 0;
+    private static final long LATENCIA_MAXIMA_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final URI base;
+    private final GeneradorDatos.Resultado datos;
+
+    /**
+     * @param base URL del servidor, por ejemplo http://localhost:8080.
+     * @param datos Dataset cargado en el servidor, del que se eligen los IDs a leer y modificar.
+     */
+    public PruebaCarga(URI base, GeneradorDatos.Resultado datos) {
+        this.base = base;
+        this.datos = datos;
+    }
+
+    public ResultadoCarga ejecutar(EscenarioCarga escenario) {
+        Map<OperacionCarga, Medicion> mediciones = new EnumMap<>(OperacionCarga.class);
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            mediciones.put(operacion, new Medicion());
+        }
+        String prefijoUnico = Long.toString(System.currentTimeMillis(), 36);
+        SplittableRandom semillas = new SplittableRandom(escenario.semilla());
+
+        long finCalentamiento = System.nanoTime() + escenario.calentamiento().toNanos();
+        long fin = finCalentamiento + escenario.duracion().toNanos();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                 .executor(hilos)
+                 .version(HttpClient.Version.HTTP_1_1)
+                 .connectTimeout(Duration.ofSeconds(10))
+                 .build()) {
+            List<ClienteCarga> clientes = new ArrayList<>();
+            for (int i = 0; i < escenario.clientes(); i++) {
+                clientes.add(new ClienteCarga(base, datos, semillas.split(), prefijoUnico + "-" + i));
+            }
+            // close() del executor espera a que todos los clientes terminen
+            try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (ClienteCarga cliente : clientes) {
+                    ejecutor.submit(() -> ejecutarCliente(http, cliente, escenario, mediciones, finCalentamiento, fin));
+                }
+            }
+        }
+        return resultado(escenario, mediciones);
+    }
+
+    private static void ejecutarCliente(HttpClient http, ClienteCarga cliente, EscenarioCarga escenario,
+                                        Map<OperacionCarga, Medicion> mediciones, long finCalentamiento, long fin) {
+        int pesoTotal = escenario.pesoEmpleados() + escenario.pesoDepartamentos() + escenario.pesoProyectos();
+        while (System.nanoTime() < fin) {
+            int sorteo = cliente.random.nextInt(pesoTotal);
+            OperacionCarga.Recurso recurso = sorteo < escenario.pesoEmpleados() ? OperacionCarga.Recurso.EMPLEADOS
+                : sorteo < escenario.pesoEmpleados() + escenario.pesoDepartamentos() ? OperacionCarga.Recurso.DEPARTAMENTOS
+                : OperacionCarga.Recurso.PROYECTOS;
+            boolean escritura = cliente.random.nextDouble() < escenario.proporcionEscrituras();
+            OperacionCarga operacion = OperacionCarga.elegir(recurso, escritura, cliente.random);
+
+            HttpRequest solicitud = operacion.solicitud(cliente).build();
+            long inicio = System.nanoTime();
+            int estado;
+            try {
+                estado = http.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException ex) {
+                estado = SIN_RESPUESTA;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (inicio >= finCalentamiento) {
+                mediciones.get(operacion).registrar(estado, System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    private static ResultadoCarga resultado(EscenarioCarga escenario, Map<OperacionCarga, Medicion> mediciones) {
+        double segundos = escenario.duracion().toNanos() / 1e9;
+        List<ResultadoCarga.Estadistica> operaciones = new ArrayList<>();
+        Histogram latenciasTotales = new Histogram(LATENCIA_MAXIMA_MICROS, 3);
+        Map<Integer, Long> estadosTotales = new TreeMap<>();
+        for (Map.Entry<OperacionCarga, Medicion> entrada : mediciones.entrySet()) {
+            Histogram latencias = entrada.getValue().latencias.getIntervalHistogram();
+            Map<Integer, Long> estados = new TreeMap<>();
+            entrada.getValue().porEstado.forEach((estado, cantidad) -> estados.put(estado, cantidad.sum()));
+            if (latencias.getTotalCount() > 0) {
+                operaciones.add(estadistica(entrada.getKey().name(), latencias, estados, segundos));
+                latenciasTotales.add(latencias);
+                estados.forEach((estado, cantidad) -> estadosTotales.merge(estado, cantidad, Long::sum));
+            }
+        }
+        return new ResultadoCarga(escenario.clientes(), escenario.duracion(), operaciones,
+            estadistica("TOTAL", latenciasTotales, estadosTotales, segundos));
+    }
+
+    private static ResultadoCarga.Estadistica estadistica(String nombre, Histogram latencias,
+                                                          Map<Integer, Long> porEstado, double segundos) {
+        long errores = porEstado.entrySet().stream()
+            .filter(entrada -> !exitoso(entrada.getKey()))
+            .mapToLong(Map.Entry::getValue)
+            .sum();
+        return new ResultadoCarga.Estadistica(nombre, latencias.getTotalCount(), errores, porEstado,
+            latencias.getTotalCount() / segundos,
+            milisegundos(latencias.getValueAtPercentile(50)), milisegundos(latencias.getValueAtPercentile(90)),
+            milisegundos(latencias.getValueAtPercentile(99)), milisegundos(latencias.getValueAtPercentile(99.9)),
+            milisegundos(latencias.getMaxValue()));
+    }
+
+    private static boolean exitoso(int estado) {
+        return (estado >= 200 && estado < 300) || estado == 304;
+    }
+
+    private static double milisegundos(long micros) {
+        return micros / 1000.0;
+    }
+
+    // Latencias y estados de una operación; la escriben todos los clientes a la vez
+    private static final class Medicion {
+        private final Recorder latencias = new Recorder(LATENCIA_MAXIMA_MICROS, 3);
+        private final Map<Integer, LongAdder> porEstado = new ConcurrentHashMap<>();
+
+        private void registrar(int estado, long nanos) {
+            latencias.recordValue(Math.min(LATENCIA_MAXIMA_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+            porEstado.computeIfAbsent(estado, clave -> new LongAdder()).increment();
+        }
+    }
+}
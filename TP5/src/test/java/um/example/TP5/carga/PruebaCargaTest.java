@@ -0,0 +1,66 @@
+package um.example.TP5.carga;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import um.example.TP5.service.EstadisticaSalarioService;
+import um.example.TP5.service.IndiceSalariosService;
+import um.example.TP5.support.GeneradorDatos;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ejecuta una prueba de carga corta contra el servidor embebido, sobre una base H2 propia.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.datasource.url=jdbc:h2:mem:prueba-carga;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+public class PruebaCargaTest {
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EstadisticaSalarioService estadisticaSalarioService;
+
+    @Autowired
+    private IndiceSalariosService indiceSalariosService;
+
+    @Test
+    void cuandoSeEjecutaUnaMezclaDeLecturasYEscrituras_entoncesSeReportanTodasLasOperacionesSinFallas() {
+        // Arrange
+        GeneradorDatos.Resultado datos = new GeneradorDatos(dataSource)
+            .generar(GeneradorDatos.Configuracion.de(1, 2000, 20, 30));
+        estadisticaSalarioService.reconstruir();
+        indiceSalariosService.reconstruir();
+        EscenarioCarga escenario = new EscenarioCarga(16, Duration.ofSeconds(3), Duration.ofMillis(500), 0.5, 1, 1, 1, 7);
+
+        // Act
+        ResultadoCarga resultado = new PruebaCarga(URI.create("http://localhost:" + puerto), datos).ejecutar(escenario);
+
+        // Assert
+        Set<String> operaciones = resultado.operaciones().stream()
+            .map(ResultadoCarga.Estadistica::nombre)
+            .collect(Collectors.toSet());
+        assertEquals(Arrays.stream(OperacionCarga.values()).map(Enum::name).collect(Collectors.toSet()), operaciones,
+            resultado.reporte());
+        assertTrue(resultado.total().throughput() > 0);
+        assertEquals(resultado.total().solicitudes(),
+            resultado.operaciones().stream().mapToLong(ResultadoCarga.Estadistica::solicitudes).sum());
+        assertEquals(0, resultado.total().fallasServidor(), resultado.reporte());
+        assertTrue(resultado.total().p50Ms() <= resultado.total().p99Ms());
+        assertTrue(resultado.total().p99Ms() <= resultado.total().maximoMs());
+    }
+}
@@ -0,0 +1,59 @@
+package um.example.TP5.carga;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resultado de una prueba de carga: una fila por operación ejecutada y el total.
+ * @param clientes Clientes concurrentes.
+ * @param duracion Tiempo medido (sin el calentamiento).
+ * @param operaciones Estadísticas de cada operación, en el orden de {@link OperacionCarga}.
+ * @param total Estadísticas de todos los requests juntos.
+ */
+public record ResultadoCarga(int clientes, Duration duracion, List<Estadistica> operaciones, Estadistica total) {
+
+    /**
+     * @param nombre Operación (o "TOTAL").
+     * @param solicitudes Requests completados en el tiempo medido.
+     * @param errores Requests sin respuesta o con un estado distinto de 2xx y 304.
+     * @param porEstado Requests por código de estado HTTP (0: sin respuesta, por ejemplo un timeout).
+     * @param throughput Requests por segundo.
+     * @param p50Ms Latencia p50, en milisegundos (igual para p90, p99 y p999).
+     * @param maximoMs Latencia máxima, en milisegundos.
+     */
+    public record Estadistica(String nombre, long solicitudes, long errores, Map<Integer, Long> porEstado,
+                              double throughput, double p50Ms, double p90Ms, double p99Ms, double p999Ms,
+                              double maximoMs) {
+        public double tasaError() {
+            return solicitudes == 0 ? 0 : (double) errores / solicitudes;
+        }
+
+        // Sin respuesta o 5xx: a diferencia de un 404 o un 409, indican un problema del servidor
+        public long fallasServidor() {
+            return porEstado.entrySet().stream()
+                .filter(entrada -> entrada.getKey() == PruebaCarga.SIN_RESPUESTA || entrada.getKey() >= 500)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        }
+    }
+
+    public String reporte() {
+        StringBuilder reporte = new StringBuilder(String.format(Locale.ROOT,
+            "%d clientes, %d s medidos%n%-28s %10s %10s %8s %9s %9s %9s %9s %9s  %s%n", clientes,
+            duracion.toSeconds(), "Operación", "Requests", "Req/s", "Error %", "p50 ms", "p90 ms", "p99 ms",
+            "p99.9 ms", "Máx ms", "Estados"));
+        for (Estadistica estadistica : operaciones) {
+            agregarFila(reporte, estadistica);
+        }
+        agregarFila(reporte, total);
+        return reporte.toString();
+    }
+
+    private static void agregarFila(StringBuilder reporte, Estadistica e) {
+        reporte.append(String.format(Locale.ROOT, "%-28s %10d %10.1f %8.2f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+            e.nombre(), e.solicitudes(), e.throughput(), e.tasaError() * 100, e.p50Ms(), e.p90Ms(), e.p99Ms(),
+            e.p999Ms(), e.maximoMs(), e.porEstado()));
+    }
+}
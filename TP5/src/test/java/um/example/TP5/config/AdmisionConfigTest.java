@@ -0,0 +1,141 @@
+package um.example.TP5.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica el perfil hilos-virtuales y el límite de requests concurrentes de FiltroAdmision.
+ */
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=7")
+@ActiveProfiles({"dev", "hilos-virtuales"})
+public class AdmisionConfigTest {
+    @Autowired
+    private FilterRegistrationBean<FiltroAdmision> filtroAdmision;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void cuandoSeActivaElPerfil_entoncesLosPermisosCoincidenConElPoolDeHikari() throws Exception {
+        // Arrange + Act
+        int tamanioPool = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+
+        // Assert
+        assertEquals(7, tamanioPool);
+        assertEquals(tamanioPool, filtroAdmision.getFilter().getPermisos());
+        assertEquals("true", environment.getProperty("spring.threads.virtual.enabled"));
+    }
+
+    @Test
+    void cuandoNoHayPermisosLibresDentroDeLaEspera_entoncesResponde503() throws Exception {
+        // Arrange
+        MeterRegistry registro = new SimpleMeterRegistry();
+        FiltroAdmision filtro = new FiltroAdmision(1, Duration.ofMillis(50), registro);
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> primero = CompletableFuture.supplyAsync(() ->
+            ejecutar(filtro, "/api/empleados", () -> {
+                enCurso.countDown();
+                esperar(liberar);
+            }));
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+
+        // Act
+        MockHttpServletResponse segundo = ejecutar(filtro, "/api/empleados", () -> { });
+        liberar.countDown();
+
+        // Assert
+        assertEquals(503, segundo.getStatus());
+        assertEquals("1", segundo.getHeader("Retry-After"));
+        assertEquals(200, primero.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(1.0, registro.get("tp5.admision.rechazados").counter().count());
+    }
+
+    @Test
+    void cuandoTerminaUnRequest_entoncesLiberaSuPermiso() {
+        // Arrange
+        MeterRegistry registro = new SimpleMeterRegistry();
+        FiltroAdmision filtro = new FiltroAdmision(1, Duration.ofMillis(50), registro);
+        ejecutar(filtro, "/api/empleados", () -> { });
+
+        // Act
+        MockHttpServletResponse respuesta = ejecutar(filtro, "/api/departamentos", () -> { });
+
+        // Assert
+        assertEquals(200, respuesta.getStatus());
+        assertEquals(0.0, registro.get("tp5.admision.en-curso").gauge().value());
+        assertEquals(0.0, registro.get("tp5.admision.rechazados").counter().count());
+    }
+
+    @Test
+    void cuandoLaRutaNoEsDeLaApi_entoncesNoConsumePermisos() throws Exception {
+        // Arrange
+        FiltroAdmision filtro = new FiltroAdmision(1, Duration.ofMillis(50), new SimpleMeterRegistry());
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> ocupado = CompletableFuture.supplyAsync(() ->
+            ejecutar(filtro, "/api/empleados", () -> {
+                enCurso.countDown();
+                esperar(liberar);
+            }));
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+
+        // Act
+        MockHttpServletResponse actuator = ejecutar(filtro, "/actuator/health", () -> { });
+        liberar.countDown();
+
+        // Assert
+        assertEquals(200, actuator.getStatus());
+        assertEquals(200, ocupado.get(5, TimeUnit.SECONDS).getStatus());
+    }
+
+    private static MockHttpServletResponse ejecutar(FiltroAdmision filtro, String uri, Runnable atencion) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                atencion.run();
+            }
+        };
+        try {
+            filtro.doFilter(request, response, new MockFilterChain(servlet));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+        return response;
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package um.example.TP5.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.CannotCreateTransactionException;
+import um.example.TP5.dto.EstadoPool;
+import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.Empleado;
+import um.example.TP5.service.DepartamentoService;
+import um.example.TP5.service.EmpleadoService;
+import um.example.TP5.service.PoolConexiones;
+import um.example.TP5.service.PoolsConexionService;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifica con el perfil pools-separados a qué pool va cada método de servicio y que agotar el pool de reportes no
+ * afecte a las consultas OLTP.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:pools-separados;DB_CLOSE_DELAY=-1",
+    "tp5.pools.reportes.maximum-pool-size=2",
+    "tp5.pools.reportes.connection-timeout=250"
+})
+@ActiveProfiles({"dev", "pools-separados"})
+public class PoolsSeparadosConfigTest {
+    @Autowired
+    private EmpleadoService empleadoService;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private PoolsConexionService poolsConexionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("reportesDataSource")
+    private DataSource reportesDataSource;
+
+    private Empleado empleado;
+
+    @BeforeEach
+    void setUp() {
+        Departamento departamento = new Departamento();
+        departamento.setNombre("Pools " + UUID.randomUUID());
+        departamento = departamentoService.guardar(departamento);
+
+        empleado = new Empleado();
+        empleado.setNombre("Martin");
+        empleado.setApellido("Navarro");
+        empleado.setEmail(UUID.randomUUID() + "@empresa.com");
+        empleado.setFechaContratacion(LocalDate.now());
+        empleado.setSalario(new BigDecimal("50000.00"));
+        empleado.setDepartamento(departamento);
+        empleado = empleadoService.guardar(empleado);
+    }
+
+    @Test
+    void cuandoSeLlamaUnMetodoDeReportes_entoncesUsaElPoolReportesYElRestoElPoolOltp() {
+        // Arrange
+        long reportesAntes = adquisiciones("reportes");
+        long oltpAntes = adquisiciones("oltp");
+
+        // Act
+        empleadoService.listar();
+        long reportesDespuesDeListar = adquisiciones("reportes");
+        empleadoService.buscarPorId(empleado.getId());
+
+        // Assert
+        assertEquals(reportesAntes + 1, reportesDespuesDeListar);
+        assertEquals(oltpAntes + 1, adquisiciones("oltp"));
+        assertEquals(reportesDespuesDeListar, adquisiciones("reportes"));
+        assertEquals(PoolConexiones.Pool.OLTP, PoolConexiones.actual());
+    }
+
+    @Test
+    void cuandoElPoolDeReportesEstaAgotado_entoncesLasConsultasOltpSiguenAtendiendose() throws Exception {
+        // Arrange
+        try (Connection primera = reportesDataSource.getConnection();
+             Connection segunda = reportesDataSource.getConnection()) {
+
+            // Act
+            Empleado encontrado = empleadoService.buscarPorId(empleado.getId());
+
+            // Assert
+            assertEquals(empleado.getEmail(), encontrado.getEmail());
+            assertThrows(CannotCreateTransactionException.class, () -> empleadoService.listar());
+            assertEquals(PoolConexiones.Pool.OLTP, PoolConexiones.actual());
+        }
+    }
+
+    @Test
+    void cuandoSeConsultaElEstadoDeLosPools_entoncesInformaCadaPoolConSusConexiones() throws Exception {
+        // Arrange
+        try (Connection retenida = reportesDataSource.getConnection()) {
+
+            // Act
+            List<EstadoPool> pools = poolsConexionService.obtenerEstado();
+
+            // Assert
+            assertEquals(List.of("oltp", "reportes"), pools.stream().map(EstadoPool::pool).toList());
+            EstadoPool reportes = pools.get(1);
+            assertEquals(2, reportes.maximo());
+            assertEquals(1, reportes.activas());
+        }
+    }
+
+    private long adquisiciones(String pool) {
+        Timer timer = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
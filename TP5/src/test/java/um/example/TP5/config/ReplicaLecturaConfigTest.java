@@ -0,0 +1,97 @@
+package um.example.TP5.config;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import um.example.TP5.dto.DepartamentoDTO;
+import um.example.TP5.entity.Departamento;
+import um.example.TP5.service.DepartamentoService;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Usa dos bases H2 en memoria distintas como primaria y réplica para verificar a cuál va cada transacción.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:primaria;DB_CLOSE_DELAY=-1",
+    "tp5.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+    "tp5.replica.username=sa",
+    "tp5.replica.password="
+})
+@ActiveProfiles({"dev", "replica"})
+public class ReplicaLecturaConfigTest {
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        // Hibernate solo genera el esquema en la primaria; en la réplica se crea a mano lo que usa el test
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE departamentos (id BIGINT PRIMARY KEY, nombre VARCHAR(100), descripcion VARCHAR(500))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.execute("DROP TABLE departamentos");
+    }
+
+    @Test
+    void testTransaccionDeSoloLecturaUsaLaReplica() {
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+
+        assertTrue(urlEnTransaccion(lectura).startsWith("jdbc:h2:mem:replica"));
+    }
+
+    @Test
+    void testTransaccionDeEscrituraUsaLaPrimaria() {
+        assertTrue(urlEnTransaccion(new TransactionTemplate(transactionManager)).startsWith("jdbc:h2:mem:primaria"));
+    }
+
+    @Test
+    void testConsultasDelServicioLeenDeLaReplicaYEscriturasVanALaPrimaria() {
+        replica.update("INSERT INTO departamentos (id, nombre, descripcion) VALUES (1, 'Solo en réplica', null)");
+
+        Departamento nuevo = new Departamento();
+        nuevo.setNombre("Solo en primaria");
+        departamentoService.guardar(nuevo);
+
+        try {
+            List<DepartamentoDTO> departamentos = departamentoService.listar();
+            assertEquals(1, departamentos.size());
+            assertEquals("Solo en réplica", departamentos.get(0).nombre());
+        } finally {
+            departamentoService.eliminar(nuevo.getId());
+        }
+    }
+
+    private String urlEnTransaccion(TransactionTemplate transaccion) {
+        return transaccion.execute(estado -> entityManager.unwrap(Session.class)
+            .doReturningWork(conexion -> conexion.getMetaData().getURL()));
+    }
+}
@@ -0,0 +1,121 @@
+package um.example.TP5.controller;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import um.example.TP5.dto.DiagnosticoConsultas;
+import um.example.TP5.dto.EstadisticaEndpointConsultas;
+import um.example.TP5.dto.EstadisticaRegionCache;
+import um.example.TP5.dto.EstadisticasCache;
+import um.example.TP5.dto.EstadoPool;
+import um.example.TP5.dto.RequestSobrePresupuesto;
+import um.example.TP5.service.DiagnosticoConsultasService;
+import um.example.TP5.service.EstadisticaSalarioService;
+import um.example.TP5.service.EstadisticasCacheService;
+import um.example.TP5.service.IndiceSalariosService;
+import um.example.TP5.service.PoolsConexionService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminController.class)
+public class AdminControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EstadisticasCacheService estadisticasCacheService;
+
+    @MockBean
+    private EstadisticaSalarioService estadisticaSalarioService;
+
+    @MockBean
+    private IndiceSalariosService indiceSalariosService;
+
+    @MockBean
+    private DiagnosticoConsultasService diagnosticoConsultasService;
+
+    @MockBean
+    private PoolsConexionService poolsConexionService;
+
+    @Test
+    void obtenerEstadisticasCache_debeRetornarRegiones() throws Exception {
+        EstadisticasCache estadisticas = new EstadisticasCache(true, List.of(
+            EstadisticaRegionCache.de("departamentos", 3, 1, 1, 1)));
+        BDDMockito.given(estadisticasCacheService.obtenerEstadisticas()).willReturn(estadisticas);
+
+        mockMvc.perform(get("/api/admin/cache"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.habilitada").value(true))
+            .andExpect(jsonPath("$.regiones[0].region").value("departamentos"))
+            .andExpect(jsonPath("$.regiones[0].aciertos").value(3))
+            .andExpect(jsonPath("$.regiones[0].tasaAciertos").value(0.75));
+    }
+
+    @Test
+    void reconstruirEstadisticasSalario_debeRetornarDepartamentosRecalculados() throws Exception {
+        BDDMockito.given(estadisticaSalarioService.reconstruir()).willReturn(4);
+
+        mockMvc.perform(post("/api/admin/estadisticas-salario/reconstruir"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.departamentos").value(4));
+    }
+
+    @Test
+    void reconstruirIndiceSalarios_debeRetornarEmpleadosIndexados() throws Exception {
+        BDDMockito.given(indiceSalariosService.reconstruir()).willReturn(120);
+
+        mockMvc.perform(post("/api/admin/indice-salarios/reconstruir"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.empleados").value(120));
+    }
+
+    @Test
+    void obtenerDiagnosticoConsultas_debeRetornarEndpointsYSospechosos() throws Exception {
+        DiagnosticoConsultas diagnostico = new DiagnosticoConsultas(true, 20, 200, 1.0, 2, 1,
+            List.of(EstadisticaEndpointConsultas.de("GET /api/departamentos", 2, 42, 31, 40, 30, 0, 12.5, 1)),
+            List.of(new RequestSobrePresupuesto("GET /api/departamentos", LocalDateTime.of(2024, 5, 1, 10, 0), 31, 30, 30, 9.0)),
+            List.of());
+        BDDMockito.given(diagnosticoConsultasService.obtenerDiagnostico()).willReturn(diagnostico);
+
+        mockMvc.perform(get("/api/admin/consultas"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.presupuestoSentencias").value(20))
+            .andExpect(jsonPath("$.requestsSobrePresupuesto").value(1))
+            .andExpect(jsonPath("$.endpoints[0].endpoint").value("GET /api/departamentos"))
+            .andExpect(jsonPath("$.endpoints[0].promedioSentencias").value(21.0))
+            .andExpect(jsonPath("$.sospechososNMasUno[0].sentencias").value(31));
+    }
+
+    @Test
+    void reiniciarDiagnosticoConsultas_debeRetornar204() throws Exception {
+        mockMvc.perform(delete("/api/admin/consultas"))
+            .andExpect(status().isNoContent());
+
+        BDDMockito.then(diagnosticoConsultasService).should().reiniciar();
+    }
+
+    @Test
+    void obtenerEstadoPools_debeRetornarCadaPool() throws Exception {
+        BDDMockito.given(poolsConexionService.obtenerEstado()).willReturn(List.of(
+            new EstadoPool("oltp", 3, 7, 0, 10, 1500, 0.2, 4.0, 12.5, 80.0, 0),
+            new EstadoPool("reportes", 4, 0, 2, 4, 40, 350.0, 900.0, 2500.0, 6000.0, 1)));
+
+        mockMvc.perform(get("/api/admin/pools"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].pool").value("oltp"))
+            .andExpect(jsonPath("$[0].activas").value(3))
+            .andExpect(jsonPath("$[1].pool").value("reportes"))
+            .andExpect(jsonPath("$[1].pendientes").value(2))
+            .andExpect(jsonPath("$[1].esperaPromedioMs").value(350.0))
+            .andExpect(jsonPath("$[1].timeouts").value(1));
+    }
+}
@@ -1,5 +1,6 @@
 package um.example.TP5.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,19 +8,35 @@ import org.mockito.BDDMockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import um.example.TP5.dto.DepartamentoDTO;
+import um.example.TP5.dto.EliminacionDepartamento;
+import um.example.TP5.dto.EstadoTarea;
 import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.VersionColeccion;
+import um.example.TP5.exception.TareaNoEncontradaException;
 import um.example.TP5.service.DepartamentoService;
+import um.example.TP5.service.EliminacionDepartamentoService;
+import um.example.TP5.service.VersionColeccionService;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +49,12 @@ public class DepartamentoControllerTest {
     @MockBean
     private DepartamentoService departamentoService;
 
+    @MockBean
+    private EliminacionDepartamentoService eliminacionDepartamentoService;
+
+    @MockBean
+    private VersionColeccionService versionColeccionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -49,12 +72,17 @@ public class DepartamentoControllerTest {
         departamento2.setId(2L);
         departamento2.setNombre("RRHH");
         departamento2.setDescripcion("Departamento de Recursos Humanos");
+
+        BDDMockito.given(versionColeccionService.obtener(VersionColeccionService.DEPARTAMENTOS))
+            .willReturn(new VersionColeccion(VersionColeccionService.DEPARTAMENTOS, 7L, Instant.parse("2024-05-01T10:00:00Z")));
     }
 
     @Test
     void obtenerTodos_debeRetornarLista() throws Exception {
-        List<Departamento> departamentos = Arrays.asList(departamento1, departamento2);
-        BDDMockito.given(departamentoService.obtenerTodos()).willReturn(departamentos);
+        List<DepartamentoDTO> departamentos = Arrays.asList(
+            new DepartamentoDTO(1L, departamento1.getNombre(), departamento1.getDescripcion()),
+            new DepartamentoDTO(2L, departamento2.getNombre(), departamento2.getDescripcion()));
+        BDDMockito.given(departamentoService.listar()).willReturn(departamentos);
 
         mockMvc.perform(get("/api/departamentos"))
             .andExpect(status().isOk())
@@ -63,6 +91,53 @@ public class DepartamentoControllerTest {
             .andExpect(jsonPath("$[1].nombre", is("RRHH")));
     }
 
+    @Test
+    void obtenerTodos_debeIncluirEtagYLastModifiedDeLaColeccion() throws Exception {
+        BDDMockito.given(departamentoService.listar()).willReturn(List.of());
+
+        mockMvc.perform(get("/api/departamentos"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"7-1714557600000\""))
+            .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Wed, 01 May 2024 10:00:00 GMT"));
+    }
+
+    @Test
+    void obtenerTodos_conIfNoneMatchVigente_debeResponder304SinListar() throws Exception {
+        mockMvc.perform(get("/api/departamentos").header(HttpHeaders.IF_NONE_MATCH, "\"7-1714557600000\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        verify(departamentoService, never()).listar();
+    }
+
+    @Test
+    void obtenerTodos_conIfNoneMatchViejo_debeRetornarLista() throws Exception {
+        BDDMockito.given(departamentoService.listar())
+            .willReturn(List.of(new DepartamentoDTO(1L, departamento1.getNombre(), departamento1.getDescripcion())));
+
+        mockMvc.perform(get("/api/departamentos").header(HttpHeaders.IF_NONE_MATCH, "\"6-1714557500000\""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.size()").value(1));
+    }
+
+    @Test
+    void obtenerTodos_conIfModifiedSincePosterior_debeResponder304() throws Exception {
+        mockMvc.perform(get("/api/departamentos").header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 May 2024 10:00:00 GMT"))
+            .andExpect(status().isNotModified());
+
+        verify(departamentoService, never()).listar();
+    }
+
+    @Test
+    void obtenerPorId_conIfNoneMatchVigente_debeResponder304SinCargarElDepartamento() throws Exception {
+        BDDMockito.given(departamentoService.obtenerVersion(1L)).willReturn(2L);
+
+        mockMvc.perform(get("/api/departamentos/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+            .andExpect(status().isNotModified());
+
+        verify(departamentoService, never()).buscarPorId(anyLong());
+    }
+
     @Test
     void obtenerPorId_debeRetornarDepartamento() throws Exception {
         BDDMockito.given(departamentoService.buscarPorId(1L)).willReturn(departamento1);
@@ -73,6 +148,19 @@ public class DepartamentoControllerTest {
             .andExpect(jsonPath("$.nombre").value("IT"));
     }
 
+    @Test
+    void parchearDepartamento_debeRetornarDepartamentoActualizado() throws Exception {
+        departamento1.setDescripcion(null);
+        BDDMockito.given(departamentoService.parchear(eq(1L), any(JsonNode.class), isNull())).willReturn(departamento1);
+
+        mockMvc.perform(patch("/api/departamentos/{id}", 1L)
+                .contentType("application/merge-patch+json")
+                .content("{\"descripcion\": null}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.nombre").value("IT"))
+            .andExpect(jsonPath("$.descripcion").doesNotExist());
+    }
+
     @Test
     void obtenerPorNombre_debeRetornarDepartamento() throws Exception {
         BDDMockito.given(departamentoService.buscarPorNombre("IT")).willReturn(departamento1);
@@ -97,7 +185,7 @@ public class DepartamentoControllerTest {
     @Test
     void actualizarDepartamento_debeRetornarDepartamentoActualizado() throws Exception {
         departamento1.setNombre("ITT");
-        BDDMockito.given(departamentoService.actualizar(anyLong(), any(Departamento.class))).willReturn(departamento1);
+        BDDMockito.given(departamentoService.actualizar(anyLong(), any(Departamento.class), isNull())).willReturn(departamento1);
 
         mockMvc.perform(put("/api/departamentos/{id}", 1L)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -112,4 +200,25 @@ public class DepartamentoControllerTest {
             .andExpect(status().isNoContent());
     }
 
+
+    @Test
+    void iniciarEliminacion_debeRetornarAcceptedConLaTarea() throws Exception {
+        EliminacionDepartamento tarea = new EliminacionDepartamento("t-1", 1L, EstadoTarea.PENDIENTE, 0, 0,
+            LocalDateTime.now(), null, null);
+        BDDMockito.given(eliminacionDepartamentoService.iniciar(1L)).willReturn(tarea);
+
+        mockMvc.perform(post("/api/departamentos/{id}/eliminacion", 1L))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.id", is("t-1")))
+            .andExpect(jsonPath("$.estado", is("PENDIENTE")));
+    }
+
+    @Test
+    void consultarEliminacion_inexistente_debeRetornarNotFound() throws Exception {
+        BDDMockito.given(eliminacionDepartamentoService.consultar("x"))
+            .willThrow(new TareaNoEncontradaException("Tarea de eliminación no encontrada: x"));
+
+        mockMvc.perform(get("/api/departamentos/eliminaciones/{tareaId}", "x"))
+            .andExpect(status().isNotFound());
+    }
 }
@@ -1,5 +1,6 @@
 package um.example.TP5.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,17 +8,41 @@ import org.mockito.BDDMockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import um.example.TP5.dto.AjusteSalarial;
+import um.example.TP5.dto.EmpleadoDTO;
+import um.example.TP5.dto.EstadisticaSalario;
+import um.example.TP5.dto.Pagina;
+import um.example.TP5.dto.PosicionSalario;
+import um.example.TP5.dto.ResultadoAjusteSalarial;
+import um.example.TP5.dto.SalarioIndexado;
+import um.example.TP5.dto.ResultadoItemLote;
+import um.example.TP5.dto.ResultadoLote;
 import um.example.TP5.entity.Empleado;
+import um.example.TP5.exception.AjusteSalarialInvalidoException;
+import um.example.TP5.exception.CursorInvalidoException;
+import um.example.TP5.exception.LoteInvalidoException;
+import um.example.TP5.exception.ParcheInvalidoException;
+import um.example.TP5.exception.VersionNoCoincideException;
 import um.example.TP5.service.EmpleadoService;
+import um.example.TP5.service.IndiceSalariosService;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -29,6 +54,9 @@ public class EmpleadoControllerTest {
     @MockBean
     private EmpleadoService empleadoService;
 
+    @MockBean
+    private IndiceSalariosService indiceSalariosService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -56,8 +84,8 @@ public class EmpleadoControllerTest {
 
     @Test
     void obtenerTodos_debeRetornarLista() throws Exception {
-        List<Empleado> empleados = Arrays.asList(empleado1, empleado2);
-        BDDMockito.given(empleadoService.obtenerTodos()).willReturn(empleados);
+        List<EmpleadoDTO> empleados = Arrays.asList(EmpleadoDTO.desde(empleado1), EmpleadoDTO.desde(empleado2));
+        BDDMockito.given(empleadoService.listar()).willReturn(empleados);
 
         mockMvc.perform(get("/api/empleados"))
             .andExpect(status().isOk())
@@ -90,7 +118,7 @@ public class EmpleadoControllerTest {
     @Test
     void actualizarEmpleado_debeRetornarEmpleadoActualizado() throws Exception {
         empleado1.setNombre("Martin Alberto");
-        BDDMockito.given(empleadoService.actualizar(anyLong(), any(Empleado.class))).willReturn(empleado1);
+        BDDMockito.given(empleadoService.actualizar(anyLong(), any(Empleado.class), isNull())).willReturn(empleado1);
 
         mockMvc.perform(put("/api/empleados/{id}", 1L)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -99,6 +127,102 @@ public class EmpleadoControllerTest {
             .andExpect(jsonPath("$.nombre").value("Martin Alberto"));
     }
 
+    @Test
+    void obtenerPorId_debeIncluirLaVersionComoEtag() throws Exception {
+        empleado1.setVersion(3L);
+        BDDMockito.given(empleadoService.buscarPorId(1L)).willReturn(empleado1);
+
+        mockMvc.perform(get("/api/empleados/{id}", 1L))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    void obtenerPorId_conIfNoneMatchVigente_debeResponder304SinCargarElEmpleado() throws Exception {
+        BDDMockito.given(empleadoService.obtenerVersion(1L)).willReturn(3L);
+
+        mockMvc.perform(get("/api/empleados/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+            .andExpect(status().isNotModified());
+
+        verify(empleadoService, never()).buscarPorId(anyLong());
+    }
+
+    @Test
+    void obtenerPorId_conIfNoneMatchViejo_debeRetornarElEmpleado() throws Exception {
+        empleado1.setVersion(4L);
+        BDDMockito.given(empleadoService.obtenerVersion(1L)).willReturn(4L);
+        BDDMockito.given(empleadoService.buscarPorId(1L)).willReturn(empleado1);
+
+        mockMvc.perform(get("/api/empleados/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+            .andExpect(jsonPath("$.nombre").value("Martin"));
+    }
+
+    @Test
+    void parchearEmpleado_conMergePatch_debeEnviarSoloLosCamposYLaVersion() throws Exception {
+        empleado1.setVersion(4L);
+        BDDMockito.given(empleadoService.parchear(eq(1L), any(JsonNode.class), eq(3L))).willAnswer(invocacion -> {
+            JsonNode parche = invocacion.getArgument(1);
+            assertEquals(1, parche.size());
+            assertEquals(0, new BigDecimal("60000.00").compareTo(parche.get("salario").decimalValue()));
+            return empleado1;
+        });
+
+        mockMvc.perform(patch("/api/empleados/{id}", 1L)
+                .contentType("application/merge-patch+json")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .content("{\"salario\": 60000.00}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void parchearEmpleado_conCampoNoModificable_debeRetornar400() throws Exception {
+        BDDMockito.given(empleadoService.parchear(eq(1L), any(JsonNode.class), isNull()))
+            .willThrow(new ParcheInvalidoException("Campo no modificable: id"));
+
+        mockMvc.perform(patch("/api/empleados/{id}", 1L)
+                .contentType("application/merge-patch+json")
+                .content("{\"id\": 2}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.mensaje").value("Campo no modificable: id"));
+    }
+
+    @Test
+    void actualizarEmpleado_conIfMatch_debeEnviarLaVersionYRetornarLaNueva() throws Exception {
+        empleado1.setVersion(4L);
+        BDDMockito.given(empleadoService.actualizar(eq(1L), any(Empleado.class), eq(3L))).willReturn(empleado1);
+
+        mockMvc.perform(put("/api/empleados/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(empleado1)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void actualizarEmpleado_conVersionDesactualizada_debeRetornarPreconditionFailed() throws Exception {
+        BDDMockito.given(empleadoService.actualizar(eq(1L), any(Empleado.class), eq(3L)))
+            .willThrow(new VersionNoCoincideException("El empleado 1 ya no está en la versión 3"));
+
+        mockMvc.perform(put("/api/empleados/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(empleado1)))
+            .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void actualizarEmpleado_conIfMatchDebil_debeRetornarPreconditionFailed() throws Exception {
+        mockMvc.perform(put("/api/empleados/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(empleado1)))
+            .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void eliminarEmpleado_debeRetornarNoContent() throws Exception {
         mockMvc.perform(delete("/api/empleados/{id}", 1L))
@@ -107,8 +231,8 @@ public class EmpleadoControllerTest {
 
     @Test
     void buscarPorDepartamento_debeRetornarLista() throws Exception {
-        List<Empleado> empleados = List.of(empleado1);
-        BDDMockito.given(empleadoService.buscarPorDepartamento("IT")).willReturn(empleados);
+        List<EmpleadoDTO> empleados = List.of(EmpleadoDTO.desde(empleado1));
+        BDDMockito.given(empleadoService.listarPorDepartamento("IT")).willReturn(empleados);
 
         mockMvc.perform(get("/api/empleados/departamento/{nombre}", "IT"))
             .andExpect(status().isOk())
@@ -118,8 +242,8 @@ public class EmpleadoControllerTest {
 
     @Test
     void buscarPorRangoSalario_debeRetornarLista() throws Exception {
-        List<Empleado> empleados = List.of(empleado2);
-        BDDMockito.given(empleadoService.buscarPorRangoSalario(new BigDecimal("50000"), new BigDecimal("70000")))
+        List<EmpleadoDTO> empleados = List.of(EmpleadoDTO.desde(empleado2));
+        BDDMockito.given(empleadoService.listarPorRangoSalario(new BigDecimal("50000"), new BigDecimal("70000")))
             .willReturn(empleados);
 
         mockMvc.perform(get("/api/empleados/salario")
@@ -139,4 +263,134 @@ public class EmpleadoControllerTest {
             .andExpect(status().isOk())
             .andExpect(content().string("55000"));
     }
+
+    @Test
+    void obtenerEstadisticaSalario_debeRetornarResumenDelDepartamento() throws Exception {
+        EstadisticaSalario estadistica = new EstadisticaSalario(1L, 2, new BigDecimal("110000"),
+            new BigDecimal("50000"), new BigDecimal("60000"), new BigDecimal("55000"));
+        BDDMockito.given(empleadoService.obtenerEstadisticaSalario(1L)).willReturn(estadistica);
+
+        mockMvc.perform(get("/api/empleados/salario/estadisticas/{departamentoId}", 1L))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.cantidad").value(2))
+            .andExpect(jsonPath("$.minimo").value(50000))
+            .andExpect(jsonPath("$.promedio").value(55000));
+    }
+
+    @Test
+    void obtenerMayoresSalarios_debeConsultarElIndice() throws Exception {
+        List<SalarioIndexado> mayores = List.of(new SalarioIndexado(2L, new BigDecimal("60000.00")));
+        BDDMockito.given(indiceSalariosService.obtenerMayoresSalarios(1L, 1)).willReturn(mayores);
+
+        mockMvc.perform(get("/api/empleados/salario/indice/mayores")
+                .param("cantidad", "1")
+                .param("departamentoId", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].empleadoId").value(2))
+            .andExpect(jsonPath("$[0].salario").value(60000.00));
+    }
+
+    @Test
+    void obtenerPosicionSalario_debeRetornarPosicionEnElDepartamento() throws Exception {
+        BDDMockito.given(indiceSalariosService.obtenerPosicion(1L, new BigDecimal("50000")))
+            .willReturn(new PosicionSalario(1L, new BigDecimal("50000"), 2, 3));
+
+        mockMvc.perform(get("/api/empleados/salario/indice/posicion/{departamentoId}", 1L).param("salario", "50000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.posicion").value(2))
+            .andExpect(jsonPath("$.total").value(3));
+    }
+
+    @Test
+    void obtenerPagina_debeRetornarContenidoYCursor() throws Exception {
+        Pagina<EmpleadoDTO> pagina = new Pagina<>(List.of(EmpleadoDTO.desde(empleado1)), "aWQ6MQ", true);
+        BDDMockito.given(empleadoService.obtenerPagina(null, 1)).willReturn(pagina);
+
+        mockMvc.perform(get("/api/empleados/pagina").param("tamanio", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.contenido.size()").value(1))
+            .andExpect(jsonPath("$.contenido[0].nombre").value("Martin"))
+            .andExpect(jsonPath("$.siguienteCursor").value("aWQ6MQ"))
+            .andExpect(jsonPath("$.hayMas").value(true));
+    }
+
+    @Test
+    void ajustarSalarios_debeRetornarCantidadDeActualizados() throws Exception {
+        AjusteSalarial ajuste = new AjusteSalarial(new BigDecimal("10"), null, 1L, null, null);
+        BDDMockito.given(empleadoService.ajustarSalarios(ajuste)).willReturn(new ResultadoAjusteSalarial(3));
+
+        mockMvc.perform(post("/api/empleados/salario/ajuste")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ajuste)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.empleadosActualizados").value(3));
+    }
+
+    @Test
+    void ajustarSalarios_invalido_debeRetornarBadRequest() throws Exception {
+        BDDMockito.given(empleadoService.ajustarSalarios(any()))
+            .willThrow(new AjusteSalarialInvalidoException("El ajuste necesita un porcentaje o un monto"));
+
+        mockMvc.perform(post("/api/empleados/salario/ajuste")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void obtenerPagina_conCursorInvalido_debeRetornarBadRequest() throws Exception {
+        BDDMockito.given(empleadoService.obtenerPagina("xyz", 50))
+            .willThrow(new CursorInvalidoException("Cursor de paginación inválido: xyz"));
+
+        mockMvc.perform(get("/api/empleados/pagina").param("cursor", "xyz"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportar_debeEscribirUnaLineaJsonPorEmpleado() throws Exception {
+        doAnswer(invocacion -> {
+            Consumer<EmpleadoDTO> consumidor = invocacion.getArgument(0);
+            consumidor.accept(EmpleadoDTO.desde(empleado1));
+            consumidor.accept(EmpleadoDTO.desde(empleado2));
+            return null;
+        }).when(empleadoService).exportarTodos(any());
+
+        String cuerpo = mockMvc.perform(get("/api/empleados/exportar"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals("Martin", objectMapper.readTree(lineas[0]).get("nombre").asText());
+        assertEquals("Martina", objectMapper.readTree(lineas[1]).get("nombre").asText());
+    }
+
+    @Test
+    void crearLote_debeRetornarReportePorElemento() throws Exception {
+        ResultadoLote resultado = ResultadoLote.de(List.of(
+            ResultadoItemLote.creado(0, 1L, empleado1.getEmail()),
+            ResultadoItemLote.rechazado(1, empleado2.getEmail(), "El email ya está registrado: " + empleado2.getEmail())));
+        BDDMockito.given(empleadoService.guardarLote(anyList())).willReturn(resultado);
+
+        mockMvc.perform(post("/api/empleados/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(empleado1, empleado2))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.creados").value(1))
+            .andExpect(jsonPath("$.rechazados").value(1))
+            .andExpect(jsonPath("$.items[0].estado").value("CREADO"))
+            .andExpect(jsonPath("$.items[1].estado").value("RECHAZADO"));
+    }
+
+    @Test
+    void crearLote_conElementoConId_debeRetornarBadRequest() throws Exception {
+        BDDMockito.given(empleadoService.guardarLote(anyList()))
+            .willThrow(new LoteInvalidoException("El elemento 0 del lote trae ID; el ID lo asigna la base de datos"));
+
+        mockMvc.perform(post("/api/empleados/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(empleado1))))
+            .andExpect(status().isBadRequest());
+    }
 }
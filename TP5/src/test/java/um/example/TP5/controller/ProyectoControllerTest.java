@@ -2,16 +2,24 @@ package um.example.TP5.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import um.example.TP5.dto.ProyectoDTO;
 import um.example.TP5.entity.Proyecto;
+import um.example.TP5.entity.VersionColeccion;
 import um.example.TP5.service.ProyectoService;
+import um.example.TP5.service.VersionColeccionService;
 
+import java.time.Instant;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
@@ -19,8 +27,12 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +44,9 @@ public class ProyectoControllerTest {
     @MockBean
     private ProyectoService proyectoService;
 
+    @MockBean
+    private VersionColeccionService versionColeccionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -53,12 +68,15 @@ public class ProyectoControllerTest {
         proyecto2.setDescripcion("Sistema de gestión externa");
         proyecto2.setFechaInicio(LocalDate.of(2024, 1, 1));
         proyecto2.setFechaFin(LocalDate.of(2024, 12, 31));
+
+        BDDMockito.given(versionColeccionService.obtener(VersionColeccionService.PROYECTOS))
+            .willReturn(new VersionColeccion(VersionColeccionService.PROYECTOS, 3L, Instant.parse("2024-05-01T10:00:00Z")));
     }
 
     @Test
     void obtenerTodos_debeRetornarLista() throws Exception {
-        List<Proyecto> proyectos = Arrays.asList(proyecto1, proyecto2);
-        BDDMockito.given(proyectoService.obtenerTodos()).willReturn(proyectos);
+        List<ProyectoDTO> proyectos = Arrays.asList(aDTO(proyecto1), aDTO(proyecto2));
+        BDDMockito.given(proyectoService.listar()).willReturn(proyectos);
 
         mockMvc.perform(get("/api/proyectos"))
             .andExpect(status().isOk())
@@ -67,6 +85,25 @@ public class ProyectoControllerTest {
             .andExpect(jsonPath("$[1].nombre", is("Proyecto Beta")));
     }
 
+    @Test
+    void obtenerTodos_conIfNoneMatchVigente_debeResponder304SinListar() throws Exception {
+        mockMvc.perform(get("/api/proyectos").header(HttpHeaders.IF_NONE_MATCH, "\"3-1714557600000\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3-1714557600000\""));
+
+        verify(proyectoService, never()).listar();
+    }
+
+    @Test
+    void obtenerPorId_conIfNoneMatchVigente_debeResponder304SinCargarElProyecto() throws Exception {
+        BDDMockito.given(proyectoService.obtenerVersion(1L)).willReturn(5L);
+
+        mockMvc.perform(get("/api/proyectos/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"5\""))
+            .andExpect(status().isNotModified());
+
+        verify(proyectoService, never()).buscarPorId(anyLong());
+    }
+
     @Test
     void obtenerPorId_debeRetornarProyecto() throws Exception {
         BDDMockito.given(proyectoService.buscarPorId(1L)).willReturn(proyecto1);
@@ -77,6 +114,19 @@ public class ProyectoControllerTest {
             .andExpect(jsonPath("$.nombre").value("Proyecto Alpha"));
     }
 
+    @Test
+    void crearProyecto_conNombreDuplicado_debeTraducirLaRestriccionA409() throws Exception {
+        SQLException duplicado = new SQLException("duplicate key value violates unique constraint \"uk_proyectos_nombre\"", "23505");
+        BDDMockito.given(proyectoService.guardar(any(Proyecto.class))).willThrow(new DataIntegrityViolationException(
+            "could not execute statement", new ConstraintViolationException("insert", duplicado, "uk_proyectos_nombre")));
+
+        mockMvc.perform(post("/api/proyectos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(proyecto1)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.mensaje").value("Ya existe un proyecto con ese nombre"));
+    }
+
     @Test
     void obtenerPorNombre_debeRetornarProyecto() throws Exception {
         BDDMockito.given(proyectoService.buscarPorNombre("Proyecto Alpha")).willReturn(proyecto1);
@@ -100,7 +150,7 @@ public class ProyectoControllerTest {
     @Test
     void actualizarProyecto_debeRetornarProyectoActualizado() throws Exception {
         proyecto1.setNombre("Proyecto Alfa");
-        BDDMockito.given(proyectoService.actualizar(anyLong(), any(Proyecto.class))).willReturn(proyecto1);
+        BDDMockito.given(proyectoService.actualizar(anyLong(), any(Proyecto.class), isNull())).willReturn(proyecto1);
 
         mockMvc.perform(put("/api/proyectos/{id}", 1L)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -117,8 +167,8 @@ public class ProyectoControllerTest {
 
     @Test
     void obtenerProyectosActivos_debeRetornarLista() throws Exception {
-        List<Proyecto> activos = List.of(proyecto1);
-        BDDMockito.given(proyectoService.buscarProyectosActivos()).willReturn(activos);
+        List<ProyectoDTO> activos = List.of(aDTO(proyecto1));
+        BDDMockito.given(proyectoService.listarProyectosActivos()).willReturn(activos);
 
         mockMvc.perform(get("/api/proyectos/activos"))
             .andExpect(status().isOk())
@@ -126,5 +176,8 @@ public class ProyectoControllerTest {
             .andExpect(jsonPath("$[0].nombre").value("Proyecto Alpha"));
     }
 
-
+    private static ProyectoDTO aDTO(Proyecto proyecto) {
+        return new ProyectoDTO(proyecto.getId(), proyecto.getNombre(), proyecto.getDescripcion(),
+            proyecto.getFechaInicio(), proyecto.getFechaFin());
+    }
 }
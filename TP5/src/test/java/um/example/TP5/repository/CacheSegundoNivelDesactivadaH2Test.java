@@ -0,0 +1,51 @@
+package um.example.TP5.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.entity.Departamento;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin el perfil cache, las entidades @Cacheable no deben guardarse en ninguna región
+@DataJpaTest
+@ActiveProfiles("dev")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CacheSegundoNivelDesactivadaH2Test {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @AfterEach
+    void tearDown() {
+        departamentoRepository.deleteAll();
+    }
+
+    @Test
+    void testSinPerfilCacheLaCacheDeSegundoNivelEstaDesactivada() {
+        SessionFactoryOptions opciones = entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions();
+
+        assertFalse(opciones.isSecondLevelCacheEnabled());
+        assertFalse(opciones.isQueryCacheEnabled());
+    }
+
+    @Test
+    void testSinPerfilCacheFindByIdNoGuardaElDepartamentoEnCache() {
+        Departamento departamento = new Departamento();
+        departamento.setNombre("IT");
+        departamento = departamentoRepository.save(departamento);
+
+        departamentoRepository.findById(departamento.getId());
+
+        assertFalse(entityManagerFactory.getCache().contains(Departamento.class, departamento.getId()));
+    }
+}
@@ -0,0 +1,78 @@
+package um.example.TP5.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.Proyecto;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin transacción de test: Hibernate no cachea entidades insertadas en la transacción en curso,
+// así que cada llamada al repositorio debe confirmar la suya.
+@DataJpaTest
+@ActiveProfiles({"dev", "cache"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CacheSegundoNivelH2Test {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        departamentoRepository.deleteAll();
+        proyectoRepository.deleteAll();
+    }
+
+    @Test
+    void testFindByIdDepartamentoSeResuelveDesdeLaCache() {
+        Departamento departamento = new Departamento();
+        departamento.setNombre("IT");
+        departamento = departamentoRepository.save(departamento);
+
+        departamentoRepository.findById(departamento.getId()); // carga desde la base y guarda en caché
+        statistics.clear();
+
+        assertTrue(departamentoRepository.findById(departamento.getId()).isPresent());
+        assertEquals(1, statistics.getCacheRegionStatistics("departamentos").getHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindByNombreProyectoUsaLaCacheDeConsultas() {
+        Proyecto proyecto = new Proyecto();
+        proyecto.setNombre("Proyecto Alpha");
+        proyecto.setFechaInicio(LocalDate.of(2024, 1, 1));
+        proyectoRepository.save(proyecto);
+
+        proyectoRepository.findByNombre("Proyecto Alpha");
+        statistics.clear();
+
+        assertTrue(proyectoRepository.findByNombre("Proyecto Alpha").isPresent());
+        assertEquals(1, statistics.getCacheRegionStatistics("proyectos-por-nombre").getHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
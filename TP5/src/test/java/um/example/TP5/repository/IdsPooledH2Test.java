@@ -0,0 +1,100 @@
+package um.example.TP5.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.config.AlineacionSecuenciasIds;
+import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.Empleado;
+import um.example.TP5.entity.Proyecto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles({"dev", "ids-pooled"})
+@Import(AlineacionSecuenciasIds.class)
+@Transactional
+public class IdsPooledH2Test {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+
+    @Autowired
+    private AlineacionSecuenciasIds alineacionSecuenciasIds;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testEntidadesUsanSecuenciasPooled() {
+        var metamodelo = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel();
+        for (Class<?> entidad : new Class<?>[]{Empleado.class, Departamento.class, Proyecto.class}) {
+            assertInstanceOf(SequenceStyleGenerator.class, metamodelo.getEntityDescriptor(entidad).getGenerator());
+        }
+    }
+
+    @Test
+    void testIdsAsignadosSinInsertInmediato() {
+        for (int i = 0; i < 3; i++) {
+            Empleado empleado = new Empleado();
+            empleado.setNombre("Martin");
+            empleado.setApellido("Navarro");
+            empleado.setEmail("empleado" + i + "@empresa.com");
+            empleado.setFechaContratacion(LocalDate.of(2024, 1, 1));
+            empleado.setSalario(new BigDecimal("50000"));
+            entityManager.persist(empleado);
+            // Con secuencia el ID ya está asignado aunque el INSERT todavía no se haya ejecutado
+            assertNotNull(empleado.getId());
+        }
+        entityManager.flush();
+
+        assertEquals(3, empleadoRepository.count());
+    }
+
+    // Contexto nuevo para que el optimizador no tenga un bloque reservado por otro test; sin transacción de test porque
+    // ALTER SEQUENCE confirma la transacción en curso en H2
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testSecuenciaAlineadaConFilasExistentesNoRepiteIds() throws Exception {
+        // Arrange: una base con filas insertadas con IDENTITY y la secuencia recién creada por Hibernate
+        jdbcTemplate.update("INSERT INTO empleados (id, nombre, apellido, email, fecha_contratacion, salario, version) "
+            + "VALUES (120, 'Martin', 'Navarro', 'existente@empresa.com', DATE '2024-01-01', 50000, 0)");
+        jdbcTemplate.execute("ALTER SEQUENCE empleados_seq RESTART WITH 1");
+        try {
+            // Act
+            alineacionSecuenciasIds.alinear();
+            Empleado nuevo = new Empleado();
+            nuevo.setNombre("Ana");
+            nuevo.setApellido("Lopez");
+            nuevo.setEmail("nuevo@empresa.com");
+            nuevo.setFechaContratacion(LocalDate.of(2024, 1, 1));
+            nuevo.setSalario(new BigDecimal("50000"));
+            nuevo = empleadoRepository.save(nuevo);
+
+            // Assert
+            assertEquals(121L, nuevo.getId());
+            assertEquals(2, empleadoRepository.count());
+        } finally {
+            empleadoRepository.deleteAllInBatch();
+        }
+    }
+}
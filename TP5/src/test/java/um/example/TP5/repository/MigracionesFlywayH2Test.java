@@ -0,0 +1,145 @@
+package um.example.TP5.repository;
+
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import um.example.TP5.config.V7RenombrarRestriccionesUnicas;
+import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.Empleado;
+import um.example.TP5.entity.Proyecto;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ejecuta las migraciones de MySQL y PostgreSQL sobre H2 en el modo de compatibilidad de cada motor.
+ */
+public class MigracionesFlywayH2Test {
+
+    @Test
+    void testMigracionesPostgresqlCreanEsquemaEIndices() {
+        DataSource dataSource = crearH2("PostgreSQL");
+
+        MigrateResult resultado = flyway(dataSource, "postgresql").migrate();
+
+        assertEquals(7, resultado.migrationsExecuted);
+        assertTrue(indicesEnBase(dataSource).containsAll(indicesDeclaradosEnEntidades()));
+        assertTrue(restriccionesUnicasEnBase(dataSource).containsAll(restriccionesUnicasDeclaradasEnEntidades()));
+    }
+
+    @Test
+    void testMigracionesMysqlCreanEsquemaEIndices() {
+        DataSource dataSource = crearH2("MySQL");
+
+        MigrateResult resultado = flyway(dataSource, "mysql").migrate();
+
+        assertEquals(7, resultado.migrationsExecuted);
+        assertTrue(indicesEnBase(dataSource).containsAll(indicesDeclaradosEnEntidades()));
+        assertTrue(restriccionesUnicasEnBase(dataSource).containsAll(restriccionesUnicasDeclaradasEnEntidades()));
+    }
+
+    @Test
+    void testBaseExistentePostgresqlSoloAplicaMigracionesPosterioresAlBaseline() throws Exception {
+        DataSource dataSource = crearH2("PostgreSQL");
+        // Simula una base creada antes de Flyway: el esquema que generaba Hibernate, sin historial de migraciones
+        try (Connection conexion = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(conexion, new ClassPathResource("db/esquema-hibernate/postgresql.sql"));
+        }
+        // H2 nombra las UNIQUE en línea a su manera (PostgreSQL: empleados_email_key); en ningún caso como las entidades
+        assertTrue(Collections.disjoint(restriccionesUnicasEnBase(dataSource), restriccionesUnicasDeclaradasEnEntidades()));
+
+        MigrateResult resultado = flyway(dataSource, "postgresql").migrate();
+
+        assertEquals(6, resultado.migrationsExecuted);
+        assertEquals("7", resultado.targetSchemaVersion);
+        assertTrue(indicesEnBase(dataSource).containsAll(indicesDeclaradosEnEntidades()));
+        assertEquals(restriccionesUnicasDeclaradasEnEntidades(), restriccionesUnicasEnBase(dataSource));
+    }
+
+    @Test
+    void testBaseExistenteMysqlRenombraLasRestriccionesGeneradasPorHibernate() throws Exception {
+        DataSource dataSource = crearH2("MySQL");
+        try (Connection conexion = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(conexion, new ClassPathResource("db/esquema-hibernate/mysql.sql"));
+        }
+        assertTrue(restriccionesUnicasEnBase(dataSource).containsAll(Set.of("uk6fdpo2x5rmegfbngre7xb3yoh", "uk9vfgma390a16fkev3ryhnyrvh")));
+
+        MigrateResult resultado = flyway(dataSource, "mysql").migrate();
+
+        assertEquals(6, resultado.migrationsExecuted);
+        assertEquals(restriccionesUnicasDeclaradasEnEntidades(), restriccionesUnicasEnBase(dataSource));
+    }
+
+    private static Flyway flyway(DataSource dataSource, String vendor) {
+        // Misma configuración que los perfiles mysql y postgres de application.yml (Spring Boot agrega la migración
+        // Java porque es un bean)
+        return Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration/" + vendor)
+            .javaMigrations(new V7RenombrarRestriccionesUnicas())
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .load();
+    }
+
+    private static DataSource crearH2(String modo) {
+        String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=" + modo + ";DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        return new DriverManagerDataSource(url, "sa", "");
+    }
+
+    private static Set<String> indicesEnBase(DataSource dataSource) {
+        List<String> nombres = new JdbcTemplate(dataSource).queryForList(
+            "SELECT LOWER(index_name) FROM information_schema.indexes WHERE table_schema = 'public'", String.class);
+        return new HashSet<>(nombres);
+    }
+
+    private static Set<String> restriccionesUnicasEnBase(DataSource dataSource) {
+        List<String> nombres = new JdbcTemplate(dataSource).queryForList(
+            "SELECT LOWER(constraint_name) FROM information_schema.table_constraints "
+                + "WHERE table_schema = 'public' AND constraint_type = 'UNIQUE'", String.class);
+        return new HashSet<>(nombres);
+    }
+
+    // GlobalExceptionHandler identifica los duplicados por estos nombres: tienen que coincidir con las migraciones
+    private static Set<String> restriccionesUnicasDeclaradasEnEntidades() {
+        return Stream.of(Empleado.class, Departamento.class, Proyecto.class)
+            .flatMap(entidad -> Arrays.stream(entidad.getAnnotation(Table.class).uniqueConstraints()))
+            .map(UniqueConstraint::name)
+            .collect(Collectors.toSet());
+    }
+
+    private static Set<String> indicesDeclaradosEnEntidades() {
+        Index[] joinTable;
+        try {
+            joinTable = Empleado.class.getDeclaredField("proyectos").getAnnotation(JoinTable.class).indexes();
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+        return Stream.of(
+                Empleado.class.getAnnotation(Table.class).indexes(),
+                Proyecto.class.getAnnotation(Table.class).indexes(),
+                joinTable)
+            .flatMap(Arrays::stream)
+            .map(Index::name)
+            .collect(Collectors.toSet());
+    }
+}
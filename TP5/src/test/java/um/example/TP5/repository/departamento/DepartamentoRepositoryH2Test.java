@@ -6,9 +6,11 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import um.example.TP5.dto.DepartamentoDTO;
 import um.example.TP5.entity.Departamento;
 import um.example.TP5.repository.DepartamentoRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -75,4 +77,12 @@ public class DepartamentoRepositoryH2Test {
         Optional<Departamento> eliminado = departamentoRepository.findById(departamento2.getId());
         assertTrue(eliminado.isEmpty());
     }
+
+    @Test
+    void testFindAllDto() {
+        List<DepartamentoDTO> resultados = departamentoRepository.findAllDto();
+        assertEquals(2, resultados.size());
+        assertEquals(departamento1.getId(), resultados.get(0).id());
+        assertEquals(departamento1.getNombre(), resultados.get(0).nombre());
+    }
 }
@@ -1,20 +1,27 @@
 package um.example.TP5.repository.empleado;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.dto.EmpleadoDTO;
 import um.example.TP5.entity.Departamento;
 import um.example.TP5.entity.Empleado;
+import um.example.TP5.entity.Proyecto;
 import um.example.TP5.repository.DepartamentoRepository;
 import um.example.TP5.repository.EmpleadoRepository;
+import um.example.TP5.repository.ProyectoRepository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,6 +35,12 @@ public class EmpleadoRepositoryH2Test {
     @Autowired
     private DepartamentoRepository departamentoRepository;
 
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private Departamento departamento;
     private Empleado empleado1;
     private Empleado empleado2;
@@ -135,4 +148,85 @@ public class EmpleadoRepositoryH2Test {
         Optional<Empleado> eliminado = empleadoRepository.findById(empleado2.getId());
         assertTrue(eliminado.isEmpty());
     }
+
+    @Test
+    void testFindDtoByIdGreaterThan() {
+        List<EmpleadoDTO> resultado = empleadoRepository.findDtoByIdGreaterThan(empleado1.getId(), Limit.of(10));
+        assertEquals(1, resultado.size());
+        assertEquals(empleado2.getId(), resultado.get(0).id());
+    }
+
+    @Test
+    void testFindAllDto() {
+        List<EmpleadoDTO> resultado = empleadoRepository.findAllDto();
+        assertEquals(List.of(empleado1.getId(), empleado2.getId()), resultado.stream().map(EmpleadoDTO::id).toList());
+        assertEquals(empleado1.getDepartamento().getNombre(), resultado.get(0).departamentoNombre());
+    }
+
+    @Test
+    void testFindDtoByNombreDepartamento() {
+        String nombreDepartamento = empleado1.getDepartamento().getNombre();
+        List<EmpleadoDTO> resultado = empleadoRepository.findDtoByNombreDepartamento(nombreDepartamento);
+        assertTrue(resultado.stream().allMatch(dto -> nombreDepartamento.equals(dto.departamentoNombre())));
+        assertTrue(resultado.stream().anyMatch(dto -> dto.id().equals(empleado1.getId())));
+    }
+
+    @Test
+    void testFindDtoBySalarioBetween() {
+        List<EmpleadoDTO> resultado = empleadoRepository.findDtoBySalarioBetween(
+            empleado1.getSalario(), empleado1.getSalario());
+        assertEquals(empleado1.getId(), resultado.get(0).id());
+    }
+
+    @Test
+    void testStreamAllByOrderByIdAsc() {
+        try (Stream<Empleado> resultado = empleadoRepository.streamAllByOrderByIdAsc()) {
+            List<Long> ids = resultado.map(Empleado::getId).toList();
+            assertEquals(List.of(empleado1.getId(), empleado2.getId()), ids);
+        }
+    }
+
+    @Test
+    void testFindAllConDepartamentoInicializaElDepartamento() {
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Empleado> resultado = empleadoRepository.findAllConDepartamento();
+
+        assertEquals(2, resultado.size());
+        assertTrue(resultado.stream().allMatch(e -> Hibernate.isInitialized(e.getDepartamento())));
+        assertFalse(Hibernate.isInitialized(resultado.get(0).getProyectos()));
+    }
+
+    @Test
+    void testFindCompletoByNombreDepartamentoInicializaProyectosSinDuplicar() {
+        Proyecto proyecto1 = new Proyecto();
+        proyecto1.setNombre("Proyecto Alpha");
+        Proyecto proyecto2 = new Proyecto();
+        proyecto2.setNombre("Proyecto Beta");
+        proyectoRepository.saveAll(List.of(proyecto1, proyecto2));
+        empleado1.getProyectos().addAll(List.of(proyecto1, proyecto2));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Empleado> resultado = empleadoRepository.findCompletoByNombreDepartamento("IT");
+
+        assertEquals(2, resultado.size());
+        assertTrue(resultado.stream().allMatch(e -> Hibernate.isInitialized(e.getProyectos())));
+        Empleado martin = resultado.stream().filter(e -> e.getId().equals(empleado1.getId())).findFirst().orElseThrow();
+        assertEquals(2, martin.getProyectos().size());
+    }
+
+    @Test
+    void testFindConDepartamentoBySalarioBetween() {
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Empleado> resultado = empleadoRepository.findConDepartamentoBySalarioBetween(
+            new BigDecimal("40000"), new BigDecimal("60000"));
+
+        assertEquals(1, resultado.size());
+        assertTrue(Hibernate.isInitialized(resultado.get(0).getDepartamento()));
+        assertEquals("IT", resultado.get(0).getDepartamento().getNombre());
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.dto.ProyectoDTO;
 import um.example.TP5.entity.Proyecto;
 import um.example.TP5.repository.ProyectoRepository;
 
@@ -95,4 +96,18 @@ public class ProyectoRepositoryH2Test {
         assertEquals(1, resultados.size());
         assertEquals("Proyecto Beta", resultados.get(0).getNombre());
     }
+
+    @Test
+    void testFindAllDto() {
+        List<ProyectoDTO> resultados = proyectoRepository.findAllDto();
+        assertEquals(2, resultados.size());
+        assertEquals("Proyecto Alpha", resultados.get(0).nombre());
+    }
+
+    @Test
+    void testFindDtoByFechaFinAfter() {
+        List<ProyectoDTO> resultados = proyectoRepository.findDtoByFechaFinAfter(LocalDate.of(2024, 12, 31));
+        assertEquals(1, resultados.size());
+        assertEquals(LocalDate.of(2025, 6, 30), resultados.get(0).fechaFin());
+    }
 }
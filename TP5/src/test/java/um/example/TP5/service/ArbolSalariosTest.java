@@ -0,0 +1,80 @@
+package um.example.TP5.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArbolSalariosTest {
+
+    // Par (centavos, id) con el mismo orden que el árbol, para comparar contra un TreeSet
+    private record Par(long centavos, long id) {
+    }
+
+    private static final Comparator<Par> ORDEN = Comparator.comparingLong(Par::centavos).thenComparingLong(Par::id);
+
+    @Test
+    void testRangoPosicionYMayores() {
+        ArbolSalarios arbol = new ArbolSalarios();
+        arbol.insertar(5_000_000, 1);
+        arbol.insertar(6_000_000, 2);
+        arbol.insertar(6_000_000, 3);
+        arbol.insertar(4_000_000, 4);
+
+        List<Long> enRango = new ArrayList<>();
+        arbol.recorrerRango(4_500_000, 6_000_000, (id, centavos) -> enRango.add(id));
+        assertEquals(List.of(1L, 2L, 3L), enRango);
+
+        assertEquals(0, arbol.contarMayores(6_000_000));
+        assertEquals(2, arbol.contarMayores(5_000_000));
+        assertEquals(1, arbol.contarMenores(5_000_000));
+
+        List<Long> mayores = new ArrayList<>();
+        arbol.recorrerDescendente((id, centavos) -> mayores.add(id) && mayores.size() < 2);
+        assertEquals(List.of(3L, 2L), mayores);
+    }
+
+    @Test
+    void testInsertarYEliminarSonIdempotentes() {
+        ArbolSalarios arbol = new ArbolSalarios();
+        assertTrue(arbol.insertar(100, 1));
+        assertFalse(arbol.insertar(100, 1));
+        assertEquals(1, arbol.tamanio());
+        assertTrue(arbol.eliminar(100, 1));
+        assertFalse(arbol.eliminar(100, 1));
+        assertEquals(0, arbol.tamanio());
+    }
+
+    @Test
+    void testOperacionesAleatoriasCoincidenConTreeSet() {
+        ArbolSalarios arbol = new ArbolSalarios();
+        TreeSet<Par> esperado = new TreeSet<>(ORDEN);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            Par par = new Par(random.nextInt(500) * 100L, random.nextInt(2_000));
+            if (random.nextInt(3) == 0) {
+                assertEquals(esperado.remove(par), arbol.eliminar(par.centavos(), par.id()));
+            } else {
+                assertEquals(esperado.add(par), arbol.insertar(par.centavos(), par.id()));
+            }
+        }
+
+        assertEquals(esperado.size(), arbol.tamanio());
+        for (long centavos = 0; centavos <= 50_000; centavos += 1_250) {
+            long limite = centavos;
+            assertEquals(esperado.stream().filter(p -> p.centavos() < limite).count(), arbol.contarMenores(centavos));
+        }
+        List<Par> enRango = new ArrayList<>();
+        arbol.recorrerRango(10_000, 20_000, (id, centavos) -> enRango.add(new Par(centavos, id)));
+        assertEquals(List.copyOf(esperado.subSet(new Par(10_000, Long.MIN_VALUE), new Par(20_000, Long.MAX_VALUE))), enRango);
+        List<Par> descendente = new ArrayList<>();
+        arbol.recorrerDescendente((id, centavos) -> descendente.add(new Par(centavos, id)));
+        assertEquals(List.copyOf(esperado.descendingSet()), descendente);
+    }
+}
@@ -1,27 +1,52 @@
 package um.example.TP5.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.Empleado;
+import um.example.TP5.entity.VersionColeccion;
 import um.example.TP5.exception.DepartamentoNoEncontradoException;
-import um.example.TP5.exception.DepartamentoYaExisteException;
+import um.example.TP5.exception.GlobalExceptionHandler;
 import um.example.TP5.repository.DepartamentoRepository;
+import um.example.TP5.repository.EmpleadoRepository;
+import um.example.TP5.support.ContadorSentencias;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
 @ActiveProfiles("test")
+@Import(ContadorSentencias.class)
 public class DepartamentoServiceIntegrationTest {
     @Autowired
     private DepartamentoService departamentoService;
     @Autowired
     private DepartamentoRepository departamentoRepository;
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+    @Autowired
+    private VersionColeccionService versionColeccionService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ContadorSentencias contadorSentencias;
 
     private Departamento crearDepartamentoDePrueba() {
         Departamento departamento = new Departamento();
@@ -33,11 +58,14 @@ public class DepartamentoServiceIntegrationTest {
     void cuandoGuardarDepartamentoNuevo_entoncesSePersisteCorrectamente() {
         // Arrange
         Departamento departamento = crearDepartamentoDePrueba();
+        contadorSentencias.reiniciar();
 
         // Act
         Departamento guardado = departamentoService.guardar(departamento);
+        entityManager.flush();
 
-        // Assert
+        // Assert: INSERT del departamento y de su fila de estadísticas, y el UPDATE de la versión de la colección
+        contadorSentencias.verificarMaximo(0, 2, 1, 0);
         assertNotNull(guardado.getId());
         assertEquals("IT", guardado.getNombre());
         assertTrue(departamentoRepository.existsById(guardado.getId()));
@@ -52,9 +80,13 @@ public class DepartamentoServiceIntegrationTest {
         // Act + Assert: intentar guardar otro con el mismo nombre debe fallar
         Departamento duplicado = crearDepartamentoDePrueba(); // mismo nombre "IT"
 
-        assertThrows(DepartamentoYaExisteException.class, () -> {
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class, () -> {
             departamentoService.guardar(duplicado);
         });
+        // GlobalExceptionHandler la traduce a la excepción de dominio (409)
+        ResponseEntity<Object> respuesta = new GlobalExceptionHandler().handleViolacionIntegridad(ex);
+        assertEquals(HttpStatus.CONFLICT, respuesta.getStatusCode());
+        assertEquals("Ya existe un departamento con ese nombre", ((Map<?, ?>) respuesta.getBody()).get("mensaje"));
     }
 
     //Buscar departamento por ID existente (debe devolver el departamento)
@@ -63,11 +95,15 @@ public class DepartamentoServiceIntegrationTest {
         // Arrange: crear y guardar un departamento
         Departamento departamento = crearDepartamentoDePrueba();
         departamento = departamentoRepository.save(departamento);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
 
         // Act: buscar departamento por el ID guardado
         Departamento resultado = departamentoService.buscarPorId(departamento.getId());
 
         // Assert: verificar que el departamento no sea nulo y que los IDs coincidan
+        contadorSentencias.verificarMaximo(1, 0, 0, 0);
         assertNotNull(resultado);
         assertEquals(departamento.getId(), resultado.getId());
     }
@@ -123,11 +159,15 @@ public class DepartamentoServiceIntegrationTest {
         depto2.setNombre("RRHH");
         depto2.setDescripcion("Departamento de Recursos Humanos");
         departamentoRepository.save(depto2);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
 
         // Act
         List<Departamento> departamentos = departamentoService.obtenerTodos();
 
         // Assert
+        contadorSentencias.verificarMaximo(1, 0, 0, 0);
         assertEquals(2, departamentos.size());
     }
 
@@ -137,14 +177,40 @@ public class DepartamentoServiceIntegrationTest {
         // Arrange
         Departamento departamento = crearDepartamentoDePrueba();
         departamento = departamentoRepository.save(departamento);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
 
         departamento.setDescripcion("Departamento de Tecno"); //cambio la descripcion
 
+        // Act
+        Long versionLeida = departamento.getVersion();
+        Departamento actualizado = departamentoService.actualizar(departamento.getId(), departamento, versionLeida);
+        entityManager.flush();
+
+        // Assert: con If-Match, el UPDATE versionado y el de la versión de la colección, sin leer la fila
+        contadorSentencias.verificarMaximo(0, 0, 2, 0);
+        assertEquals("Departamento de Tecno", actualizado.getDescripcion());
+        assertEquals(versionLeida + 1, actualizado.getVersion());
+        assertEquals(departamentoRepository.findVersionById(departamento.getId()).orElseThrow(), actualizado.getVersion());
+    }
+
+    //Caso éxito: sin If-Match se lee la versión antes del UPDATE para devolverla
+    @Test
+    void cuandoActualizarDepartamentoSinVersion_entoncesDevuelveLaVersionNueva() {
+        // Arrange
+        Departamento departamento = departamentoRepository.save(crearDepartamentoDePrueba());
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
+
         // Act
         Departamento actualizado = departamentoService.actualizar(departamento.getId(), departamento);
+        entityManager.flush();
 
         // Assert
-        assertEquals("Departamento de Tecno", actualizado.getDescripcion());
+        contadorSentencias.verificarMaximo(1, 0, 2, 0);
+        assertEquals(departamentoRepository.findVersionById(departamento.getId()).orElseThrow(), actualizado.getVersion());
     }
 
     //Caso error: departamento no existe, lanza excepción
@@ -164,15 +230,43 @@ public class DepartamentoServiceIntegrationTest {
     void cuandoEliminarDepartamentoExistente_entoncesSeElimina() throws DepartamentoNoEncontradoException {
         // Arrange
         Departamento departamento = crearDepartamentoDePrueba();
-        departamento = departamentoRepository.save(departamento);
+        departamento = departamentoService.guardar(departamento);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
 
         // Act
         departamentoService.eliminar(departamento.getId());
+        entityManager.flush();
 
-        // Assert
+        // Assert: un lote vacío y la transacción final (bloqueo, lote vacío y borrado de estadísticas y departamento)
+        contadorSentencias.verificarMaximo(3, 0, 1, 2);
         assertFalse(departamentoRepository.existsById(departamento.getId()));
     }
 
+    //Caso éxito: eliminar departamento con empleados (sentencias por conjunto, sin cargar los empleados)
+    @Test
+    void cuandoEliminarDepartamentoConEmpleados_entoncesSeEliminanSusEmpleados() {
+        // Arrange
+        Departamento departamento = departamentoService.guardar(crearDepartamentoDePrueba());
+        Empleado empleado = empleadoRepository.save(new Empleado(null, "Martin", "Navarro", "martin.navarro@empresa.com",
+            LocalDate.now(), new BigDecimal("50000.00"), departamento, new HashSet<>(), null));
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
+
+        // Act
+        departamentoService.eliminar(departamento.getId());
+        entityManager.flush();
+
+        // Assert: un lote con borrados por conjunto (asignaciones y empleados; Hibernate agrega al DELETE masivo de
+        // empleados el de su tabla de proyectos), uno vacío y la transacción final. La cantidad de sentencias depende
+        // de la cantidad de lotes, no de empleados; la fila de estadísticas se borra sin leerla antes
+        contadorSentencias.verificarMaximo(4, 0, 1, 5);
+        assertFalse(departamentoRepository.existsById(departamento.getId()));
+        assertFalse(empleadoRepository.existsById(empleado.getId()));
+    }
+
     //Caso error: eliminar departamento no existente
     @Test
     void cuandoEliminarDepartamentoNoExistente_entoncesLanzaExcepcion() {
@@ -181,4 +275,67 @@ public class DepartamentoServiceIntegrationTest {
             departamentoService.eliminar(9999L);
         });
     }
+
+    //Caso éxito: cada alta, modificación o baja avanza la versión de la colección (ETag de GET /api/departamentos)
+    @Test
+    void cuandoModificarDepartamentos_entoncesAvanzaLaVersionDeLaColeccion() {
+        // Arrange
+        long inicial = versionColeccionService.obtener(VersionColeccionService.DEPARTAMENTOS).getVersion();
+
+        // Act
+        Departamento guardado = departamentoService.guardar(crearDepartamentoDePrueba());
+        guardado.setDescripcion("Tecnología y sistemas");
+        departamentoService.actualizar(guardado.getId(), guardado);
+        departamentoService.eliminar(guardado.getId());
+
+        // Assert
+        VersionColeccion coleccion = versionColeccionService.obtener(VersionColeccionService.DEPARTAMENTOS);
+        assertEquals(inicial + 3, coleccion.getVersion());
+        assertNotNull(coleccion.getUltimaModificacion());
+    }
+
+    //Caso éxito: la versión de un departamento se consulta sin cargar la entidad
+    @Test
+    void cuandoObtenerVersion_entoncesRetornaLaVersionActual() {
+        // Arrange
+        Departamento guardado = departamentoService.guardar(crearDepartamentoDePrueba());
+
+        // Act + Assert
+        assertEquals(guardado.getVersion(), departamentoService.obtenerVersion(guardado.getId()));
+        assertThrows(DepartamentoNoEncontradoException.class, () -> departamentoService.obtenerVersion(9999L));
+    }
+
+    //Caso éxito: PATCH modifica solo los campos enviados; null borra la descripción
+    @Test
+    void cuandoParchearDescripcionEnNull_entoncesSeBorraYConservaElNombre() throws Exception {
+        // Arrange
+        Departamento departamento = departamentoService.guardar(crearDepartamentoDePrueba());
+        Long versionLeida = departamento.getVersion();
+        long versionColeccion = versionColeccionService.obtener(VersionColeccionService.DEPARTAMENTOS).getVersion();
+
+        // Act
+        Departamento actualizado = departamentoService.parchear(departamento.getId(),
+            objectMapper.readTree("{\"descripcion\": null}"), versionLeida);
+
+        // Assert
+        assertEquals("IT", actualizado.getNombre());
+        assertNull(actualizado.getDescripcion());
+        assertEquals(versionLeida + 1, actualizado.getVersion());
+        entityManager.clear(); // la versión de la colección se incrementa con un UPDATE directo
+        assertEquals(versionColeccion + 1, versionColeccionService.obtener(VersionColeccionService.DEPARTAMENTOS).getVersion());
+    }
+
+    //Caso error: PATCH con el nombre de otro departamento
+    @Test
+    void cuandoParchearConNombreDeOtroDepartamento_entoncesLanzaExcepcion() {
+        // Arrange
+        Departamento otro = crearDepartamentoDePrueba();
+        otro.setNombre("RRHH");
+        departamentoService.guardar(otro);
+        Long id = departamentoService.guardar(crearDepartamentoDePrueba()).getId();
+
+        // Act + Assert
+        assertThrows(DataIntegrityViolationException.class, () ->
+            departamentoService.parchear(id, objectMapper.readTree("{\"nombre\": \"RRHH\"}"), null));
+    }
 }
@@ -0,0 +1,131 @@
+package um.example.TP5.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.dto.DiagnosticoConsultas;
+import um.example.TP5.dto.EstadisticaEndpointConsultas;
+import um.example.TP5.entity.Empleado;
+import um.example.TP5.entity.Proyecto;
+import um.example.TP5.repository.EmpleadoRepository;
+import um.example.TP5.repository.ProyectoRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Presupuesto bajo y umbral 0: cualquier recorrido de colecciones lazy queda marcado y todas las sentencias son "lentas"
+@SpringBootTest(properties = {
+    "tp5.diagnostico-consultas.presupuesto-sentencias=2",
+    "tp5.diagnostico-consultas.umbral-sentencia-lenta-ms=0",
+    "tp5.diagnostico-consultas.muestreo-sentencias-lentas=1.0"
+})
+@Transactional
+@ActiveProfiles("test")
+public class DiagnosticoConsultasServiceIntegrationTest {
+    @Autowired
+    private DiagnosticoConsultasService diagnosticoConsultasService;
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        diagnosticoConsultasService.reiniciar();
+    }
+
+    // Tres empleados con un proyecto cada uno; devuelve sus IDs con el contexto de persistencia vacío
+    private List<Long> crearEmpleadosConProyectos() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Proyecto proyecto = new Proyecto();
+            proyecto.setNombre("Proyecto " + i);
+            proyecto.setFechaInicio(LocalDate.of(2024, 1, 1));
+            proyectoRepository.save(proyecto);
+
+            Empleado empleado = new Empleado();
+            empleado.setNombre("Empleado");
+            empleado.setApellido("N" + i);
+            empleado.setEmail("empleado" + i + "@empresa.com");
+            empleado.setFechaContratacion(LocalDate.now());
+            empleado.setSalario(new BigDecimal("50000.00"));
+            empleado.setProyectos(Set.of(proyecto));
+            ids.add(empleadoRepository.save(empleado).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    @Test
+    void cuandoUnRequestRecorreColeccionesLazy_entoncesSeMarcaComoPosibleNMasUno() {
+        // Arrange
+        List<Long> ids = crearEmpleadosConProyectos();
+
+        // Act: una consulta por los empleados y una más por los proyectos de cada uno
+        diagnosticoConsultasService.iniciarMedicion();
+        empleadoRepository.findAllById(ids).forEach(empleado -> empleado.getProyectos().size());
+        diagnosticoConsultasService.terminarMedicion("GET /prueba");
+
+        // Assert
+        DiagnosticoConsultas diagnostico = diagnosticoConsultasService.obtenerDiagnostico();
+        assertEquals(1, diagnostico.requestsMedidos());
+        assertEquals(1, diagnostico.requestsSobrePresupuesto());
+
+        EstadisticaEndpointConsultas endpoint = diagnostico.endpoints().get(0);
+        assertEquals("GET /prueba", endpoint.endpoint());
+        assertEquals(4, endpoint.sentencias());
+        assertEquals(3, endpoint.coleccionesCargadas());
+        assertEquals(6, endpoint.entidadesCargadas()); // 3 empleados y 3 proyectos
+
+        assertEquals("GET /prueba", diagnostico.sospechososNMasUno().get(0).endpoint());
+        assertEquals(4, diagnostico.sospechososNMasUno().get(0).sentencias());
+        assertEquals(4, diagnostico.sentenciasLentas().size());
+        assertTrue(diagnostico.sentenciasLentas().get(0).sql().toLowerCase().contains("empleado_proyecto"));
+    }
+
+    @Test
+    void cuandoNoSeEstaMidiendo_entoncesNoSeAcumulaNada() {
+        // Arrange
+        List<Long> ids = crearEmpleadosConProyectos();
+
+        // Act: sentencias fuera de una medición (por ejemplo, tareas en segundo plano)
+        empleadoRepository.findAllById(ids).forEach(empleado -> empleado.getProyectos().size());
+        diagnosticoConsultasService.terminarMedicion("GET /prueba");
+
+        // Assert
+        DiagnosticoConsultas diagnostico = diagnosticoConsultasService.obtenerDiagnostico();
+        assertEquals(0, diagnostico.requestsMedidos());
+        assertTrue(diagnostico.endpoints().isEmpty());
+        assertTrue(diagnostico.sentenciasLentas().isEmpty());
+    }
+
+    @Test
+    void cuandoSeReinicia_entoncesSeDescartaLoAcumulado() {
+        // Arrange
+        diagnosticoConsultasService.iniciarMedicion();
+        empleadoRepository.count();
+        diagnosticoConsultasService.terminarMedicion("GET /api/empleados");
+
+        // Act
+        diagnosticoConsultasService.reiniciar();
+
+        // Assert
+        DiagnosticoConsultas diagnostico = diagnosticoConsultasService.obtenerDiagnostico();
+        assertTrue(diagnostico.habilitado());
+        assertEquals(0, diagnostico.requestsMedidos());
+        assertTrue(diagnostico.endpoints().isEmpty());
+        assertTrue(diagnostico.sentenciasLentas().isEmpty());
+    }
+}
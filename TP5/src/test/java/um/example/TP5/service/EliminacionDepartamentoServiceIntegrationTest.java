@@ -0,0 +1,156 @@
+package um.example.TP5.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import um.example.TP5.dto.EliminacionDepartamento;
+import um.example.TP5.dto.EstadoTarea;
+import um.example.TP5.dto.SalarioIndexado;
+import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.Empleado;
+import um.example.TP5.entity.Proyecto;
+import um.example.TP5.exception.DepartamentoNoEncontradoException;
+import um.example.TP5.exception.TareaNoEncontradaException;
+import um.example.TP5.repository.DepartamentoRepository;
+import um.example.TP5.repository.EmpleadoRepository;
+import um.example.TP5.repository.EstadisticaSalarioDepartamentoRepository;
+import um.example.TP5.repository.ProyectoRepository;
+import um.example.TP5.support.ContadorSentencias;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin @Transactional: la eliminación corre en otro hilo y confirma cada lote por separado
+@SpringBootTest(properties = "tp5.eliminacion-departamentos.tamanio-lote=2")
+@ActiveProfiles("test")
+@Import(ContadorSentencias.class)
+public class EliminacionDepartamentoServiceIntegrationTest {
+    @Autowired
+    private EliminacionDepartamentoService eliminacionDepartamentoService;
+    @Autowired
+    private DepartamentoService departamentoService;
+    @Autowired
+    private EmpleadoService empleadoService;
+    @Autowired
+    private IndiceSalariosService indiceSalariosService;
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+    @Autowired
+    private EstadisticaSalarioDepartamentoRepository estadisticaRepository;
+    @Autowired
+    private ContadorSentencias contadorSentencias;
+
+    @AfterEach
+    void tearDown() {
+        empleadoRepository.deleteAll();
+        proyectoRepository.deleteAll();
+        departamentoRepository.deleteAll();
+        estadisticaRepository.deleteAll();
+        indiceSalariosService.reconstruir();
+    }
+
+    private Departamento crearDepartamento(String nombre) {
+        Departamento departamento = new Departamento();
+        departamento.setNombre(nombre);
+        return departamentoService.guardar(departamento);
+    }
+
+    private Empleado crearEmpleado(String email, Departamento departamento, Set<Proyecto> proyectos) {
+        Empleado empleado = new Empleado(null, "Martin", "Navarro", email, LocalDate.now(),
+            new BigDecimal("50000.00"), departamento, new HashSet<>(proyectos), null);
+        return empleadoService.guardar(empleado);
+    }
+
+    private EliminacionDepartamento esperarFin(String tareaId) throws InterruptedException {
+        for (int intento = 0; intento < 200; intento++) {
+            EliminacionDepartamento eliminacion = eliminacionDepartamentoService.consultar(tareaId);
+            if (eliminacion.estado() == EstadoTarea.COMPLETADA || eliminacion.estado() == EstadoTarea.FALLIDA) {
+                return eliminacion;
+            }
+            Thread.sleep(50);
+        }
+        return fail("La eliminación no terminó a tiempo");
+    }
+
+    @Test
+    void cuandoEliminarEnLotes_entoncesBorraEmpleadosAsignacionesYDepartamento() throws InterruptedException {
+        // Arrange: 5 empleados con lotes de 2 -> 3 lotes más la transacción final
+        Departamento departamento = crearDepartamento("IT");
+        Departamento otro = crearDepartamento("RRHH");
+        Proyecto proyecto = proyectoRepository.save(new Proyecto(null, "Portal", null,
+            LocalDate.now(), LocalDate.now().plusMonths(6), null, null));
+        for (int i = 0; i < 5; i++) {
+            crearEmpleado("empleado" + i + "@empresa.com", departamento, Set.of(proyecto));
+        }
+        Empleado queda = crearEmpleado("queda@empresa.com", otro, Set.of(proyecto));
+
+        // Act
+        EliminacionDepartamento iniciada = eliminacionDepartamentoService.iniciar(departamento.getId());
+        EliminacionDepartamento terminada = esperarFin(iniciada.id());
+
+        // Assert
+        assertEquals(EstadoTarea.COMPLETADA, terminada.estado());
+        assertEquals(5, terminada.empleadosEliminados());
+        assertEquals(4, terminada.lotes());
+        assertNotNull(terminada.fin());
+        assertFalse(departamentoRepository.existsById(departamento.getId()));
+        assertFalse(estadisticaRepository.existsById(departamento.getId()));
+        assertEquals(List.of(queda.getId()), empleadoRepository.findAll().stream().map(Empleado::getId).toList());
+        assertTrue(proyectoRepository.existsById(proyecto.getId()));
+        List<SalarioIndexado> indexados = indiceSalariosService.obtenerMayoresSalarios(null, 10);
+        assertEquals(List.of(queda.getId()), indexados.stream().map(SalarioIndexado::empleadoId).toList());
+    }
+
+    @Test
+    void cuandoEliminarSincronicamente_entoncesUsaLosMismosLotes() {
+        // Arrange: 5 empleados con lotes de 2
+        Departamento departamento = crearDepartamento("IT");
+        Proyecto proyecto = proyectoRepository.save(new Proyecto(null, "Portal", null,
+            LocalDate.now(), LocalDate.now().plusMonths(6), null, null));
+        for (int i = 0; i < 5; i++) {
+            crearEmpleado("empleado" + i + "@empresa.com", departamento, Set.of(proyecto));
+        }
+        contadorSentencias.reiniciar();
+
+        // Act
+        departamentoService.eliminar(departamento.getId());
+
+        // Assert: 3 lotes de 3 DELETE (asignaciones, empleados y la tabla de proyectos que agrega Hibernate) y la
+        // transacción final, que borra estadísticas y departamento
+        assertEquals(11, contadorSentencias.cantidad(ContadorSentencias.Tipo.DELETE));
+        assertFalse(departamentoRepository.existsById(departamento.getId()));
+        assertFalse(estadisticaRepository.existsById(departamento.getId()));
+        assertTrue(empleadoRepository.findAll().isEmpty());
+        assertTrue(indiceSalariosService.obtenerMayoresSalarios(null, 10).isEmpty());
+    }
+
+    @Test
+    void cuandoEliminarSincronicamenteDepartamentoInexistente_entoncesLanzaExcepcion() {
+        // Act & Assert
+        assertThrows(DepartamentoNoEncontradoException.class, () -> departamentoService.eliminar(9999L));
+    }
+
+    @Test
+    void cuandoIniciarConDepartamentoInexistente_entoncesLanzaExcepcion() {
+        // Act & Assert
+        assertThrows(DepartamentoNoEncontradoException.class, () -> eliminacionDepartamentoService.iniciar(9999L));
+    }
+
+    @Test
+    void cuandoConsultarTareaInexistente_entoncesLanzaExcepcion() {
+        // Act & Assert
+        assertThrows(TareaNoEncontradaException.class, () -> eliminacionDepartamentoService.consultar("no-existe"));
+    }
+}
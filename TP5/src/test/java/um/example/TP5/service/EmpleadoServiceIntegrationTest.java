@@ -1,27 +1,55 @@
 package um.example.TP5.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.dto.AjusteSalarial;
+import um.example.TP5.dto.EmpleadoDTO;
+import um.example.TP5.dto.EstadoItemLote;
+import um.example.TP5.dto.Pagina;
+import um.example.TP5.dto.ResultadoLote;
 import um.example.TP5.entity.Departamento;
 import um.example.TP5.entity.Empleado;
-import um.example.TP5.exception.EmailDuplicadoException;
+import um.example.TP5.entity.Proyecto;
+import um.example.TP5.exception.AjusteSalarialInvalidoException;
+import um.example.TP5.exception.CursorInvalidoException;
+import um.example.TP5.exception.GlobalExceptionHandler;
 import um.example.TP5.exception.EmpleadoNoEncontradoException;
+import um.example.TP5.exception.LoteInvalidoException;
+import um.example.TP5.exception.ParcheInvalidoException;
+import um.example.TP5.exception.ProyectoNoEncontradoException;
+import um.example.TP5.exception.VersionNoCoincideException;
 import um.example.TP5.repository.DepartamentoRepository;
 import um.example.TP5.repository.EmpleadoRepository;
+import um.example.TP5.repository.PlanCarga;
+import um.example.TP5.repository.ProyectoRepository;
+import um.example.TP5.support.ContadorSentencias;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
 @ActiveProfiles("test")
+@Import(ContadorSentencias.class)
 public class EmpleadoServiceIntegrationTest {
     @Autowired
     private EmpleadoService empleadoService;
@@ -29,6 +57,14 @@ public class EmpleadoServiceIntegrationTest {
     private EmpleadoRepository empleadoRepository;
     @Autowired
     private DepartamentoRepository departamentoRepository;
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ContadorSentencias contadorSentencias;
 
     private Empleado crearEmpleadoDePrueba() {
         Empleado empleado = new Empleado();
@@ -55,12 +91,15 @@ public class EmpleadoServiceIntegrationTest {
 
         Empleado empleado = crearEmpleadoDePrueba();
         empleado.setDepartamento(departamento); // Se le asigna el departamento creado.
+        contadorSentencias.reiniciar();
 
         // Act
         // Se llama al metodo del servicio para guardar el empleado en la base de datos.
         Empleado empleadoGuardado = empleadoService.guardar(empleado);
+        entityManager.flush();
 
         // Assert
+        contadorSentencias.verificarMaximo(3, 2, 0, 0);
         assertNotNull(empleadoGuardado.getId());
         assertEquals("martin.navarro@empresa.com", empleadoGuardado.getEmail());
         assertTrue(empleadoRepository.existsById(empleadoGuardado.getId()));
@@ -89,12 +128,16 @@ public class EmpleadoServiceIntegrationTest {
         // Creamos otro empleado con el mismo email
         Empleado empleadoDuplicado = crearEmpleadoDePrueba();
 
-        // Act + Assert: intentar guardar el empleado duplicado debe lanzar excepción
-        //Usamos assertThrows para asegurarnos que ese llamado lance exactamente la excepción EmailDuplicadoException.
+        // Act + Assert: el INSERT del duplicado lo rechaza la restricción UNIQUE del email
+        //Usamos assertThrows para asegurarnos que ese llamado lance exactamente la excepción esperada.
         //Si no lanza la excepción, el test falla.
-        assertThrows(EmailDuplicadoException.class, () -> {
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class, () -> {
             empleadoService.guardar(empleadoDuplicado);
         });
+        // GlobalExceptionHandler la traduce a la excepción de dominio (409)
+        ResponseEntity<Object> respuesta = new GlobalExceptionHandler().handleViolacionIntegridad(ex);
+        assertEquals(HttpStatus.CONFLICT, respuesta.getStatusCode());
+        assertEquals("El email ya está registrado", ((Map<?, ?>) respuesta.getBody()).get("mensaje"));
     }
 
     // Buscar empleado por ID existente (debe devolver el empleado)
@@ -103,11 +146,15 @@ public class EmpleadoServiceIntegrationTest {
         // Arrange: crear y guardar un empleado
         Empleado empleado = crearEmpleadoDePrueba();
         empleado = empleadoRepository.save(empleado);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
 
         // Act: buscar empleado por el ID guardado
         Empleado resultado = empleadoService.buscarPorId(empleado.getId());
 
         // Assert: verificar que el empleado no sea nulo y que los IDs coincidan
+        contadorSentencias.verificarMaximo(1, 0, 0, 0);
         assertNotNull(resultado);
         assertEquals(empleado.getId(), resultado.getId());
     }
@@ -171,6 +218,31 @@ public class EmpleadoServiceIntegrationTest {
         assertEquals("martina.rizzotti@empresa.com", empleados.get(0).getEmail());
     }
 
+    @Test
+    void cuandoListarPorDepartamento_entoncesRetornaDTOsConDatosDelDepartamento() {
+        // Arrange
+        Departamento deptoIT = crearDepartamentoDePrueba();
+        deptoIT.setNombre("IT");
+        departamentoRepository.save(deptoIT);
+
+        Empleado empleado = crearEmpleadoDePrueba();
+        empleado.setDepartamento(deptoIT);
+        empleadoRepository.save(empleado);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
+
+        // Act
+        List<EmpleadoDTO> empleados = empleadoService.listarPorDepartamento("IT");
+
+        // Assert: una sola consulta, sin cargar el departamento de cada empleado
+        contadorSentencias.verificarMaximo(1, 0, 0, 0);
+        assertEquals(1, empleados.size());
+        assertEquals("martin.navarro@empresa.com", empleados.get(0).email());
+        assertEquals(deptoIT.getId(), empleados.get(0).departamentoId());
+        assertEquals("IT", empleados.get(0).departamentoNombre());
+    }
+
     @Test
     void cuandoObtenerSalarioPromedioPorDepartamento_entoncesCalculaCorrectamente() {
         // Arrange
@@ -222,14 +294,92 @@ public class EmpleadoServiceIntegrationTest {
         // Arrange
         Empleado empleado = crearEmpleadoDePrueba();
         empleado = empleadoRepository.save(empleado);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
 
         empleado.setSalario(new BigDecimal("55000.00")); // cambiar salario
 
         // Act
         Empleado actualizado = empleadoService.actualizar(empleado.getId(), empleado);
+        entityManager.flush();
+
+        // Assert: estado previo y UPDATE, sin volver a leer la fila; sin proyectos no se toca la tabla de unión
+        contadorSentencias.verificarMaximo(1, 0, 1, 0);
+        assertEquals(new BigDecimal("55000.00"), actualizado.getSalario());
+        assertEquals(empleadoRepository.findVersionById(empleado.getId()).orElseThrow(), actualizado.getVersion());
+    }
+
+    //Caso éxito: en la tabla de unión solo se escriben los proyectos que cambiaron
+    @Test
+    void cuandoActualizarEmpleadoConProyectos_entoncesSoloSeEscribenLasAsignacionesQueCambian() {
+        // Arrange
+        Proyecto alpha = proyectoRepository.save(new Proyecto(null, "Alpha", null, null, null, null, null));
+        Proyecto beta = proyectoRepository.save(new Proyecto(null, "Beta", null, null, null, null, null));
+        Proyecto gamma = proyectoRepository.save(new Proyecto(null, "Gamma", null, null, null, null, null));
+        Empleado empleado = crearEmpleadoDePrueba();
+        empleado.getProyectos().addAll(List.of(alpha, beta));
+        Long id = empleadoService.guardar(empleado).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Empleado mismos = crearEmpleadoDePrueba();
+        mismos.setSalario(new BigDecimal("55000.00"));
+        mismos.setProyectos(new HashSet<>(List.of(alpha, beta)));
+        Empleado otros = crearEmpleadoDePrueba();
+        otros.setProyectos(new HashSet<>(List.of(beta, gamma)));
+
+        // Act + Assert: mismo conjunto de proyectos
+        contadorSentencias.reiniciar();
+        empleadoService.actualizar(id, mismos);
+        entityManager.flush();
+        contadorSentencias.verificarMaximo(1, 0, 1, 0);
+
+        // Act + Assert: sale Alpha y entra Gamma
+        contadorSentencias.reiniciar();
+        Empleado actualizado = empleadoService.actualizar(id, otros);
+        entityManager.flush();
+        contadorSentencias.verificarMaximo(1, 1, 1, 1);
+        assertEquals(Set.of(beta.getId(), gamma.getId()),
+            actualizado.getProyectos().stream().map(Proyecto::getId).collect(Collectors.toSet()));
+    }
+
+    //Caso éxito: con la versión leída se actualiza, incrementa la versión y reemplaza los proyectos asignados
+    @Test
+    void cuandoActualizarConVersionVigente_entoncesIncrementaLaVersion() {
+        // Arrange
+        Proyecto anterior = proyectoRepository.save(new Proyecto(null, "Anterior", null, null, null, null, null));
+        Proyecto nuevo = proyectoRepository.save(new Proyecto(null, "Nuevo", null, null, null, null, null));
+        Empleado empleado = crearEmpleadoDePrueba();
+        empleado.getProyectos().add(anterior);
+        empleado = empleadoService.guardar(empleado);
+        Long versionLeida = empleado.getVersion();
+
+        Empleado cambios = crearEmpleadoDePrueba();
+        cambios.setSalario(new BigDecimal("55000.00"));
+        cambios.setProyectos(new HashSet<>(List.of(nuevo)));
+
+        // Act
+        Empleado actualizado = empleadoService.actualizar(empleado.getId(), cambios, versionLeida);
 
         // Assert
+        assertEquals(versionLeida + 1, actualizado.getVersion());
         assertEquals(new BigDecimal("55000.00"), actualizado.getSalario());
+        assertEquals(List.of(nuevo.getId()), actualizado.getProyectos().stream().map(Proyecto::getId).toList());
+    }
+
+    //Caso error: otra escritura cambió la versión desde que se leyó
+    @Test
+    void cuandoActualizarConVersionDesactualizada_entoncesLanzaExcepcion() {
+        // Arrange
+        Empleado empleado = empleadoService.guardar(crearEmpleadoDePrueba());
+        Long id = empleado.getId();
+        Long versionLeida = empleado.getVersion();
+        empleadoService.actualizar(id, crearEmpleadoDePrueba(), versionLeida);
+
+        // Act + Assert
+        assertThrows(VersionNoCoincideException.class, () ->
+            empleadoService.actualizar(id, crearEmpleadoDePrueba(), versionLeida));
     }
 
     //Caso error: empleado no existe, lanza excepción
@@ -250,11 +400,16 @@ public class EmpleadoServiceIntegrationTest {
         // Arrange
         Empleado empleado = crearEmpleadoDePrueba();
         empleado = empleadoRepository.save(empleado);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
 
         // Act
         empleadoService.eliminar(empleado.getId());
+        entityManager.flush();
 
         // Assert
+        contadorSentencias.verificarMaximo(2, 0, 0, 2);
         assertFalse(empleadoRepository.existsById(empleado.getId()));
     }
 
@@ -266,5 +421,296 @@ public class EmpleadoServiceIntegrationTest {
             empleadoService.eliminar(9999L);
         });
     }
-    
+
+    @Test
+    void cuandoObtenerPagina_entoncesRecorreTodosLosEmpleadosPorCursor() {
+        // Arrange
+        empleadoRepository.deleteAll();
+        for (int i = 0; i < 5; i++) {
+            Empleado empleado = crearEmpleadoDePrueba();
+            empleado.setEmail("empleado" + i + "@empresa.com");
+            empleadoRepository.save(empleado);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
+
+        // Act
+        Pagina<EmpleadoDTO> primera = empleadoService.obtenerPagina(null, 2);
+        Pagina<EmpleadoDTO> segunda = empleadoService.obtenerPagina(primera.siguienteCursor(), 2);
+        Pagina<EmpleadoDTO> tercera = empleadoService.obtenerPagina(segunda.siguienteCursor(), 2);
+
+        // Assert: una consulta por página
+        contadorSentencias.verificarMaximo(3, 0, 0, 0);
+        assertEquals(2, primera.contenido().size());
+        assertTrue(primera.hayMas());
+        assertEquals(2, segunda.contenido().size());
+        assertTrue(primera.contenido().get(1).id() < segunda.contenido().get(0).id());
+        assertEquals(1, tercera.contenido().size());
+        assertFalse(tercera.hayMas());
+        assertNull(tercera.siguienteCursor());
+    }
+
+    @Test
+    void cuandoObtenerPaginaConCursorInvalido_entoncesLanzaExcepcion() {
+        // Act + Assert
+        assertThrows(CursorInvalidoException.class, () -> {
+            empleadoService.obtenerPagina("no-es-un-cursor", 10);
+        });
+    }
+
+    @Test
+    void cuandoExportarTodos_entoncesEntregaCadaEmpleadoEnOrden() {
+        // Arrange
+        empleadoRepository.deleteAll();
+        Departamento departamento = departamentoRepository.save(crearDepartamentoDePrueba());
+
+        Empleado empleado1 = crearEmpleadoDePrueba();
+        empleado1.setDepartamento(departamento);
+        empleadoRepository.save(empleado1);
+
+        Empleado empleado2 = crearEmpleadoDePrueba();
+        empleado2.setEmail("martina.rizzotti@empresa.com");
+        empleadoRepository.save(empleado2);
+
+        // Act
+        List<EmpleadoDTO> exportados = new ArrayList<>();
+        empleadoService.exportarTodos(exportados::add);
+
+        // Assert
+        assertEquals(2, exportados.size());
+        assertEquals("martin.navarro@empresa.com", exportados.get(0).email());
+        assertEquals("IT", exportados.get(0).departamentoNombre());
+        assertNull(exportados.get(1).departamentoId());
+    }
+
+    @Test
+    void cuandoGuardarLote_entoncesCreaValidosYRechazaDuplicados() {
+        // Arrange: un email ya registrado, otro repetido dentro del lote y uno con campos faltantes
+        empleadoRepository.save(crearEmpleadoDePrueba());
+        Departamento departamento = departamentoRepository.save(crearDepartamentoDePrueba());
+
+        Empleado nuevo = crearEmpleadoDePrueba();
+        nuevo.setEmail("martina.rizzotti@empresa.com");
+        nuevo.setDepartamento(departamento);
+        Empleado yaRegistrado = crearEmpleadoDePrueba();
+        Empleado repetidoEnLote = crearEmpleadoDePrueba();
+        repetidoEnLote.setEmail("martina.rizzotti@empresa.com");
+        Empleado incompleto = crearEmpleadoDePrueba();
+        incompleto.setEmail("incompleto@empresa.com");
+        incompleto.setSalario(null);
+        contadorSentencias.reiniciar();
+
+        // Act
+        ResultadoLote resultado = empleadoService.guardarLote(List.of(nuevo, yaRegistrado, repetidoEnLote, incompleto));
+        entityManager.flush();
+
+        // Assert
+        contadorSentencias.verificarMaximo(5, 2, 0, 0);
+        assertEquals(1, resultado.creados());
+        assertEquals(3, resultado.rechazados());
+        assertEquals(EstadoItemLote.CREADO, resultado.items().get(0).estado());
+        assertNotNull(resultado.items().get(0).id());
+        assertEquals(EstadoItemLote.RECHAZADO, resultado.items().get(1).estado());
+        assertEquals(EstadoItemLote.RECHAZADO, resultado.items().get(2).estado());
+        assertEquals(EstadoItemLote.RECHAZADO, resultado.items().get(3).estado());
+        assertTrue(empleadoRepository.findByEmail("martina.rizzotti@empresa.com").isPresent());
+        assertFalse(empleadoRepository.findByEmail("incompleto@empresa.com").isPresent());
+    }
+
+    @Test
+    void cuandoGuardarLoteConDepartamentoInexistente_entoncesRechazaElElemento() {
+        // Arrange
+        Departamento inexistente = new Departamento();
+        inexistente.setId(9999L);
+        Empleado empleado = crearEmpleadoDePrueba();
+        empleado.setDepartamento(inexistente);
+
+        // Act
+        ResultadoLote resultado = empleadoService.guardarLote(List.of(empleado));
+
+        // Assert
+        assertEquals(0, resultado.creados());
+        assertEquals("Departamento no encontrado con ID: 9999", resultado.items().get(0).mensaje());
+    }
+
+    @Test
+    void cuandoGuardarLoteConElementoConId_entoncesRechazaElLoteIndicandoElElemento() {
+        // Arrange
+        Empleado nuevo = crearEmpleadoDePrueba();
+        Empleado conId = crearEmpleadoDePrueba();
+        conId.setEmail("con.id@empresa.com");
+        conId.setId(7L);
+        contadorSentencias.reiniciar();
+
+        // Act
+        LoteInvalidoException excepcion = assertThrows(LoteInvalidoException.class,
+            () -> empleadoService.guardarLote(List.of(nuevo, conId)));
+
+        // Assert
+        assertEquals("El elemento 1 del lote trae ID; el ID lo asigna la base de datos", excepcion.getMessage());
+        contadorSentencias.verificarMaximo(0, 0, 0, 0);
+        assertEquals(0, empleadoRepository.count());
+    }
+
+    @Test
+    void cuandoBuscarPorDepartamentoConPlan_entoncesTraeElDepartamentoEnLaMismaConsulta() {
+        // Arrange
+        Departamento departamento = departamentoRepository.save(crearDepartamentoDePrueba());
+        Empleado empleado = crearEmpleadoDePrueba();
+        empleado.setDepartamento(departamento);
+        empleadoRepository.saveAndFlush(empleado);
+        entityManager.clear();
+
+        // Act
+        List<Empleado> empleados = empleadoService.buscarPorDepartamento("IT", PlanCarga.CON_DEPARTAMENTO);
+
+        // Assert
+        assertEquals(1, empleados.size());
+        assertTrue(Hibernate.isInitialized(empleados.get(0).getDepartamento()));
+    }
+
+    @Test
+    void cuandoAjustarSalariosSinPorcentajeNiMonto_entoncesLanzaExcepcion() {
+        // Act & Assert
+        assertThrows(AjusteSalarialInvalidoException.class, () ->
+            empleadoService.ajustarSalarios(new AjusteSalarial(null, null, null, null, null)));
+        assertThrows(AjusteSalarialInvalidoException.class, () ->
+            empleadoService.ajustarSalarios(new AjusteSalarial(new BigDecimal("-100"), null, null, null, null)));
+        assertThrows(AjusteSalarialInvalidoException.class, () -> empleadoService.ajustarSalarios(
+            new AjusteSalarial(BigDecimal.TEN, null, null, new BigDecimal("2"), new BigDecimal("1"))));
+    }
+
+    @Test
+    void cuandoAjustarSalariosDeUnDepartamento_entoncesElUpdateSoloFiltraPorEseDepartamento() {
+        // Arrange
+        Departamento it = departamentoRepository.save(crearDepartamentoDePrueba());
+        Departamento rrhh = crearDepartamentoDePrueba();
+        rrhh.setNombre("RRHH");
+        rrhh = departamentoRepository.save(rrhh);
+        Empleado deIt = crearEmpleadoDePrueba();
+        deIt.setDepartamento(it);
+        deIt = empleadoRepository.save(deIt);
+        Empleado deRrhh = crearEmpleadoDePrueba();
+        deRrhh.setEmail("otro@empresa.com");
+        deRrhh.setDepartamento(rrhh);
+        deRrhh = empleadoRepository.save(deRrhh);
+        entityManager.flush();
+        contadorSentencias.reiniciar();
+
+        // Act
+        empleadoService.ajustarSalarios(new AjusteSalarial(BigDecimal.TEN, null, it.getId(), null, null));
+
+        // Assert: sin "(? IS NULL OR ...)" el optimizador puede usar el índice por departamento
+        String update = contadorSentencias.sentencias(ContadorSentencias.Tipo.UPDATE).stream()
+            .filter(sql -> sql.toLowerCase().contains("empleados"))
+            .findFirst().orElseThrow();
+        assertFalse(update.toLowerCase().contains("is null"), update);
+        assertFalse(update.matches("(?is).*salario\\s*[<>]=.*"), update);
+        assertEquals(0, new BigDecimal("55000.00").compareTo(
+            empleadoRepository.findById(deIt.getId()).orElseThrow().getSalario()));
+        assertEquals(0, new BigDecimal("50000.00").compareTo(
+            empleadoRepository.findById(deRrhh.getId()).orElseThrow().getSalario()));
+    }
+
+    //Caso éxito: PATCH de un solo campo conserva el resto, incluidos los proyectos asignados
+    @Test
+    void cuandoParchearSoloElSalario_entoncesConservaLosDemasCampos() throws Exception {
+        // Arrange
+        Departamento departamento = departamentoRepository.save(crearDepartamentoDePrueba());
+        Proyecto proyecto = proyectoRepository.save(new Proyecto(null, "Alpha", null, null, null, null, null));
+        Empleado empleado = crearEmpleadoDePrueba();
+        empleado.setDepartamento(departamento);
+        empleado.getProyectos().add(proyecto);
+        empleado = empleadoService.guardar(empleado);
+        Long versionLeida = empleado.getVersion();
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
+
+        // Act
+        Empleado actualizado = empleadoService.parchear(empleado.getId(),
+            objectMapper.readTree("{\"salario\": 62000.50}"), versionLeida);
+
+        // Assert: solo el UPDATE del salario; los proyectos asignados no se tocan
+        contadorSentencias.verificarMaximo(4, 0, 1, 0);
+        assertEquals(0, new BigDecimal("62000.50").compareTo(actualizado.getSalario()));
+        assertEquals(versionLeida + 1, actualizado.getVersion());
+        assertEquals("Martin", actualizado.getNombre());
+        assertEquals(departamento.getId(), actualizado.getDepartamento().getId());
+        assertEquals(List.of(proyecto.getId()), actualizado.getProyectos().stream().map(Proyecto::getId).toList());
+        assertEquals(0, new BigDecimal("62000.50").compareTo(
+            empleadoService.obtenerEstadisticaSalario(departamento.getId()).maximo()));
+    }
+
+    //Caso éxito: un campo en null quita la relación (JSON Merge Patch)
+    @Test
+    void cuandoParchearRelacionesEnNull_entoncesSeQuitan() throws Exception {
+        // Arrange
+        Departamento departamento = departamentoRepository.save(crearDepartamentoDePrueba());
+        Proyecto proyecto = proyectoRepository.save(new Proyecto(null, "Alpha", null, null, null, null, null));
+        Empleado empleado = crearEmpleadoDePrueba();
+        empleado.setDepartamento(departamento);
+        empleado.getProyectos().add(proyecto);
+        empleado = empleadoService.guardar(empleado);
+
+        // Act
+        Empleado actualizado = empleadoService.parchear(empleado.getId(),
+            objectMapper.readTree("{\"departamento\": null, \"proyectos\": null}"), null);
+
+        // Assert
+        assertNull(actualizado.getDepartamento());
+        assertTrue(actualizado.getProyectos().isEmpty());
+        assertEquals(0, empleadoService.obtenerEstadisticaSalario(departamento.getId()).cantidad());
+    }
+
+    //Caso éxito: si los valores enviados son los actuales no hay UPDATE ni cambia la versión
+    @Test
+    void cuandoParchearConLosValoresActuales_entoncesNoCambiaLaVersion() throws Exception {
+        // Arrange
+        Empleado empleado = empleadoService.guardar(crearEmpleadoDePrueba());
+        Long versionLeida = empleado.getVersion();
+
+        // Act
+        Empleado actualizado = empleadoService.parchear(empleado.getId(),
+            objectMapper.readTree("{\"nombre\": \"Martin\", \"apellido\": \"Navarro\"}"), versionLeida);
+
+        // Assert
+        assertEquals(versionLeida, actualizado.getVersion());
+    }
+
+    //Caso error: el parche intenta modificar un campo que no es modificable o borrar uno obligatorio
+    @Test
+    void cuandoParchearCampoNoModificableOObligatorioEnNull_entoncesLanzaExcepcion() {
+        // Arrange
+        Long id = empleadoService.guardar(crearEmpleadoDePrueba()).getId();
+
+        // Act + Assert
+        assertThrows(ParcheInvalidoException.class, () ->
+            empleadoService.parchear(id, objectMapper.readTree("{\"version\": 7}"), null));
+        assertThrows(ParcheInvalidoException.class, () ->
+            empleadoService.parchear(id, objectMapper.readTree("{\"email\": null}"), null));
+        assertThrows(ParcheInvalidoException.class, () ->
+            empleadoService.parchear(id, objectMapper.readTree("{\"salario\": \"mucho\"}"), null));
+    }
+
+    //Caso error: versión desactualizada, email en uso o proyecto inexistente
+    @Test
+    void cuandoParchearConDatosInvalidos_entoncesLanzaExcepcion() {
+        // Arrange
+        Empleado otro = crearEmpleadoDePrueba();
+        otro.setEmail("otro@empresa.com");
+        empleadoService.guardar(otro);
+        Empleado empleado = empleadoService.guardar(crearEmpleadoDePrueba());
+        Long id = empleado.getId();
+        Long versionVieja = empleado.getVersion() - 1;
+
+        // Act + Assert
+        assertThrows(VersionNoCoincideException.class, () ->
+            empleadoService.parchear(id, objectMapper.readTree("{\"nombre\": \"Juan\"}"), versionVieja));
+        assertThrows(ProyectoNoEncontradoException.class, () ->
+            empleadoService.parchear(id, objectMapper.readTree("{\"proyectos\": [{\"id\": 9999}]}"), null));
+        assertThrows(DataIntegrityViolationException.class, () ->
+            empleadoService.parchear(id, objectMapper.readTree("{\"email\": \"otro@empresa.com\"}"), null));
+    }
 }
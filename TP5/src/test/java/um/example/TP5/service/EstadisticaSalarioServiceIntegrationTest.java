@@ -0,0 +1,279 @@
+package um.example.TP5.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import um.example.TP5.dto.AjusteSalarial;
+import um.example.TP5.dto.EstadisticaSalario;
+import um.example.TP5.dto.ResultadoAjusteSalarial;
+import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.Empleado;
+import um.example.TP5.entity.EstadisticaSalarioDepartamento;
+import um.example.TP5.repository.EstadisticaSalarioDepartamentoRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+public class EstadisticaSalarioServiceIntegrationTest {
+    @Autowired
+    private EstadisticaSalarioService estadisticaSalarioService;
+    @Autowired
+    private EmpleadoService empleadoService;
+    @Autowired
+    private DepartamentoService departamentoService;
+    @Autowired
+    private EstadisticaSalarioDepartamentoRepository estadisticaRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Departamento crearDepartamento(String nombre) {
+        Departamento departamento = new Departamento();
+        departamento.setNombre(nombre);
+        departamento.setDescripcion("Departamento de prueba");
+        return departamentoService.guardar(departamento);
+    }
+
+    private Empleado crearEmpleado(String email, String salario, Departamento departamento) {
+        Empleado empleado = new Empleado();
+        empleado.setNombre("Martin");
+        empleado.setApellido("Navarro");
+        empleado.setEmail(email);
+        empleado.setFechaContratacion(LocalDate.now());
+        empleado.setSalario(new BigDecimal(salario));
+        empleado.setDepartamento(departamento);
+        return empleadoService.guardar(empleado);
+    }
+
+    // Como llega en un PUT: una instancia nueva, no la entidad administrada por el contexto de persistencia
+    private Empleado copiaCon(Empleado empleado, BigDecimal salario, Departamento departamento) {
+        return new Empleado(empleado.getId(), empleado.getNombre(), empleado.getApellido(), empleado.getEmail(),
+            empleado.getFechaContratacion(), salario, departamento, null, null);
+    }
+
+    @Test
+    void cuandoGuardarDepartamento_entoncesSeCreaConEstadisticasVacias() {
+        // Act
+        Departamento departamento = crearDepartamento("IT");
+
+        // Assert: la fila existe, no es el cálculo de respaldo de obtener()
+        assertTrue(estadisticaRepository.existsById(departamento.getId()));
+        EstadisticaSalario estadistica = estadisticaSalarioService.obtener(departamento.getId());
+        assertEquals(0, estadistica.cantidad());
+        assertEquals(0, estadistica.promedio().compareTo(BigDecimal.ZERO));
+        assertNull(estadistica.minimo());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void cuandoDosAltasConcurrentesSonLasPrimerasDelDepartamento_entoncesAmbasSeRegistran() throws Exception {
+        // Sin transacción de test: cada alta confirma la suya, como dos requests concurrentes
+        List<Departamento> departamentos = new ArrayList<>();
+        List<Empleado> empleados = new ArrayList<>();
+        try {
+            for (int intento = 0; intento < 5; intento++) {
+                // Arrange
+                Departamento departamento = crearDepartamento("Concurrente " + UUID.randomUUID());
+                departamentos.add(departamento);
+                CountDownLatch largada = new CountDownLatch(1);
+                List<CompletableFuture<Empleado>> altas = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    altas.add(CompletableFuture.supplyAsync(() -> {
+                        esperar(largada);
+                        return crearEmpleado(UUID.randomUUID() + "@empresa.com", "50000.00", departamento);
+                    }));
+                }
+
+                // Act
+                largada.countDown();
+                for (CompletableFuture<Empleado> alta : altas) {
+                    empleados.add(alta.get(10, TimeUnit.SECONDS));
+                }
+
+                // Assert
+                EstadisticaSalario estadistica = estadisticaSalarioService.obtener(departamento.getId());
+                assertEquals(2, estadistica.cantidad());
+                assertEquals(0, estadistica.suma().compareTo(new BigDecimal("100000.00")));
+            }
+        } finally {
+            empleados.forEach(empleado -> empleadoService.eliminar(empleado.getId()));
+            departamentos.forEach(departamento -> departamentoService.eliminar(departamento.getId()));
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void cuandoRecalcularCoincideConUnAltaSinConfirmar_entoncesEsperaYLaIncluye() throws Exception {
+        // Arrange: un alta que tiene bloqueada la fila de estadísticas y todavía no confirmó
+        Departamento departamento = crearDepartamento("Recalculo " + UUID.randomUUID());
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        CountDownLatch altaSinConfirmar = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        CompletableFuture<Empleado> alta = CompletableFuture.supplyAsync(() -> transaccion.execute(estado -> {
+            Empleado empleado = crearEmpleado(UUID.randomUUID() + "@empresa.com", "50000.00", departamento);
+            altaSinConfirmar.countDown();
+            esperar(confirmar);
+            return empleado;
+        }));
+        Empleado empleado = null;
+        try {
+            assertTrue(altaSinConfirmar.await(5, TimeUnit.SECONDS));
+
+            // Act: el recálculo queda esperando el bloqueo; el alta confirma mientras tanto
+            CompletableFuture<Void> recalculo = CompletableFuture.runAsync(() ->
+                transaccion.executeWithoutResult(estado -> estadisticaSalarioService.recalcular(departamento.getId())));
+            Thread.sleep(200);
+            confirmar.countDown();
+            empleado = alta.get(5, TimeUnit.SECONDS);
+            recalculo.get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertEquals(1, estadisticaSalarioService.obtener(departamento.getId()).cantidad());
+        } finally {
+            confirmar.countDown();
+            if (empleado != null) {
+                empleadoService.eliminar(empleado.getId());
+            }
+            departamentoService.eliminar(departamento.getId());
+        }
+    }
+
+    @Test
+    void cuandoGuardarActualizarYEliminarEmpleados_entoncesLasEstadisticasAcompanan() {
+        // Arrange
+        Departamento departamento = crearDepartamento("IT");
+        Empleado bajo = crearEmpleado("bajo@empresa.com", "40000.00", departamento);
+        crearEmpleado("medio@empresa.com", "50000.00", departamento);
+        Empleado alto = crearEmpleado("alto@empresa.com", "60000.00", departamento);
+
+        // Act: el de menor salario pasa a ser el de mayor salario, y se elimina el que era el máximo
+        empleadoService.actualizar(bajo.getId(), copiaCon(bajo, new BigDecimal("70000.00"), departamento));
+        empleadoService.eliminar(alto.getId());
+
+        // Assert
+        EstadisticaSalario estadistica = estadisticaSalarioService.obtener(departamento.getId());
+        assertEquals(2, estadistica.cantidad());
+        assertEquals(0, estadistica.suma().compareTo(new BigDecimal("120000.00")));
+        assertEquals(0, estadistica.minimo().compareTo(new BigDecimal("50000.00")));
+        assertEquals(0, estadistica.maximo().compareTo(new BigDecimal("70000.00")));
+        assertEquals(0, estadistica.promedio().compareTo(new BigDecimal("60000.00")));
+    }
+
+    @Test
+    void cuandoEmpleadoCambiaDeDepartamento_entoncesSeMueveEntreEstadisticas() {
+        // Arrange
+        Departamento it = crearDepartamento("IT");
+        Departamento rrhh = crearDepartamento("RRHH");
+        Empleado empleado = crearEmpleado("martin.navarro@empresa.com", "50000.00", it);
+
+        // Act
+        empleadoService.actualizar(empleado.getId(), copiaCon(empleado, empleado.getSalario(), rrhh));
+
+        // Assert
+        assertEquals(0, estadisticaSalarioService.obtener(it.getId()).cantidad());
+        assertNull(estadisticaSalarioService.obtener(it.getId()).maximo());
+        assertEquals(1, estadisticaSalarioService.obtener(rrhh.getId()).cantidad());
+    }
+
+    @Test
+    void cuandoGuardarLote_entoncesSeAcumulaPorDepartamento() {
+        // Arrange
+        Departamento departamento = crearDepartamento("IT");
+        Empleado primero = new Empleado(null, "Ana", "Lopez", "ana@empresa.com", LocalDate.now(),
+            new BigDecimal("30000.00"), departamento, null, null);
+        Empleado segundo = new Empleado(null, "Juan", "Perez", "juan@empresa.com", LocalDate.now(),
+            new BigDecimal("90000.00"), departamento, null, null);
+
+        // Act
+        empleadoService.guardarLote(List.of(primero, segundo));
+
+        // Assert
+        EstadisticaSalario estadistica = estadisticaSalarioService.obtener(departamento.getId());
+        assertEquals(2, estadistica.cantidad());
+        assertEquals(0, estadistica.minimo().compareTo(new BigDecimal("30000.00")));
+        assertEquals(0, estadistica.maximo().compareTo(new BigDecimal("90000.00")));
+    }
+
+    @Test
+    void cuandoReconstruir_entoncesSeCorrigeElDesvio() {
+        // Arrange: estadísticas alteradas a mano
+        Departamento departamento = crearDepartamento("IT");
+        crearEmpleado("martin.navarro@empresa.com", "50000.00", departamento);
+        EstadisticaSalarioDepartamento alterada = estadisticaRepository.findById(departamento.getId()).orElseThrow();
+        alterada.setCantidad(99L);
+        alterada.setSuma(BigDecimal.ONE);
+        estadisticaRepository.flush();
+
+        // Act
+        int departamentos = estadisticaSalarioService.reconstruir();
+
+        // Assert
+        assertTrue(departamentos >= 1);
+        EstadisticaSalario estadistica = estadisticaSalarioService.obtener(departamento.getId());
+        assertEquals(1, estadistica.cantidad());
+        assertEquals(0, estadistica.suma().compareTo(new BigDecimal("50000.00")));
+    }
+
+    @Test
+    void cuandoAjustarSalariosDeUnDepartamento_entoncesSeRecalculanSusEstadisticas() {
+        // Arrange
+        Departamento it = crearDepartamento("IT");
+        Departamento rrhh = crearDepartamento("RRHH");
+        crearEmpleado("bajo@empresa.com", "40000.00", it);
+        crearEmpleado("alto@empresa.com", "60000.00", it);
+        crearEmpleado("otro@empresa.com", "50000.00", rrhh);
+
+        // Act
+        ResultadoAjusteSalarial resultado = empleadoService.ajustarSalarios(
+            new AjusteSalarial(new BigDecimal("10"), null, it.getId(), null, null));
+
+        // Assert
+        assertEquals(2, resultado.empleadosActualizados());
+        EstadisticaSalario estadistica = estadisticaSalarioService.obtener(it.getId());
+        assertEquals(0, estadistica.suma().compareTo(new BigDecimal("110000.00")));
+        assertEquals(0, estadistica.minimo().compareTo(new BigDecimal("44000.00")));
+        assertEquals(0, estadistica.maximo().compareTo(new BigDecimal("66000.00")));
+        assertEquals(0, estadisticaSalarioService.obtener(rrhh.getId()).suma().compareTo(new BigDecimal("50000.00")));
+    }
+
+    @Test
+    void cuandoAjustarSalariosSinDepartamento_entoncesSeReconstruyenTodas() {
+        // Arrange
+        Departamento it = crearDepartamento("IT");
+        Departamento rrhh = crearDepartamento("RRHH");
+        crearEmpleado("bajo@empresa.com", "40000.00", it);
+        crearEmpleado("otro@empresa.com", "50000.00", rrhh);
+
+        // Act: monto fijo a los salarios desde 45000
+        ResultadoAjusteSalarial resultado = empleadoService.ajustarSalarios(
+            new AjusteSalarial(null, new BigDecimal("-1000"), null, new BigDecimal("45000"), null));
+
+        // Assert
+        assertEquals(1, resultado.empleadosActualizados());
+        assertEquals(0, estadisticaSalarioService.obtener(it.getId()).suma().compareTo(new BigDecimal("40000.00")));
+        assertEquals(0, estadisticaSalarioService.obtener(rrhh.getId()).maximo().compareTo(new BigDecimal("49000.00")));
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package um.example.TP5.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import um.example.TP5.dto.AjusteSalarial;
+import um.example.TP5.dto.PosicionSalario;
+import um.example.TP5.dto.SalarioIndexado;
+import um.example.TP5.entity.Departamento;
+import um.example.TP5.entity.Empleado;
+import um.example.TP5.repository.DepartamentoRepository;
+import um.example.TP5.repository.EmpleadoRepository;
+import um.example.TP5.repository.EstadisticaSalarioDepartamentoRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin @Transactional: el índice solo se actualiza cuando la transacción del servicio hace commit
+@SpringBootTest
+@ActiveProfiles("test")
+public class IndiceSalariosServiceIntegrationTest {
+    @Autowired
+    private IndiceSalariosService indiceSalariosService;
+    @Autowired
+    private EmpleadoService empleadoService;
+    @Autowired
+    private DepartamentoService departamentoService;
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+    @Autowired
+    private EstadisticaSalarioDepartamentoRepository estadisticaRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Departamento departamento;
+
+    @BeforeEach
+    void setUp() {
+        Departamento nuevo = new Departamento();
+        nuevo.setNombre("IT");
+        departamento = departamentoService.guardar(nuevo);
+    }
+
+    @AfterEach
+    void tearDown() {
+        empleadoRepository.deleteAll();
+        departamentoRepository.deleteAll();
+        estadisticaRepository.deleteAll();
+        indiceSalariosService.reconstruir();
+    }
+
+    private Empleado crearEmpleado(String email, String salario) {
+        Empleado empleado = new Empleado();
+        empleado.setNombre("Martin");
+        empleado.setApellido("Navarro");
+        empleado.setEmail(email);
+        empleado.setFechaContratacion(LocalDate.now());
+        empleado.setSalario(new BigDecimal(salario));
+        empleado.setDepartamento(departamento);
+        return empleado;
+    }
+
+    @Test
+    void cuandoGuardarEmpleados_entoncesElIndiceRespondeRangoPosicionYMayores() {
+        // Arrange
+        Empleado bajo = empleadoService.guardar(crearEmpleado("bajo@empresa.com", "40000.00"));
+        Empleado medio = empleadoService.guardar(crearEmpleado("medio@empresa.com", "50000.00"));
+        Empleado alto = empleadoService.guardar(crearEmpleado("alto@empresa.com", "60000.00"));
+
+        // Act
+        List<SalarioIndexado> enRango = indiceSalariosService.buscarPorRango(
+            new BigDecimal("45000"), new BigDecimal("60000"), 10);
+        PosicionSalario posicion = indiceSalariosService.obtenerPosicion(departamento.getId(), new BigDecimal("50000"));
+        List<SalarioIndexado> mayores = indiceSalariosService.obtenerMayoresSalarios(departamento.getId(), 2);
+
+        // Assert
+        assertEquals(List.of(medio.getId(), alto.getId()), enRango.stream().map(SalarioIndexado::empleadoId).toList());
+        assertEquals(2, posicion.posicion());
+        assertEquals(3, posicion.total());
+        assertEquals(List.of(alto.getId(), medio.getId()), mayores.stream().map(SalarioIndexado::empleadoId).toList());
+        assertFalse(mayores.stream().anyMatch(s -> s.empleadoId().equals(bajo.getId())));
+    }
+
+    @Test
+    void cuandoActualizarYEliminar_entoncesElIndiceSeMantieneSincronizado() {
+        // Arrange
+        Empleado empleado = empleadoService.guardar(crearEmpleado("martin.navarro@empresa.com", "40000.00"));
+        Empleado otro = empleadoService.guardar(crearEmpleado("martina.rizzotti@empresa.com", "50000.00"));
+
+        // Act
+        Empleado cambio = crearEmpleado(empleado.getEmail(), "90000.00");
+        empleadoService.actualizar(empleado.getId(), cambio);
+        empleadoService.eliminar(otro.getId());
+
+        // Assert
+        List<SalarioIndexado> todos = indiceSalariosService.obtenerMayoresSalarios(null, 10);
+        assertEquals(1, todos.size());
+        assertEquals(0, todos.get(0).salario().compareTo(new BigDecimal("90000.00")));
+    }
+
+    @Test
+    void cuandoLaTransaccionHaceRollback_entoncesElIndiceNoCambia() {
+        // Act
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.executeWithoutResult(estado -> {
+            empleadoService.guardar(crearEmpleado("martin.navarro@empresa.com", "40000.00"));
+            estado.setRollbackOnly();
+        });
+
+        // Assert
+        assertTrue(indiceSalariosService.obtenerMayoresSalarios(null, 10).isEmpty());
+    }
+
+    @Test
+    void cuandoReconstruir_entoncesIncorporaCambiosHechosPorFueraDelServicio() {
+        // Arrange: alta directa por el repositorio, que el índice no ve
+        empleadoRepository.save(crearEmpleado("martin.navarro@empresa.com", "40000.00"));
+        assertTrue(indiceSalariosService.obtenerMayoresSalarios(null, 10).isEmpty());
+
+        // Act
+        int indexados = indiceSalariosService.reconstruir();
+
+        // Assert
+        assertEquals(1, indexados);
+        assertEquals(1, indiceSalariosService.obtenerPosicion(departamento.getId(), new BigDecimal("40000")).total());
+    }
+
+    @Test
+    void cuandoAjustarSalarios_entoncesElIndiceAplicaLaMismaFormulaQueLaBase() {
+        // Arrange
+        Empleado bajo = empleadoService.guardar(crearEmpleado("bajo@empresa.com", "40000.00"));
+        Empleado alto = empleadoService.guardar(crearEmpleado("alto@empresa.com", "60000.00"));
+
+        // Act: 10,5 % y 0,01 solo a los salarios hasta 50000
+        empleadoService.ajustarSalarios(new AjusteSalarial(new BigDecimal("10.5"), new BigDecimal("0.01"),
+            departamento.getId(), null, new BigDecimal("50000")));
+
+        // Assert
+        List<SalarioIndexado> indexados = indiceSalariosService.obtenerMayoresSalarios(null, 10);
+        assertEquals(2, indexados.size());
+        for (SalarioIndexado indexado : indexados) {
+            BigDecimal enBase = empleadoRepository.findById(indexado.empleadoId()).orElseThrow().getSalario();
+            assertEquals(0, indexado.salario().compareTo(enBase), indexado + " vs " + enBase);
+        }
+        assertEquals(0, empleadoRepository.findById(bajo.getId()).orElseThrow().getSalario()
+            .compareTo(new BigDecimal("44200.01")));
+        assertEquals(0, empleadoRepository.findById(alto.getId()).orElseThrow().getSalario()
+            .compareTo(new BigDecimal("60000.00")));
+    }
+}
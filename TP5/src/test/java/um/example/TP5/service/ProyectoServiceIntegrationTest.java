@@ -1,17 +1,28 @@
 package um.example.TP5.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import um.example.TP5.dto.ProyectoDTO;
 import um.example.TP5.entity.Proyecto;
+import um.example.TP5.exception.GlobalExceptionHandler;
+import um.example.TP5.exception.ParcheInvalidoException;
 import um.example.TP5.exception.ProyectoNoEncontradoException;
-import um.example.TP5.exception.ProyectoYaExisteException;
+import um.example.TP5.exception.VersionNoCoincideException;
 import um.example.TP5.repository.ProyectoRepository;
+import um.example.TP5.support.ContadorSentencias;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -19,11 +30,18 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 @SpringBootTest
 @Transactional
 @ActiveProfiles("test")
+@Import(ContadorSentencias.class)
 public class ProyectoServiceIntegrationTest {
     @Autowired
     private ProyectoService proyectoService;
     @Autowired
     private ProyectoRepository proyectoRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ContadorSentencias contadorSentencias;
 
     private Proyecto crearProyectoDePrueba() {
         Proyecto proyecto = new Proyecto();
@@ -38,11 +56,14 @@ public class ProyectoServiceIntegrationTest {
     void cuandoGuardarProyectoNuevo_entoncesSePersisteCorrectamente() {
         // Arrange
         Proyecto proyecto = crearProyectoDePrueba();
+        contadorSentencias.reiniciar();
 
         // Act
         Proyecto guardado = proyectoService.guardar(proyecto);
+        entityManager.flush();
 
         // Assert
+        contadorSentencias.verificarMaximo(0, 1, 1, 0);
         assertNotNull(guardado.getId());
         assertEquals("Proyecto Alpha", guardado.getNombre());
         assertTrue(proyectoRepository.existsById(guardado.getId()));
@@ -57,9 +78,13 @@ public class ProyectoServiceIntegrationTest {
         // Act + Assert: intentar guardar otro con el mismo nombre debe fallar
         Proyecto duplicado = crearProyectoDePrueba(); // mismo nombre
 
-        assertThrows(ProyectoYaExisteException.class, () -> {
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class, () -> {
             proyectoService.guardar(duplicado);
         });
+        // GlobalExceptionHandler la traduce a la excepción de dominio (409)
+        ResponseEntity<Object> respuesta = new GlobalExceptionHandler().handleViolacionIntegridad(ex);
+        assertEquals(HttpStatus.CONFLICT, respuesta.getStatusCode());
+        assertEquals("Ya existe un proyecto con ese nombre", ((Map<?, ?>) respuesta.getBody()).get("mensaje"));
     }
 
     //Buscar proyecto por ID existente (debe devolver el proyecto)
@@ -101,11 +126,15 @@ public class ProyectoServiceIntegrationTest {
         proyecto2.setNombre("Proyecto Beta");
         proyecto2.setDescripcion("Sistema de gestión externa");
         proyectoRepository.save(proyecto2);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
 
         // Act
         List<Proyecto> proyectos = proyectoService.obtenerTodos();
 
         // Assert
+        contadorSentencias.verificarMaximo(1, 0, 0, 0);
         assertEquals(2, proyectos.size());
     }
 
@@ -142,19 +171,45 @@ public class ProyectoServiceIntegrationTest {
         // Arrange
         Proyecto proyecto = crearProyectoDePrueba();
         proyecto = proyectoRepository.save(proyecto);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
 
         proyecto.setDescripcion("Sistema de gestión");
 
+        // Act
+        Long versionLeida = proyecto.getVersion();
+        Proyecto actualizado = proyectoService.actualizar(proyecto.getId(), proyecto, versionLeida);
+        entityManager.flush();
+
+        // Assert: con If-Match, el UPDATE versionado y el de la versión de la colección, sin leer la fila
+        contadorSentencias.verificarMaximo(0, 0, 2, 0);
+        assertEquals("Sistema de gestión", actualizado.getDescripcion());
+        assertEquals(versionLeida + 1, actualizado.getVersion());
+        assertEquals(proyectoRepository.findVersionById(proyecto.getId()).orElseThrow(), actualizado.getVersion());
+    }
+
+    //Caso éxito: sin If-Match se lee la versión antes del UPDATE para devolverla
+    @Test
+    void cuandoActualizarProyectoSinVersion_entoncesDevuelveLaVersionNueva() {
+        // Arrange
+        Proyecto proyecto = proyectoRepository.save(crearProyectoDePrueba());
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
+
         // Act
         Proyecto actualizado = proyectoService.actualizar(proyecto.getId(), proyecto);
+        entityManager.flush();
 
         // Assert
-        assertEquals("Sistema de gestión", actualizado.getDescripcion());
+        contadorSentencias.verificarMaximo(1, 0, 2, 0);
+        assertEquals(proyectoRepository.findVersionById(proyecto.getId()).orElseThrow(), actualizado.getVersion());
     }
 
     //Caso error: proyecto no existe, lanza excepción
     @Test
-    void cuandoActualizarDepartamentoNoExistente_entoncesLanzaExcepcion() {
+    void cuandoActualizarProyectoNoExistente_entoncesLanzaExcepcion() {
         // Arrange
         Proyecto proyecto = crearProyectoDePrueba();
 
@@ -164,23 +219,42 @@ public class ProyectoServiceIntegrationTest {
         });
     }
 
+    //Caso error: el proyecto cambió desde que se leyó su versión
+    @Test
+    void cuandoActualizarConVersionDesactualizada_entoncesLanzaExcepcion() {
+        // Arrange
+        Proyecto proyecto = proyectoRepository.save(crearProyectoDePrueba());
+        Long versionLeida = proyecto.getVersion();
+        proyectoService.actualizar(proyecto.getId(), crearProyectoDePrueba(), versionLeida);
+
+        // Act + Assert
+        Long id = proyecto.getId();
+        assertThrows(VersionNoCoincideException.class, () ->
+            proyectoService.actualizar(id, crearProyectoDePrueba(), versionLeida));
+    }
+
     //Caso éxito: eliminar proyecto existente
     @Test
-    void cuandoEliminarDepartamentoExistente_entoncesSeElimina() throws ProyectoNoEncontradoException {
+    void cuandoEliminarProyectoExistente_entoncesSeElimina() throws ProyectoNoEncontradoException {
         // Arrange
         Proyecto proyecto = crearProyectoDePrueba();
         proyecto = proyectoRepository.save(proyecto);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
 
         // Act
         proyectoService.eliminar(proyecto.getId());
+        entityManager.flush();
 
-        // Assert
+        // Assert: existencia, carga para el borrado y DELETE, más el UPDATE de la versión de la colección
+        contadorSentencias.verificarMaximo(2, 0, 1, 1);
         assertFalse(proyectoRepository.existsById(proyecto.getId()));
     }
 
     //Caso error: eliminar proyecto no existente
     @Test
-    void cuandoEliminarDepartamentoNoExistente_entoncesLanzaExcepcion() {
+    void cuandoEliminarProyectoNoExistente_entoncesLanzaExcepcion() {
         // Act + Assert
         assertThrows(ProyectoNoEncontradoException.class, () -> {
             proyectoService.eliminar(9999L);
@@ -216,4 +290,61 @@ public class ProyectoServiceIntegrationTest {
         assertEquals("Proyecto Activo", activos.get(0).getNombre());
         assertTrue(activos.get(0).getFechaFin().isAfter(hoy));
     }
+
+    @Test
+    void cuandoListarProyectosActivos_entoncesRetornaSoloDTOsVigentes() {
+        // Arrange
+        LocalDate hoy = LocalDate.now();
+        Proyecto activo = crearProyectoDePrueba();
+        activo.setFechaFin(hoy.plusMonths(2));
+        proyectoRepository.save(activo);
+
+        Proyecto finalizado = crearProyectoDePrueba();
+        finalizado.setNombre("Proyecto Finalizado");
+        finalizado.setFechaFin(hoy.minusDays(1));
+        proyectoRepository.save(finalizado);
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
+
+        // Act
+        List<ProyectoDTO> activos = proyectoService.listarProyectosActivos();
+
+        // Assert
+        contadorSentencias.verificarMaximo(1, 0, 0, 0);
+        assertEquals(1, activos.size());
+        assertEquals("Proyecto Alpha", activos.get(0).nombre());
+    }
+
+    //Caso éxito: PATCH de la fecha de fin conserva los demás campos
+    @Test
+    void cuandoParchearFechaFin_entoncesConservaLosDemasCampos() throws Exception {
+        // Arrange
+        Proyecto proyecto = proyectoService.guardar(crearProyectoDePrueba());
+        entityManager.flush();
+        entityManager.clear();
+        contadorSentencias.reiniciar();
+
+        // Act
+        Proyecto actualizado = proyectoService.parchear(proyecto.getId(),
+            objectMapper.readTree("{\"fechaFin\": \"2030-06-30\"}"), proyecto.getVersion());
+        entityManager.flush();
+
+        // Assert
+        contadorSentencias.verificarMaximo(1, 0, 2, 0);
+        assertEquals(LocalDate.of(2030, 6, 30), actualizado.getFechaFin());
+        assertEquals("Proyecto Alpha", actualizado.getNombre());
+        assertEquals(proyecto.getFechaInicio(), actualizado.getFechaInicio());
+    }
+
+    //Caso error: fecha con formato inválido
+    @Test
+    void cuandoParchearFechaInvalida_entoncesLanzaExcepcion() {
+        // Arrange
+        Long id = proyectoService.guardar(crearProyectoDePrueba()).getId();
+
+        // Act + Assert
+        assertThrows(ParcheInvalidoException.class, () ->
+            proyectoService.parchear(id, objectMapper.readTree("{\"fechaFin\": \"30/06/2030\"}"), null));
+    }
 }
@@ -0,0 +1,162 @@
+package um.example.TP5.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cuenta, por tipo, las sentencias que llegan al DataSource de la aplicación, para que los tests fijen un máximo de
+ * consultas por operación y una regresión (por ejemplo, un N+1) rompa el build.
+ * <p>
+ * Se registra con {@code @Import(ContadorSentencias.class)}: como BeanPostProcessor envuelve el bean
+ * {@code dataSource} en un proxy JDBC. Cuenta ejecuciones, no filas: un batch JDBC es una sola sentencia. Hibernate
+ * demora los UPDATE/DELETE (y los INSERT que no son IDENTITY) hasta el flush, así que hay que hacer
+ * {@code entityManager.flush()} antes de verificar.
+ * <pre>
+ * contadorSentencias.reiniciar();
+ * empleadoService.buscarPorId(id);
+ * contadorSentencias.verificarMaximo(1, 0, 0, 0);
+ * </pre>
+ */
+public class ContadorSentencias implements BeanPostProcessor {
+
+    public enum Tipo { SELECT, INSERT, UPDATE, DELETE, OTRA }
+
+    private static final Set<String> EJECUCIONES = Set.of(
+        "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final Map<Tipo, AtomicLong> contadores = new EnumMap<>(Tipo.class);
+    private final Map<Tipo, ConcurrentLinkedQueue<String>> sentencias = new EnumMap<>(Tipo.class);
+
+    public ContadorSentencias() {
+        for (Tipo tipo : Tipo.values()) {
+            contadores.put(tipo, new AtomicLong());
+            sentencias.put(tipo, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    public void reiniciar() {
+        contadores.values().forEach(contador -> contador.set(0));
+        sentencias.values().forEach(ConcurrentLinkedQueue::clear);
+    }
+
+    public long cantidad(Tipo tipo) {
+        return contadores.get(tipo).get();
+    }
+
+    /** SQL de las sentencias de un tipo ejecutadas desde el último reinicio, en orden. */
+    public List<String> sentencias(Tipo tipo) {
+        return List.copyOf(sentencias.get(tipo));
+    }
+
+    /** Falla si desde el último reinicio se ejecutaron más sentencias de cada tipo que las indicadas. */
+    public void verificarMaximo(long selects, long inserts, long updates, long deletes) {
+        verificarMaximo(Tipo.SELECT, selects);
+        verificarMaximo(Tipo.INSERT, inserts);
+        verificarMaximo(Tipo.UPDATE, updates);
+        verificarMaximo(Tipo.DELETE, deletes);
+    }
+
+    public void verificarMaximo(Tipo tipo, long maximo) {
+        long cantidad = cantidad(tipo);
+        assertTrue(cantidad <= maximo,
+            () -> "Se esperaban como máximo " + maximo + " sentencias " + tipo + " y se ejecutaron " + cantidad);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return proxy(DataSource.class, dataSource, (destino, metodo, args) -> {
+                Object resultado = invocar(destino, metodo, args);
+                return resultado instanceof Connection conexion ? envolver(conexion) : resultado;
+            });
+        }
+        return bean;
+    }
+
+    private Connection envolver(Connection conexion) {
+        return proxy(Connection.class, conexion, (destino, metodo, args) -> {
+            Object resultado = invocar(destino, metodo, args);
+            if (resultado instanceof CallableStatement sentencia) {
+                return envolver(CallableStatement.class, sentencia, (String) args[0]);
+            }
+            if (resultado instanceof PreparedStatement sentencia) {
+                return envolver(PreparedStatement.class, sentencia, (String) args[0]);
+            }
+            if (resultado instanceof Statement sentencia) {
+                return envolver(Statement.class, sentencia, null);
+            }
+            return resultado;
+        });
+    }
+
+    // Con SQL (PreparedStatement) cada ejecución cuenta ese SQL; sin SQL (Statement) cuenta el que recibe execute*
+    private <T extends Statement> T envolver(Class<T> tipo, T sentencia, String sql) {
+        String[] ultimoSql = {sql};
+        return proxy(tipo, sentencia, (destino, metodo, args) -> {
+            String nombre = metodo.getName();
+            if (nombre.equals("addBatch") && args != null && args.length == 1) {
+                ultimoSql[0] = (String) args[0];
+            } else if (EJECUCIONES.contains(nombre)) {
+                contar(args != null && args.length > 0 && args[0] instanceof String texto ? texto : ultimoSql[0]);
+            }
+            return invocar(destino, metodo, args);
+        });
+    }
+
+    private void contar(String sql) {
+        Tipo tipo = tipoDe(sql);
+        contadores.get(tipo).incrementAndGet();
+        if (sql != null) {
+            sentencias.get(tipo).add(sql);
+        }
+    }
+
+    static Tipo tipoDe(String sql) {
+        if (sql == null) {
+            return Tipo.OTRA;
+        }
+        String inicio = sql.stripLeading().toLowerCase(Locale.ROOT);
+        for (Tipo tipo : Tipo.values()) {
+            if (tipo != Tipo.OTRA && inicio.startsWith(tipo.name().toLowerCase(Locale.ROOT))) {
+                return tipo;
+            }
+        }
+        return Tipo.OTRA;
+    }
+
+    @FunctionalInterface
+    private interface Intercepcion<T> {
+        Object interceptar(T destino, Method metodo, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> tipo, T destino, Intercepcion<T> intercepcion) {
+        InvocationHandler manejador = (proxy, metodo, args) -> intercepcion.interceptar(destino, metodo, args);
+        return tipo.cast(Proxy.newProxyInstance(ContadorSentencias.class.getClassLoader(), new Class<?>[]{tipo}, manejador));
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
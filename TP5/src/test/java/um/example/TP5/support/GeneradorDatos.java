@@ -0,0 +1,388 @@
+package um.example.TP5.support;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Genera, a partir de una semilla, un dataset sintético de departamentos, proyectos y empleados para benchmarks y
+ * pruebas de carga. La misma semilla, los mismos tamaños y la misma fecha de referencia producen los mismos datos.
+ * <p>
+ * Distribuciones:
+ * <ul>
+ *   <li>Empleados por departamento: Zipf, así que hay pocos departamentos muy grandes y muchos chicos (el primero
+ *   generado es el más grande).</li>
+ *   <li>Salario: log-normal alrededor de una mediana propia de cada departamento, entre 25.000 y 400.000.</li>
+ *   <li>Antigüedad: exponencial con media de 4 años (más ingresos recientes), hasta 30 años.</li>
+ *   <li>Proyectos: inicio en los últimos 5 años, duración de 3 a 36 meses y un 10 % sin fecha de fin. Cada empleado
+ *   participa en 0 a 4 proyectos; la popularidad de los proyectos también es Zipf.</li>
+ * </ul>
+ * Se carga por JDBC con batches y transacciones de varios miles de filas, sin pasar por Hibernate: los IDs se asignan
+ * a continuación del máximo de cada tabla y al final se realinea la identidad de la columna {@code id} (en MySQL el
+ * AUTO_INCREMENT se ajusta solo). Con el perfil {@code ids-pooled} las secuencias no se realinean acá sino al
+ * reiniciar la aplicación ({@code AlineacionSecuenciasIds}). Las estadísticas de salario y el índice de salarios en
+ * memoria no se actualizan: hay que reconstruirlos después de generar.
+ * <p>
+ * Como se confirma cada {@code BATCHES_POR_TRANSACCION} batches, el rollback de un error no alcanza a las filas ya
+ * confirmadas: ante un error se borran los rangos de IDs que se estaban generando (y sus asignaciones a proyectos), así
+ * la base queda como estaba y la identidad sin realinear sigue siendo válida. Supone que nadie más inserta en esas
+ * tablas mientras se genera.
+ * <p>
+ * En MySQL y PostgreSQL conviene agregar {@code rewriteBatchedStatements=true} / {@code reWriteBatchedInserts=true}
+ * a la URL para que cada batch viaje como un único INSERT de varias filas.
+ */
+public final class GeneradorDatos {
+    private static final int TAMANIO_BATCH = 1000;
+    private static final int BATCHES_POR_TRANSACCION = 10;
+
+    private static final String[] AREAS = {
+        "Tecnologia", "Ventas", "Marketing", "Finanzas", "Recursos Humanos", "Logistica", "Legales", "Compras",
+        "Atencion al Cliente", "Operaciones", "Calidad", "Investigacion"};
+    private static final String[] NOMBRES = {
+        "Martin", "Lucia", "Sofia", "Mateo", "Valentina", "Santiago", "Camila", "Juan", "Martina", "Tomas",
+        "Julieta", "Nicolas", "Agustina", "Facundo", "Micaela", "Lautaro", "Florencia", "Franco", "Carla", "Diego"};
+    private static final String[] APELLIDOS = {
+        "Navarro", "Gonzalez", "Rodriguez", "Gomez", "Fernandez", "Lopez", "Diaz", "Martinez", "Perez", "Garcia",
+        "Sanchez", "Romero", "Sosa", "Alvarez", "Torres", "Ruiz", "Ramirez", "Flores", "Acosta", "Rizzotti"};
+
+    private static final double MEDIANA_SALARIO = 60_000;
+    private static final double SALARIO_MINIMO = 25_000;
+    private static final double SALARIO_MAXIMO = 400_000;
+    private static final double EXPONENTE_ZIPF_DEPARTAMENTOS = 0.9;
+    private static final double EXPONENTE_ZIPF_PROYECTOS = 1.1;
+    private static final int PROYECTOS_POR_EMPLEADO_MAXIMO = 4;
+
+    private final DataSource dataSource;
+
+    public GeneradorDatos(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @param semilla Semilla del generador pseudoaleatorio.
+     * @param empleados Cantidad de empleados.
+     * @param departamentos Cantidad de departamentos (al menos 1).
+     * @param proyectos Cantidad de proyectos (al menos 1).
+     * @param fechaReferencia "Hoy" para las fechas de contratación y de los proyectos.
+     */
+    public record Configuracion(long semilla, int empleados, int departamentos, int proyectos, LocalDate fechaReferencia) {
+        public static Configuracion de(long semilla, int empleados, int departamentos, int proyectos) {
+            return new Configuracion(semilla, empleados, departamentos, proyectos, LocalDate.now());
+        }
+    }
+
+    /**
+     * IDs generados: cada entidad ocupa un rango contiguo que empieza en {@code primerIdX}.
+     * @param asignaciones Filas insertadas en empleado_proyecto.
+     */
+    public record Resultado(long primerIdDepartamento, int departamentos, long primerIdProyecto, int proyectos,
+                            long primerIdEmpleado, int empleados, long asignaciones, Duration duracion) {
+        public long idDepartamento(int indice) {
+            return primerIdDepartamento + indice;
+        }
+
+        public long idProyecto(int indice) {
+            return primerIdProyecto + indice;
+        }
+
+        public long idEmpleado(int indice) {
+            return primerIdEmpleado + indice;
+        }
+    }
+
+    public Resultado generar(Configuracion configuracion) {
+        long inicio = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(configuracion.semilla());
+        try (Connection conexion = dataSource.getConnection()) {
+            long primerIdDepartamento = siguienteId(conexion, "departamentos");
+            long primerIdProyecto = siguienteId(conexion, "proyectos");
+            long primerIdEmpleado = siguienteId(conexion, "empleados");
+            boolean autoCommit = conexion.getAutoCommit();
+            conexion.setAutoCommit(false);
+            try {
+                double[] medianas = insertarDepartamentos(conexion, configuracion, random, primerIdDepartamento);
+                insertarProyectos(conexion, configuracion, random, primerIdProyecto);
+                long asignaciones = insertarEmpleados(conexion, configuracion, random, medianas,
+                    primerIdDepartamento, primerIdProyecto, primerIdEmpleado);
+                registrarCambioColecciones(conexion);
+                conexion.commit();
+
+                realinearIdentidad(conexion, "departamentos", primerIdDepartamento + configuracion.departamentos());
+                realinearIdentidad(conexion, "proyectos", primerIdProyecto + configuracion.proyectos());
+                realinearIdentidad(conexion, "empleados", primerIdEmpleado + configuracion.empleados());
+                conexion.commit();
+
+                return new Resultado(primerIdDepartamento, configuracion.departamentos(), primerIdProyecto,
+                    configuracion.proyectos(), primerIdEmpleado, configuracion.empleados(), asignaciones,
+                    Duration.ofNanos(System.nanoTime() - inicio));
+            } catch (SQLException | RuntimeException ex) {
+                conexion.rollback();
+                try {
+                    eliminarGenerados(conexion, primerIdDepartamento, primerIdProyecto, primerIdEmpleado);
+                    conexion.commit();
+                } catch (SQLException limpieza) {
+                    ex.addSuppressed(limpieza);
+                }
+                throw ex;
+            } finally {
+                conexion.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("No se pudo generar el dataset", ex);
+        }
+    }
+
+    // Devuelve la mediana salarial de cada departamento
+    private double[] insertarDepartamentos(Connection conexion, Configuracion configuracion, SplittableRandom random,
+                                           long primerId) throws SQLException {
+        double[] medianas = new double[configuracion.departamentos()];
+        try (Lote lote = new Lote(conexion,
+            "INSERT INTO departamentos (id, nombre, descripcion, version) VALUES (?, ?, ?, 0)")) {
+            for (int i = 0; i < configuracion.departamentos(); i++) {
+                long id = primerId + i;
+                String area = AREAS[i % AREAS.length];
+                medianas[i] = MEDIANA_SALARIO * Math.exp(0.25 * normal(random));
+                lote.sentencia.setLong(1, id);
+                lote.sentencia.setString(2, area + " " + id);
+                lote.sentencia.setString(3, "Departamento de " + area);
+                lote.agregar();
+            }
+        }
+        return medianas;
+    }
+
+    private void insertarProyectos(Connection conexion, Configuracion configuracion, SplittableRandom random,
+                                   long primerId) throws SQLException {
+        LocalDate hoy = configuracion.fechaReferencia();
+        try (Lote lote = new Lote(conexion,
+            "INSERT INTO proyectos (id, nombre, descripcion, fecha_inicio, fecha_fin, version) VALUES (?, ?, ?, ?, ?, 0)")) {
+            for (int i = 0; i < configuracion.proyectos(); i++) {
+                long id = primerId + i;
+                LocalDate fechaInicio = hoy.minusDays(random.nextInt(5 * 365));
+                LocalDate fechaFin = random.nextInt(10) == 0 ? null : fechaInicio.plusMonths(3 + random.nextInt(34));
+                lote.sentencia.setLong(1, id);
+                lote.sentencia.setString(2, "Proyecto " + id);
+                lote.sentencia.setString(3, "Proyecto generado " + i);
+                lote.sentencia.setDate(4, Date.valueOf(fechaInicio));
+                if (fechaFin == null) {
+                    lote.sentencia.setNull(5, Types.DATE);
+                } else {
+                    lote.sentencia.setDate(5, Date.valueOf(fechaFin));
+                }
+                lote.agregar();
+            }
+        }
+    }
+
+    private long insertarEmpleados(Connection conexion, Configuracion configuracion, SplittableRandom random,
+                                   double[] medianas, long primerIdDepartamento, long primerIdProyecto,
+                                   long primerId) throws SQLException {
+        double[] pesosDepartamentos = acumuladoZipf(configuracion.departamentos(), EXPONENTE_ZIPF_DEPARTAMENTOS);
+        double[] pesosProyectos = acumuladoZipf(configuracion.proyectos(), EXPONENTE_ZIPF_PROYECTOS);
+        LocalDate hoy = configuracion.fechaReferencia();
+        long[] proyectosEmpleado = new long[PROYECTOS_POR_EMPLEADO_MAXIMO];
+        long asignaciones = 0;
+        // Las asignaciones se envían después del batch de empleados correspondiente (clave foránea)
+        try (Lote empleados = new Lote(conexion, "INSERT INTO empleados (id, nombre, apellido, email, "
+                + "fecha_contratacion, salario, departamento_id, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)")) {
+            Lote proyectos = empleados.dependiente("INSERT INTO empleado_proyecto (empleado_id, proyecto_id) VALUES (?, ?)");
+            for (int i = 0; i < configuracion.empleados(); i++) {
+                long id = primerId + i;
+                int departamento = muestra(pesosDepartamentos, random);
+                String nombre = NOMBRES[random.nextInt(NOMBRES.length)];
+                String apellido = APELLIDOS[random.nextInt(APELLIDOS.length)];
+                double salario = medianas[departamento] * Math.exp(0.35 * normal(random));
+                salario = Math.min(SALARIO_MAXIMO, Math.max(SALARIO_MINIMO, Math.round(salario / 10) * 10.0));
+                long diasAntiguedad = Math.min(30 * 365, (long) (-Math.log(1 - random.nextDouble()) * 4 * 365));
+
+                int cantidadProyectos = cantidadProyectos(random);
+                int distintos = 0;
+                for (int intento = 0; distintos < cantidadProyectos && intento < cantidadProyectos * 4; intento++) {
+                    long proyecto = primerIdProyecto + muestra(pesosProyectos, random);
+                    if (!contiene(proyectosEmpleado, distintos, proyecto)) {
+                        proyectosEmpleado[distintos++] = proyecto;
+                    }
+                }
+
+                empleados.sentencia.setLong(1, id);
+                empleados.sentencia.setString(2, nombre);
+                empleados.sentencia.setString(3, apellido);
+                empleados.sentencia.setString(4, (nombre + "." + apellido + "." + id + "@empresa.com").toLowerCase(Locale.ROOT));
+                empleados.sentencia.setDate(5, Date.valueOf(hoy.minusDays(diasAntiguedad)));
+                empleados.sentencia.setBigDecimal(6, BigDecimal.valueOf((long) salario).setScale(2));
+                empleados.sentencia.setLong(7, primerIdDepartamento + departamento);
+                for (int p = 0; p < distintos; p++) {
+                    proyectos.sentencia.setLong(1, id);
+                    proyectos.sentencia.setLong(2, proyectosEmpleado[p]);
+                    proyectos.sentencia.addBatch();
+                }
+                asignaciones += distintos;
+                empleados.agregar();
+            }
+        }
+        return asignaciones;
+    }
+
+    // 15 % sin proyectos; el resto, 1 a 4 con probabilidad decreciente
+    private static int cantidadProyectos(SplittableRandom random) {
+        if (random.nextInt(100) < 15) {
+            return 0;
+        }
+        int cantidad = 1;
+        while (cantidad < PROYECTOS_POR_EMPLEADO_MAXIMO && random.nextDouble() < 0.35) {
+            cantidad++;
+        }
+        return cantidad;
+    }
+
+    // Los GET condicionales de las colecciones no deben responder 304 con datos viejos
+    private static void registrarCambioColecciones(Connection conexion) throws SQLException {
+        try (PreparedStatement sentencia = conexion.prepareStatement("UPDATE versiones_colecciones "
+            + "SET version = version + 1, ultima_modificacion = ? WHERE coleccion IN ('departamentos', 'proyectos')")) {
+            sentencia.setTimestamp(1, Timestamp.from(Instant.now()));
+            sentencia.executeUpdate();
+        }
+    }
+
+    // Las asignaciones primero y los departamentos al final, por las claves foráneas
+    private static void eliminarGenerados(Connection conexion, long primerIdDepartamento, long primerIdProyecto,
+                                          long primerIdEmpleado) throws SQLException {
+        eliminarDesde(conexion, "DELETE FROM empleado_proyecto WHERE empleado_id >= ?", primerIdEmpleado);
+        eliminarDesde(conexion, "DELETE FROM empleados WHERE id >= ?", primerIdEmpleado);
+        eliminarDesde(conexion, "DELETE FROM proyectos WHERE id >= ?", primerIdProyecto);
+        eliminarDesde(conexion, "DELETE FROM departamentos WHERE id >= ?", primerIdDepartamento);
+    }
+
+    private static void eliminarDesde(Connection conexion, String sql, long primerId) throws SQLException {
+        try (PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+            sentencia.setLong(1, primerId);
+            sentencia.executeUpdate();
+        }
+    }
+
+    private static long siguienteId(Connection conexion, String tabla) throws SQLException {
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet resultado = sentencia.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + tabla)) {
+            resultado.next();
+            return resultado.getLong(1) + 1;
+        }
+    }
+
+    private static void realinearIdentidad(Connection conexion, String tabla, long siguienteId) throws SQLException {
+        DatabaseMetaData metaData = conexion.getMetaData();
+        String producto = metaData.getDatabaseProductName().toLowerCase(Locale.ROOT);
+        if (!esIdentidad(metaData, tabla)) {
+            return;
+        }
+        try (Statement sentencia = conexion.createStatement()) {
+            if (producto.contains("h2")) {
+                sentencia.execute("ALTER TABLE " + tabla + " ALTER COLUMN id RESTART WITH " + siguienteId);
+            } else if (producto.contains("postgresql")) {
+                sentencia.execute("SELECT setval(pg_get_serial_sequence('" + tabla + "', 'id'), " + (siguienteId - 1) + ")");
+            }
+        }
+    }
+
+    private static boolean esIdentidad(DatabaseMetaData metaData, String tabla) throws SQLException {
+        String nombre = metaData.storesUpperCaseIdentifiers() ? tabla.toUpperCase(Locale.ROOT) : tabla;
+        String columna = metaData.storesUpperCaseIdentifiers() ? "ID" : "id";
+        try (ResultSet columnas = metaData.getColumns(null, null, nombre, columna)) {
+            return columnas.next() && "YES".equals(columnas.getString("IS_AUTOINCREMENT"));
+        }
+    }
+
+    // Pesos acumulados de una distribución Zipf con n elementos: P(i) proporcional a 1 / (i + 1)^exponente
+    private static double[] acumuladoZipf(int n, double exponente) {
+        double[] acumulado = new double[n];
+        double suma = 0;
+        for (int i = 0; i < n; i++) {
+            suma += 1 / Math.pow(i + 1, exponente);
+            acumulado[i] = suma;
+        }
+        for (int i = 0; i < n; i++) {
+            acumulado[i] /= suma;
+        }
+        return acumulado;
+    }
+
+    private static int muestra(double[] acumulado, SplittableRandom random) {
+        int posicion = Arrays.binarySearch(acumulado, random.nextDouble());
+        return Math.min(acumulado.length - 1, posicion >= 0 ? posicion : -posicion - 1);
+    }
+
+    // Box-Muller: normal estándar sin depender del estado interno de java.util.Random
+    private static double normal(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static boolean contiene(long[] valores, int cantidad, long valor) {
+        for (int i = 0; i < cantidad; i++) {
+            if (valores[i] == valor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Envía un batch cada TAMANIO_BATCH filas y confirma cada BATCHES_POR_TRANSACCION batches
+    private static final class Lote implements AutoCloseable {
+        private final Connection conexion;
+        private final PreparedStatement sentencia;
+        private Lote siguiente;
+        private int filas;
+
+        private Lote(Connection conexion, String sql) throws SQLException {
+            this.conexion = conexion;
+            this.sentencia = conexion.prepareStatement(sql);
+        }
+
+        // Lote que se envía siempre después de este y se cierra con él
+        private Lote dependiente(String sql) throws SQLException {
+            siguiente = new Lote(conexion, sql);
+            return siguiente;
+        }
+
+        private void agregar() throws SQLException {
+            sentencia.addBatch();
+            if (++filas % TAMANIO_BATCH == 0) {
+                enviar();
+                if (filas % (TAMANIO_BATCH * BATCHES_POR_TRANSACCION) == 0) {
+                    conexion.commit();
+                }
+            }
+        }
+
+        private void enviar() throws SQLException {
+            sentencia.executeBatch();
+            if (siguiente != null) {
+                siguiente.sentencia.executeBatch();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                enviar();
+            } finally {
+                sentencia.close();
+                if (siguiente != null) {
+                    siguiente.sentencia.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package um.example.TP5.support;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ejecuta GeneradorDatos sobre H2 migrado con Flyway (esquema de PostgreSQL).
+ */
+public class GeneradorDatosTest {
+    private static final LocalDate HOY = LocalDate.of(2025, 6, 30);
+    private static final GeneradorDatos.Configuracion CONFIGURACION =
+        new GeneradorDatos.Configuracion(7, 5000, 50, 40, HOY);
+
+    @Test
+    void testGeneraLasCantidadesPedidas() {
+        DataSource dataSource = crearBase();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        GeneradorDatos.Resultado resultado = new GeneradorDatos(dataSource).generar(CONFIGURACION);
+
+        assertEquals(50, contar(jdbc, "departamentos"));
+        assertEquals(40, contar(jdbc, "proyectos"));
+        assertEquals(5000, contar(jdbc, "empleados"));
+        assertEquals(resultado.asignaciones(), contar(jdbc, "empleado_proyecto"));
+        assertEquals(5000, jdbc.queryForObject("SELECT COUNT(DISTINCT email) FROM empleados", Long.class));
+        assertEquals(resultado.idEmpleado(4999), jdbc.queryForObject("SELECT MAX(id) FROM empleados", Long.class));
+    }
+
+    @Test
+    void testMismaSemillaGeneraLosMismosDatos() {
+        DataSource primera = crearBase();
+        DataSource segunda = crearBase();
+        DataSource otraSemilla = crearBase();
+
+        new GeneradorDatos(primera).generar(CONFIGURACION);
+        new GeneradorDatos(segunda).generar(CONFIGURACION);
+        new GeneradorDatos(otraSemilla).generar(new GeneradorDatos.Configuracion(8, 5000, 50, 40, HOY));
+
+        assertEquals(volcado(primera), volcado(segunda));
+        assertNotEquals(volcado(primera), volcado(otraSemilla));
+    }
+
+    @Test
+    void testDistribucionesSonRealistas() {
+        DataSource dataSource = crearBase();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        new GeneradorDatos(dataSource).generar(CONFIGURACION);
+
+        // Zipf: el departamento más grande tiene varias veces el promedio (100 empleados)
+        long mayorDepartamento = jdbc.queryForObject(
+            "SELECT MAX(c) FROM (SELECT COUNT(*) AS c FROM empleados GROUP BY departamento_id) t", Long.class);
+        assertTrue(mayorDepartamento > 400, "Departamento más grande: " + mayorDepartamento);
+
+        BigDecimal mediana = jdbc.queryForObject(
+            "SELECT salario FROM empleados ORDER BY salario OFFSET 2500 ROWS FETCH NEXT 1 ROWS ONLY", BigDecimal.class);
+        assertTrue(mediana.compareTo(BigDecimal.valueOf(50_000)) > 0 && mediana.compareTo(BigDecimal.valueOf(70_000)) < 0,
+            "Mediana de salarios: " + mediana);
+        assertEquals(0, jdbc.queryForObject(
+            "SELECT COUNT(*) FROM empleados WHERE salario < 25000 OR salario > 400000", Long.class));
+
+        // Antigüedad exponencial: más contrataciones en los últimos 4 años que en los 4 anteriores
+        long recientes = jdbc.queryForObject(
+            "SELECT COUNT(*) FROM empleados WHERE fecha_contratacion > ?", Long.class, HOY.minusYears(4));
+        long anteriores = jdbc.queryForObject("SELECT COUNT(*) FROM empleados WHERE fecha_contratacion "
+            + "BETWEEN ? AND ?", Long.class, HOY.minusYears(8), HOY.minusYears(4));
+        assertTrue(recientes > anteriores, recientes + " recientes contra " + anteriores + " anteriores");
+        assertEquals(0, jdbc.queryForObject(
+            "SELECT COUNT(*) FROM empleados WHERE fecha_contratacion > ?", Long.class, HOY));
+
+        long sinProyectos = jdbc.queryForObject("SELECT COUNT(*) FROM empleados e WHERE NOT EXISTS "
+            + "(SELECT 1 FROM empleado_proyecto ep WHERE ep.empleado_id = e.id)", Long.class);
+        assertTrue(sinProyectos > 500 && sinProyectos < 1000, "Empleados sin proyectos: " + sinProyectos);
+        assertEquals(0, jdbc.queryForObject(
+            "SELECT COUNT(*) FROM proyectos WHERE fecha_fin IS NOT NULL AND fecha_fin <= fecha_inicio", Long.class));
+    }
+
+    @Test
+    void testAgregaDatosAContinuacionDeLosExistentes() {
+        DataSource dataSource = crearBase();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO departamentos (nombre, version) VALUES ('Existente', 0)");
+        long versionAntes = jdbc.queryForObject(
+            "SELECT version FROM versiones_colecciones WHERE coleccion = 'departamentos'", Long.class);
+
+        GeneradorDatos.Resultado resultado = new GeneradorDatos(dataSource).generar(CONFIGURACION);
+
+        assertEquals(2, resultado.primerIdDepartamento());
+        // La identidad queda realineada: la siguiente alta no choca con los IDs generados
+        jdbc.update("INSERT INTO departamentos (nombre, version) VALUES ('Nuevo', 0)");
+        assertEquals(resultado.idDepartamento(50), jdbc.queryForObject(
+            "SELECT id FROM departamentos WHERE nombre = 'Nuevo'", Long.class));
+        assertTrue(jdbc.queryForObject("SELECT version FROM versiones_colecciones WHERE coleccion = 'departamentos'",
+            Long.class) > versionAntes);
+    }
+
+    @Test
+    void testErrorDespuesDeConfirmarUnaParteNoDejaDatosGenerados() {
+        // El primer bloque de 10.000 empleados se confirma y el INSERT del empleado 10.500 falla
+        DataSource dataSource = crearBase();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("ALTER TABLE empleados ADD CONSTRAINT chk_falla_generacion CHECK (id < 10500)");
+        GeneradorDatos generador = new GeneradorDatos(dataSource);
+
+        assertThrows(IllegalStateException.class,
+            () -> generador.generar(new GeneradorDatos.Configuracion(7, 12000, 50, 40, HOY)));
+
+        assertEquals(0, contar(jdbc, "empleados"));
+        assertEquals(0, contar(jdbc, "empleado_proyecto"));
+        assertEquals(0, contar(jdbc, "proyectos"));
+        assertEquals(0, contar(jdbc, "departamentos"));
+        jdbc.execute("ALTER TABLE empleados DROP CONSTRAINT chk_falla_generacion");
+        assertEquals(1, generador.generar(CONFIGURACION).primerIdEmpleado());
+    }
+
+    private static DataSource crearBase() {
+        String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        DataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration/postgresql")
+            .load()
+            .migrate();
+        return dataSource;
+    }
+
+    private static long contar(JdbcTemplate jdbc, String tabla) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + tabla, Long.class);
+    }
+
+    private static List<Map<String, Object>> volcado(DataSource dataSource) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        List<Map<String, Object>> filas = jdbc.queryForList("SELECT * FROM empleados ORDER BY id");
+        filas.addAll(jdbc.queryForList("SELECT * FROM proyectos ORDER BY id"));
+        filas.addAll(jdbc.queryForList("SELECT * FROM departamentos ORDER BY id"));
+        filas.addAll(jdbc.queryForList("SELECT * FROM empleado_proyecto ORDER BY empleado_id, proyecto_id"));
+        return filas;
+    }
+}
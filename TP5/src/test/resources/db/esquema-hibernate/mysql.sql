@@ -0,0 +1,12 @@
+-- Esquema que generaba Hibernate (ddl-auto) con las entidades anteriores a Flyway y el dialecto de MySQL.
+-- Las restricciones UNIQUE de @Column(unique = true) quedan con el nombre de hash de Hibernate (UK...).
+
+create table departamentos (id bigint not null auto_increment, nombre varchar(100) not null, descripcion varchar(500), primary key (id)) engine=InnoDB;
+create table empleado_proyecto (empleado_id bigint not null, proyecto_id bigint not null, primary key (empleado_id, proyecto_id)) engine=InnoDB;
+create table empleados (fecha_contratacion date not null, salario decimal(10,2) not null, departamento_id bigint, id bigint not null auto_increment, apellido varchar(100) not null, nombre varchar(100) not null, email varchar(255) not null, primary key (id)) engine=InnoDB;
+create table proyectos (fecha_fin date, fecha_inicio date, id bigint not null auto_increment, nombre varchar(100) not null, descripcion varchar(1000), primary key (id)) engine=InnoDB;
+alter table departamentos add constraint UK9vfgma390a16fkev3ryhnyrvh unique (nombre);
+alter table empleados add constraint UK6fdpo2x5rmegfbngre7xb3yoh unique (email);
+alter table empleado_proyecto add constraint FKdjyaatr3q6yytbw76qnbtkiow foreign key (proyecto_id) references proyectos (id);
+alter table empleado_proyecto add constraint FKecnfcqq5fkwqac9mgcmd79pl6 foreign key (empleado_id) references empleados (id);
+alter table empleados add constraint FK1dvvcamb3oxb2d9xqd9taug0u foreign key (departamento_id) references departamentos (id);
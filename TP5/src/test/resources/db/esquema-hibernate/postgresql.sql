@@ -0,0 +1,10 @@
+-- Esquema que generaba Hibernate (ddl-auto) con las entidades anteriores a Flyway y el dialecto de PostgreSQL.
+-- Las restricciones UNIQUE de @Column(unique = true) quedan con el nombre automático del motor (empleados_email_key).
+
+create table departamentos (id bigint generated by default as identity, nombre varchar(100) not null unique, descripcion varchar(500), primary key (id));
+create table empleado_proyecto (empleado_id bigint not null, proyecto_id bigint not null, primary key (empleado_id, proyecto_id));
+create table empleados (fecha_contratacion date not null, salario numeric(10,2) not null, departamento_id bigint, id bigint generated by default as identity, apellido varchar(100) not null, nombre varchar(100) not null, email varchar(255) not null unique, primary key (id));
+create table proyectos (fecha_fin date, fecha_inicio date, id bigint generated by default as identity, nombre varchar(100) not null, descripcion varchar(1000), primary key (id));
+alter table if exists empleado_proyecto add constraint FKdjyaatr3q6yytbw76qnbtkiow foreign key (proyecto_id) references proyectos;
+alter table if exists empleado_proyecto add constraint FKecnfcqq5fkwqac9mgcmd79pl6 foreign key (empleado_id) references empleados;
+alter table if exists empleados add constraint FK1dvvcamb3oxb2d9xqd9taug0u foreign key (departamento_id) references departamentos;